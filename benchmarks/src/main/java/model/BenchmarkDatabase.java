@@ -0,0 +1,36 @@
+package model;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba para los benchmarks, que se ejecutan sobre una {@link EmbeddedDatabase} nueva en cada medición.
+ */
+final class BenchmarkDatabase {
+    private static final String[] STATUSES = {"Pendiente", "En progreso", "Completa"};
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Inserta tareas de prueba con descripciones, fechas y estados variados.
+     *
+     * @param taskDAO El DAO sobre la base de datos.
+     * @param count El número de tareas a insertar.
+     * @throws SQLException Si ocurre un error durante la inserción.
+     */
+    static void seedTasks(TaskDAO taskDAO, int count) throws SQLException {
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        List<Task> tasks = new ArrayList<>(Math.min(count, taskDAO.getBatchSize()));
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task(null, "Tarea de prueba número " + i, start.plusDays(i % 365), STATUSES[i % STATUSES.length], null));
+            if (tasks.size() == taskDAO.getBatchSize()) {
+                taskDAO.addTasks(tasks);
+                tasks.clear();
+            }
+        }
+        taskDAO.addTasks(tasks);
+    }
+}
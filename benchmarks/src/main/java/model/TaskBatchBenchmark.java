@@ -0,0 +1,154 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara las operaciones masivas de {@link TaskDAO} ({@code addTasks}, {@code updateTasks}, {@code deleteTasks})
+ * con las mismas operaciones fila a fila. Cada llamada procesa {@code rows} tareas; las filas por segundo son
+ * {@code rows} dividido entre el tiempo medio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBatchBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private EmbeddedDatabase database;
+    private TaskDAO taskDAO;
+    private List<Task> stored;
+    private int updates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("batch");
+        taskDAO = new TaskDAO(database.getDataSource());
+        BenchmarkDatabase.seedTasks(taskDAO, rows);
+        stored = taskDAO.getAllTasks();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    /**
+     * Tareas nuevas, sin id, que se insertan en la medición y se borran después sin medir.
+     */
+    @State(Scope.Thread)
+    public static class NewTasks {
+        List<Task> tasks;
+
+        @Setup(Level.Invocation)
+        public void create(TaskBatchBenchmark benchmark) {
+            tasks = createTasks(benchmark.rows);
+        }
+
+        @TearDown(Level.Invocation)
+        public void delete(TaskBatchBenchmark benchmark) throws SQLException {
+            benchmark.taskDAO.deleteTasks(idsOf(tasks));
+        }
+    }
+
+    /**
+     * Tareas insertadas sin medir que se borran en la medición.
+     */
+    @State(Scope.Thread)
+    public static class InsertedTasks {
+        List<Task> tasks;
+
+        @Setup(Level.Invocation)
+        public void insert(TaskBatchBenchmark benchmark) throws SQLException {
+            tasks = createTasks(benchmark.rows);
+            benchmark.taskDAO.addTasks(tasks);
+        }
+    }
+
+    @Benchmark
+    public void addRowByRow(NewTasks newTasks) throws SQLException {
+        for (Task task : newTasks.tasks) {
+            taskDAO.addTask(task);
+        }
+    }
+
+    @Benchmark
+    public int addBatch(NewTasks newTasks) throws SQLException {
+        return taskDAO.addTasks(newTasks.tasks);
+    }
+
+    @Benchmark
+    public void updateRowByRow() throws SQLException {
+        String status = nextStatus();
+        for (Task task : stored) {
+            task.setStatus(status);
+            taskDAO.updateTask(task);
+        }
+    }
+
+    @Benchmark
+    public int updateBatch() throws SQLException {
+        String status = nextStatus();
+        for (Task task : stored) {
+            task.setStatus(status);
+        }
+        return taskDAO.updateTasks(stored);
+    }
+
+    @Benchmark
+    public void deleteRowByRow(InsertedTasks inserted) throws SQLException {
+        for (Task task : inserted.tasks) {
+            taskDAO.deleteTask(task.getId());
+        }
+    }
+
+    @Benchmark
+    public int deleteBatch(InsertedTasks inserted) throws SQLException {
+        return taskDAO.deleteTasks(idsOf(inserted.tasks));
+    }
+
+    /**
+     * Alterna el estado en cada llamada para que todas las actualizaciones cambien la fila.
+     */
+    private String nextStatus() {
+        return updates++ % 2 == 0 ? "Completa" : "Pendiente";
+    }
+
+    private static List<Task> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task(null, "Tarea de lote " + i, start.plusDays(i % 365), "Pendiente", null));
+        }
+        return tasks;
+    }
+
+    private static List<Long> idsOf(List<Task> tasks) {
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,75 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las operaciones de una sola tarea de {@link TaskDAO}: lectura por id, actualización, y alta seguida de borrado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskCrudBenchmark {
+
+    @Param({"10000"})
+    public int tableSize;
+
+    private EmbeddedDatabase database;
+    private TaskDAO taskDAO;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("crud");
+        taskDAO = new TaskDAO(database.getDataSource());
+        BenchmarkDatabase.seedTasks(taskDAO, tableSize);
+        ids = taskDAO.getAllTaskIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public Task getTaskById() throws SQLException {
+        return taskDAO.getTaskById(randomId());
+    }
+
+    @Benchmark
+    public void updateTask() throws SQLException {
+        taskDAO.updateTask(new Task(randomId(), "Tarea editada", LocalDate.of(2030, 6, 1), "En progreso", null));
+    }
+
+    @Benchmark
+    public Long addAndDeleteTask() throws SQLException {
+        // Se borra la tarea recién creada para que el tamaño de la tabla no cambie durante la medición
+        Task task = new Task(null, "Tarea temporal", LocalDate.of(2030, 6, 1), "Pendiente", null);
+        taskDAO.addTask(task);
+        taskDAO.deleteTask(task.getId());
+        return task.getId();
+    }
+}
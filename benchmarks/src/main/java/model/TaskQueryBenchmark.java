@@ -0,0 +1,66 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la lectura de la tabla completa de tareas con distintos tamaños: la lista completa de
+ * {@link TaskDAO#getAllTasks()}, el recorrido con cursor de {@link TaskDAO#forEachTask} y la lectura de solo los ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskQueryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tableSize;
+
+    private EmbeddedDatabase database;
+    private TaskDAO taskDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("query");
+        taskDAO = new TaskDAO(database.getDataSource());
+        BenchmarkDatabase.seedTasks(taskDAO, tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Task> getAllTasks() throws SQLException {
+        return taskDAO.getAllTasks();
+    }
+
+    @Benchmark
+    public long forEachTask(Blackhole blackhole) throws SQLException {
+        return taskDAO.forEachTask(blackhole::consume);
+    }
+
+    @Benchmark
+    public long[] getAllTaskIds() throws SQLException {
+        return taskDAO.getAllTaskIds();
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el tiempo hasta la primera pantalla de {@link TaskTableModel}: leer los ids de todas las tareas y cargar
+ * la primera página de filas, tal como ocurre al abrir la ventana principal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TaskTableModelBenchmark {
+
+    @Param({"10000", "100000"})
+    public int tableSize;
+
+    private EmbeddedDatabase database;
+    private TaskDAO taskDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("table-model");
+        taskDAO = new TaskDAO(database.getDataSource());
+        BenchmarkDatabase.seedTasks(taskDAO, tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int populateFirstPage() throws Exception {
+        TaskTableModel model = new TaskTableModel(taskDAO);
+        CountDownLatch idsLoaded = new CountDownLatch(1);
+        CountDownLatch firstPageLoaded = new CountDownLatch(1);
+        model.addTableModelListener(e -> {
+            // fireTableDataChanged llega con lastRow = Integer.MAX_VALUE; la carga de una página con filas concretas
+            if (e.getLastRow() == Integer.MAX_VALUE) {
+                idsLoaded.countDown();
+            } else if (e.getType() == TableModelEvent.UPDATE && e.getFirstRow() == 0) {
+                firstPageLoaded.countDown();
+            }
+        });
+        try {
+            model.reload();
+            idsLoaded.await();
+            SwingUtilities.invokeAndWait(() -> model.getValueAt(0, 1));
+            firstPageLoaded.await();
+            return model.getRowCount();
+        } finally {
+            model.dispose();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la consulta de roles de {@link UserDAO#getRoles} y el inicio de sesión completo de
+ * {@link UserDAO#authenticate}, dominado por BCrypt, con distintos costes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserBenchmark {
+    private static final String USERNAME = "benchuser";
+    private static final String PASSWORD = "password123";
+
+    @Param({"10", "12"})
+    public int bcryptCost;
+
+    private EmbeddedDatabase database;
+    private UserDAO userDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("users");
+        userDAO = new UserDAO(database.getDataSource(), new PasswordHasher(bcryptCost));
+        RoleDAO roleDAO = new RoleDAO(database.getDataSource());
+        userDAO.addUser(new User(USERNAME, PASSWORD));
+        User user = userDAO.getUserByUsername(USERNAME);
+        for (String name : new String[]{"admin", "user", "auditor"}) {
+            Role role = new Role(name);
+            roleDAO.addRole(role);
+            roleDAO.assignRoleToUser(user.getId(), role.getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Set<String> getRoles() throws SQLException {
+        return userDAO.getRoles(USERNAME);
+    }
+
+    @Benchmark
+    public boolean authenticate() {
+        return userDAO.authenticate(USERNAME, PASSWORD);
+    }
+}
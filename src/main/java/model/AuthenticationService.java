@@ -0,0 +1,247 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio que verifica las credenciales de inicio de sesión en un pool de hilos acotado.
+ * <p>
+ * BCrypt consume CPU a propósito, así que una ráfaga de intentos podría saturar la máquina. Antes de gastar
+ * ese tiempo cada intento pasa por un {@link LoginRateLimiter} por usuario; si se admite, la verificación se
+ * encola en un pool con pocos hilos y una cola de tamaño fijo. Cuando la cola está llena el intento se rechaza
+ * de inmediato con {@link Result#BUSY} en lugar de esperar. Los contadores permiten vigilar la profundidad de
+ * la cola, los rechazos y la latencia de verificación.
+ */
+public class AuthenticationService {
+    static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    /**
+     * Resultado de un intento de inicio de sesión.
+     */
+    public enum Result {
+        /** Las credenciales son correctas. */
+        SUCCESS,
+        /** El usuario no existe o la contraseña no coincide. */
+        INVALID_CREDENTIALS,
+        /** El usuario ha agotado sus intentos y debe esperar. */
+        THROTTLED,
+        /** La cola de verificación está llena. */
+        BUSY
+    }
+
+    private static volatile AuthenticationService shared;
+
+    private final UserDAO userDAO;
+    private final PasswordHasher hasher;
+    private final LoginRateLimiter limiter;
+    private final ThreadPoolExecutor verifiers;
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong totalVerifyNanos = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    /**
+     * Crea el servicio.
+     *
+     * @param userDAO El DAO con el que se leen y actualizan los hashes.
+     * @param hasher El hasher con el que se verifican las contraseñas.
+     * @param limiter El limitador de intentos por usuario.
+     * @param threads El número de hilos que verifican contraseñas.
+     * @param queueCapacity El número máximo de verificaciones en espera; por encima se rechazan.
+     */
+    public AuthenticationService(UserDAO userDAO, PasswordHasher hasher, LoginRateLimiter limiter,
+                                 int threads, int queueCapacity) {
+        this.userDAO = userDAO;
+        this.hasher = hasher;
+        this.limiter = limiter;
+        AtomicInteger counter = new AtomicInteger();
+        verifiers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "login-verifier-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        verifiers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Obtiene el servicio compartido por la aplicación. Usa la mitad de los núcleos para verificar contraseñas,
+     * de modo que el resto de la aplicación siga respondiendo durante una ráfaga de intentos. Lee los usuarios con el
+     * DAO de {@link DataAccess}.
+     *
+     * @return el servicio compartido.
+     */
+    public static AuthenticationService shared() {
+        AuthenticationService service = shared;
+        if (service == null) {
+            synchronized (AuthenticationService.class) {
+                service = shared;
+                if (service == null) {
+                    int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+                    service = new AuthenticationService(DataAccess.shared().getUserDAO(), PasswordHasher.shared(),
+                            new LoginRateLimiter(), threads, DEFAULT_QUEUE_CAPACITY);
+                    shared = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Encola la verificación de unas credenciales. Los intentos limitados o rechazados por cola llena se
+     * resuelven de inmediato sin consultar la base de datos.
+     *
+     * @param username El nombre de usuario.
+     * @param password La contraseña en texto plano.
+     * @return El resultado futuro; se completa con una {@link SQLException} si falla la base de datos.
+     */
+    public CompletableFuture<Result> submit(String username, String password) {
+        attempts.incrementAndGet();
+        if (!limiter.tryAcquire(username)) {
+            throttled.incrementAndGet();
+            return CompletableFuture.completedFuture(Result.THROTTLED);
+        }
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        try {
+            verifiers.execute(() -> {
+                try {
+                    future.complete(verify(username, password));
+                } catch (SQLException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            return CompletableFuture.completedFuture(Result.BUSY);
+        }
+        maxQueueDepth.accumulateAndGet(verifiers.getQueue().size(), Math::max);
+        return future;
+    }
+
+    /**
+     * Verifica unas credenciales esperando el resultado. No debe llamarse desde el hilo de eventos de Swing.
+     *
+     * @param username El nombre de usuario.
+     * @param password La contraseña en texto plano.
+     * @return El resultado del intento.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     * @throws InterruptedException Si el hilo se interrumpe mientras espera.
+     */
+    public Result authenticate(String username, String password) throws SQLException, InterruptedException {
+        try {
+            return submit(username, password).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException("Error al verificar las credenciales.", e.getCause());
+        }
+    }
+
+    /**
+     * Lee el hash, lo verifica y, si el usuario se autentica, restablece sus intentos y programa en segundo plano
+     * la actualización del hash si su coste es menor que el mínimo. La conexión se devuelve al pool antes de
+     * calcular BCrypt.
+     */
+    private Result verify(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            String storedHash = userDAO.getPasswordHash(username);
+            if (storedHash != null && hasher.verify(password, storedHash)) {
+                limiter.reset(username);
+                userDAO.rehashInBackground(username, password, storedHash);
+                successes.incrementAndGet();
+                return Result.SUCCESS;
+            }
+            failures.incrementAndGet();
+            return Result.INVALID_CREDENTIALS;
+        } finally {
+            verifications.incrementAndGet();
+            totalVerifyNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Detiene los hilos de verificación. Las verificaciones en espera se descartan.
+     */
+    public void shutdown() {
+        verifiers.shutdownNow();
+    }
+
+    /**
+     * Obtiene el número de verificaciones en espera de un hilo libre.
+     *
+     * @return la profundidad actual de la cola.
+     */
+    public int getQueueDepth() {
+        return verifiers.getQueue().size();
+    }
+
+    /**
+     * Obtiene la mayor profundidad de cola observada.
+     *
+     * @return la profundidad máxima de la cola.
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Obtiene el número de verificaciones en curso.
+     *
+     * @return los hilos ocupados verificando contraseñas.
+     */
+    public int getActiveVerifications() {
+        return verifiers.getActiveCount();
+    }
+
+    public long getAttempts() {
+        return attempts.get();
+    }
+
+    public long getSuccesses() {
+        return successes.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Obtiene el tiempo medio de una verificación, incluida la lectura del hash.
+     *
+     * @return la media en milisegundos.
+     */
+    public double getAverageVerifyMillis() {
+        long count = verifications.get();
+        return count == 0 ? 0 : totalVerifyNanos.get() / 1_000_000.0 / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AuthenticationService[intentos=%d, correctos=%d, fallidos=%d, limitados=%d, rechazados=%d, "
+                        + "cola=%d, colaMax=%d, activos=%d, verificaciónMedia=%.1fms]",
+                getAttempts(), getSuccesses(), getFailures(), getThrottled(), getRejected(),
+                getQueueDepth(), getMaxQueueDepth(), getActiveVerifications(), getAverageVerifyMillis());
+    }
+}
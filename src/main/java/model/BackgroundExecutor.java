@@ -0,0 +1,155 @@
+package model;
+
+import javax.swing.*;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Ejecuta las operaciones de base de datos de los controladores fuera del hilo de eventos de Swing.
+ * Cada operación se envuelve en un {@link SwingWorker} que corre en un pool de hilos acotado, con una cola
+ * de tamaño limitado; los resultados y errores se entregan de nuevo en el hilo de eventos.
+ * <p>
+ * Cancelar una operación descarta su resultado, pero la sentencia puede haberse completado ya en el servidor.
+ */
+public class BackgroundExecutor {
+    static final int DEFAULT_THREADS = 2;
+    static final int DEFAULT_QUEUE_CAPACITY = 32;
+
+    /**
+     * Operación que se ejecuta en segundo plano y puede lanzar excepciones comprobadas, como {@link java.sql.SQLException}.
+     *
+     * @param <T> el tipo del resultado.
+     */
+    public interface BackgroundCall<T> {
+        T call() throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Set<SwingWorker<?, ?>> running = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile IntConsumer pendingListener = count -> { };
+
+    /**
+     * Crea el ejecutor con el número de hilos y la capacidad de cola por defecto.
+     */
+    public BackgroundExecutor() {
+        this(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Crea el ejecutor con el tamaño indicado.
+     *
+     * @param threads El número de hilos de trabajo.
+     * @param queueCapacity El número máximo de operaciones en espera; por encima se rechazan.
+     */
+    public BackgroundExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "background-db-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Envía una operación a segundo plano.
+     *
+     * @param call La operación a ejecutar fuera del hilo de eventos.
+     * @param onSuccess Acción que recibe el resultado en el hilo de eventos.
+     * @param onError Acción que recibe el error en el hilo de eventos, incluido el rechazo por cola llena.
+     * @param <T> el tipo del resultado.
+     * @return Un {@link Future} que permite cancelar la operación.
+     */
+    public <T> Future<T> submit(BackgroundCall<T> call, Consumer<? super T> onSuccess, Consumer<? super Exception> onError) {
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return call.call();
+            }
+
+            @Override
+            protected void done() {
+                running.remove(this);
+                notifyPending(pending.decrementAndGet());
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    onSuccess.accept(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (CancellationException e) {
+                    // Cancelada entre la comprobación y get(): no hay resultado que entregar
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    onError.accept(cause instanceof Exception ? (Exception) cause : e);
+                }
+            }
+        };
+        running.add(worker);
+        notifyPending(pending.incrementAndGet());
+        try {
+            executor.execute(worker);
+        } catch (RejectedExecutionException e) {
+            running.remove(worker);
+            notifyPending(pending.decrementAndGet());
+            onError.accept(e);
+        }
+        return worker;
+    }
+
+    /**
+     * Cancela todas las operaciones en curso o en espera.
+     */
+    public void cancelAll() {
+        for (SwingWorker<?, ?> worker : running) {
+            worker.cancel(true);
+        }
+    }
+
+    /**
+     * Obtiene el número de operaciones enviadas que aún no han terminado.
+     *
+     * @return el número de operaciones pendientes.
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Registra la acción que se notifica, en el hilo de eventos, cada vez que cambia el número de operaciones pendientes.
+     *
+     * @param listener La acción que recibe el número de operaciones pendientes.
+     */
+    public void setPendingListener(IntConsumer listener) {
+        this.pendingListener = listener;
+    }
+
+    /**
+     * Detiene el ejecutor, cancelando las operaciones en espera.
+     */
+    public void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    private void notifyPending(int count) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            pendingListener.accept(count);
+        } else {
+            SwingUtilities.invokeLater(() -> pendingListener.accept(count));
+        }
+    }
+}
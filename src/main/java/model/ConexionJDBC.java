@@ -1,25 +1,225 @@
 package model;
 
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Clase que proporciona la funcionalidad para obtener una conexión JDBC a la base de datos MySQL.
- * Utiliza el controlador de MySQL para establecer la conexión.
+ * Las conexiones provienen de un {@link ConnectionPool} compartido por toda la aplicación, configurado a partir
+ * del bean {@code dataSource} de applicationContext.xml.
+ * <p>
+ * Las propiedades del sistema {@code db.url}, {@code db.username}, {@code db.password} y {@code db.driverClassName}
+ * sustituyen a los valores del XML, de modo que se puede apuntar la aplicación a otra base de datos sin recompilar.
+ * Con una URL {@code jdbc:h2:} se usa una base de datos embebida y el esquema se crea al arrancar
+ * (ver {@link EmbeddedDatabase}).
+ * <p>
+ * Al terminar la aplicación un único hook de apagado ejecuta, en orden inverso al de registro, las tareas de
+ * {@link #addShutdownTask(Runnable)} (por ejemplo, vaciar la cola de escritura diferida) y después cierra el pool,
+ * de modo que ninguna tarea encuentra el pool ya cerrado.
  */
 
 public class ConexionJDBC {
-    static final String URL = "jdbc:mysql://localhost:3307/martinbd";
-    static final String USUARIO = "root";
-    static final String CONTRASEÑA = "melmmlam1234*";
+    static final String CONFIG_RESOURCE = "applicationContext.xml";
+    static final String DATA_SOURCE_BEAN = "dataSource";
+    static final String PROPERTY_PREFIX = "db.";
+    private static final String[] OVERRIDABLE_PROPERTIES = {"url", "username", "password", "driverClassName"};
+
+    private static final Logger LOGGER = Logger.getLogger(ConexionJDBC.class.getName());
+    private static final List<Runnable> SHUTDOWN_TASKS = new CopyOnWriteArrayList<>();
+
+    private static volatile ConnectionPool dataSource;
+    private static boolean shutdownHookInstalled;
+
     /**
-     * Obtiene una conexión a la base de datos MySQL.
-     * 
+     * Obtiene una conexión a la base de datos MySQL desde el pool compartido.
+     * Cerrar la conexión la devuelve al pool.
+     *
      * @return una conexión a la base de datos MySQL
      * @throws SQLException si ocurre un error al establecer la conexión
      */
     public static Connection obtenerConexion() throws SQLException {
-        return DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        return getDataSource().getConnection();
+    }
+
+    /**
+     * Obtiene el pool de conexiones compartido, creándolo en el primer uso.
+     *
+     * @return el pool de conexiones de la aplicación
+     */
+    public static ConnectionPool getDataSource() {
+        ConnectionPool pool = dataSource;
+        if (pool == null) {
+            synchronized (ConexionJDBC.class) {
+                pool = dataSource;
+                if (pool == null) {
+                    pool = createPool();
+                    applySystemProperties(pool);
+                    if (EmbeddedDatabase.isEmbeddedUrl(pool.getUrl())) {
+                        try {
+                            EmbeddedDatabase.createSchema(pool);
+                        } catch (SQLException e) {
+                            pool.close();
+                            throw new IllegalStateException("Error al crear el esquema en " + pool.getUrl(), e);
+                        }
+                    }
+                    dataSource = pool;
+                    installShutdownHook();
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Registra una tarea que se ejecuta al terminar la aplicación, antes de cerrar el pool. Las tareas se ejecutan
+     * en orden inverso al de registro: lo creado después, que puede depender de lo anterior, se cierra antes.
+     *
+     * @param task La tarea; no debe lanzar excepciones ni bloquearse indefinidamente.
+     */
+    public static void addShutdownTask(Runnable task) {
+        SHUTDOWN_TASKS.add(task);
+        installShutdownHook();
+    }
+
+    /**
+     * Anula el registro de una tarea de {@link #addShutdownTask(Runnable)}, normalmente porque ya se ejecutó.
+     *
+     * @param task La misma instancia que se registró.
+     */
+    public static void removeShutdownTask(Runnable task) {
+        SHUTDOWN_TASKS.remove(task);
+    }
+
+    private static synchronized void installShutdownHook() {
+        if (!shutdownHookInstalled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(ConexionJDBC::shutdown, "application-shutdown"));
+            shutdownHookInstalled = true;
+        }
+    }
+
+    /**
+     * Ejecuta las tareas de apagado registradas y cierra el pool, en este orden.
+     */
+    private static void shutdown() {
+        List<Runnable> tasks = new ArrayList<>(SHUTDOWN_TASKS);
+        Collections.reverse(tasks);
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error en una tarea de apagado", e);
+            }
+        }
+        ConnectionPool pool = dataSource;
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Crea el pool aplicando las propiedades del bean {@code dataSource} de applicationContext.xml.
+     * Se lee el XML directamente para no levantar el contexto de Spring completo solo para obtener conexiones.
+     */
+    private static ConnectionPool createPool() {
+        ConnectionPool pool = new ConnectionPool();
+        Element bean = findBean(DATA_SOURCE_BEAN);
+        try {
+            NodeList properties = bean.getElementsByTagNameNS("*", "property");
+            for (int j = 0; j < properties.getLength(); j++) {
+                Element property = (Element) properties.item(j);
+                applyProperty(pool, property.getAttribute("name"), property.getAttribute("value"));
+            }
+            return pool;
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Error al leer la configuración de la base de datos de " + CONFIG_RESOURCE, e);
+        }
+    }
+
+    /**
+     * Busca la definición de un bean en applicationContext.xml.
+     *
+     * @param beanId El id del bean.
+     * @return el elemento {@code <bean>} con ese id.
+     * @throws IllegalStateException si el fichero no existe, no se puede leer o no contiene el bean.
+     */
+    static Element findBean(String beanId) {
+        try (InputStream in = ConexionJDBC.class.getClassLoader().getResourceAsStream(CONFIG_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("No se encontró " + CONFIG_RESOURCE + " en el classpath.");
+            }
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            Document document = factory.newDocumentBuilder().parse(in);
+            NodeList beans = document.getElementsByTagNameNS("*", "bean");
+            for (int i = 0; i < beans.getLength(); i++) {
+                Element bean = (Element) beans.item(i);
+                if (beanId.equals(bean.getAttribute("id"))) {
+                    return bean;
+                }
+            }
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Error al leer " + CONFIG_RESOURCE, e);
+        }
+        throw new IllegalStateException("No se encontró el bean '" + beanId + "' en " + CONFIG_RESOURCE + ".");
+    }
+
+    /**
+     * Aplica las propiedades del sistema {@code db.*} definidas, que tienen prioridad sobre applicationContext.xml.
+     * Si se indica una URL H2 sin controlador, se usa el controlador de H2.
+     */
+    private static void applySystemProperties(ConnectionPool pool) {
+        try {
+            for (String name : OVERRIDABLE_PROPERTIES) {
+                String value = System.getProperty(PROPERTY_PREFIX + name);
+                if (value != null) {
+                    applyProperty(pool, name, value);
+                }
+            }
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Error al aplicar las propiedades " + PROPERTY_PREFIX + "* de la base de datos", e);
+        }
+        if (System.getProperty(PROPERTY_PREFIX + "driverClassName") == null && EmbeddedDatabase.isEmbeddedUrl(pool.getUrl())) {
+            pool.setDriverClassName(EmbeddedDatabase.DRIVER_CLASS_NAME);
+        }
+    }
+
+    /**
+     * Invoca el setter correspondiente a la propiedad, convirtiendo el valor al tipo del parámetro.
+     */
+    private static void applyProperty(ConnectionPool pool, String name, String value) throws Exception {
+        String setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (Method method : ConnectionPool.class.getMethods()) {
+            if (method.getName().equals(setter) && method.getParameterCount() == 1) {
+                Class<?> type = method.getParameterTypes()[0];
+                if (type == int.class) {
+                    method.invoke(pool, Integer.parseInt(value.trim()));
+                } else if (type == long.class) {
+                    method.invoke(pool, Long.parseLong(value.trim()));
+                } else {
+                    method.invoke(pool, value);
+                }
+                return;
+            }
+        }
+        throw new IllegalStateException("Propiedad desconocida en el bean '" + DATA_SOURCE_BEAN + "': " + name);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,842 @@
+package model;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexiones JDBC compartido por todos los DAO de la aplicación.
+ * Mantiene un número mínimo de conexiones abiertas, limita el número máximo de conexiones simultáneas,
+ * valida cada conexión antes de prestarla, cierra las conexiones ociosas que sobran y avisa de las
+ * conexiones que no se devuelven a tiempo (posibles fugas).
+ * <p>
+ * Las conexiones entregadas son envoltorios: llamar a {@code close()} las devuelve al pool en lugar de cerrarlas.
+ * <p>
+ * Cada conexión física guarda además una caché de sentencias preparadas por texto SQL (ver
+ * {@link #setStatementCacheSize}): cerrar una sentencia la devuelve a la caché de su conexión, y el siguiente
+ * {@code prepareStatement} con el mismo SQL, aunque sea en otro préstamo, la reutiliza sin volver a analizarla
+ * ni prepararla en el servidor. Al devolverla se cierran sus resultados y se borran sus parámetros y lotes; el resto
+ * de ajustes (tamaño de bloque, tiempo de espera) se conservan, así que quien los use debe fijarlos siempre.
+ * Con {@link #setSlowQueryThresholdMillis} las sentencias se entregan además envueltas por un {@link SlowQueryLog},
+ * que mide cada ejecución, agrupa los tiempos por huella del SQL y registra en el log las que superan el umbral.
+ * Se configura mediante setters para poder declararse como bean {@code dataSource} en applicationContext.xml.
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    /** Número de huellas que se vuelcan al log al cerrar el pool, de la más lenta a la más rápida. */
+    private static final int SLOW_QUERY_REPORT_SIZE = 10;
+
+    private String driverClassName;
+    private String url;
+    private String username;
+    private String password;
+    private int minIdle = 2;
+    private int maxSize = 10;
+    private long maxWaitMillis = 5000;
+    private long idleTimeoutMillis = 60000;
+    private long leakDetectionThresholdMillis = 30000;
+    private int validationTimeoutSeconds = 2;
+    private long housekeepingPeriodMillis = 5000;
+    private int statementCacheSize = 64;
+    private volatile SlowQueryLog slowQueryLog;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private Semaphore permits;
+    private ScheduledExecutorService housekeeper;
+    private volatile boolean started = false;
+    private volatile boolean closed = false;
+
+    // Métricas de préstamo
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsEvicted = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    /**
+     * Inicializa el pool: carga el controlador, abre las conexiones mínimas y arranca la tarea de mantenimiento.
+     * Se invoca automáticamente en el primer préstamo si no se ha llamado antes.
+     *
+     * @throws SQLException si no se puede cargar el controlador o abrir las conexiones iniciales.
+     */
+    public synchronized void init() throws SQLException {
+        if (started) {
+            return;
+        }
+        if (url == null) {
+            throw new SQLException("La URL de conexión del pool no está configurada.");
+        }
+        if (minIdle > maxSize) {
+            throw new SQLException("minIdle (" + minIdle + ") no puede ser mayor que maxSize (" + maxSize + ").");
+        }
+        if (driverClassName != null) {
+            try {
+                Class.forName(driverClassName);
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("No se encontró el controlador JDBC " + driverClassName, e);
+            }
+        }
+        permits = new Semaphore(maxSize, true);
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        started = true;
+        fillToMinimum();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, housekeepingPeriodMillis, housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtiene una conexión del pool, esperando como máximo {@code maxWaitMillis} si todas están ocupadas.
+     *
+     * @return una conexión que se devuelve al pool al cerrarla.
+     * @throws SQLException si el pool está cerrado, se agota el tiempo de espera o no se puede abrir una conexión.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!started) {
+            init();
+        }
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLException("Tiempo de espera agotado (" + maxWaitMillis + " ms) al obtener una conexión del pool. "
+                        + "Activas: " + getActiveConnections() + ", máximo: " + maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión del pool.", e);
+        }
+
+        PooledConnection pooled;
+        try {
+            pooled = takeValidConnection();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        recordBorrowWait(System.nanoTime() - start);
+        pooled.markBorrowed();
+        borrowed.add(pooled);
+        return pooled.newHandle();
+    }
+
+    /**
+     * No se admite: las credenciales se fijan en la configuración del pool.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("El pool no admite credenciales por conexión.");
+    }
+
+    /**
+     * Cierra todas las conexiones y detiene la tarea de mantenimiento.
+     * Las conexiones prestadas se cierran físicamente cuando se devuelven.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        SlowQueryLog queries = slowQueryLog;
+        if (queries != null) {
+            queries.logSlowest(SLOW_QUERY_REPORT_SIZE);
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            validationFailures.incrementAndGet();
+            destroy(pooled);
+        }
+        return createConnection();
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        connectionsCreated.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        pooled.clearStatements();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error al cerrar una conexión física", e);
+        }
+    }
+
+    /**
+     * Devuelve una conexión al pool. Deshace cualquier transacción abierta y restablece el autocommit
+     * para que el siguiente usuario reciba la conexión en su estado por defecto.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.recycleStatements();
+        try {
+            boolean reusable = !closed && !pooled.physical.isClosed();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordBorrowWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        borrowWaitNanos.addAndGet(waitNanos);
+        long currentMax;
+        while (waitNanos > (currentMax = maxBorrowWaitNanos.get())) {
+            if (maxBorrowWaitNanos.compareAndSet(currentMax, waitNanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Tarea periódica: cierra las conexiones ociosas que superan el tiempo de inactividad (respetando el mínimo),
+     * repone el mínimo de conexiones abiertas y registra las conexiones prestadas durante demasiado tiempo.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && idle.size() > minIdle) {
+                PooledConnection pooled = oldestFirst.next();
+                if (now - pooled.lastUsed > idleTimeoutMillis && idle.remove(pooled)) {
+                    connectionsEvicted.incrementAndGet();
+                    destroy(pooled);
+                }
+            }
+            fillToMinimum();
+            if (leakDetectionThresholdMillis > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionThresholdMillis) {
+                        pooled.leakReported = true;
+                        leaksDetected.incrementAndGet();
+                        LOGGER.log(Level.WARNING, "Posible fuga de conexión: prestada hace " + (now - pooled.borrowedAt)
+                                + " ms y aún no devuelta", pooled.borrowSite);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error en el mantenimiento del pool de conexiones", e);
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && idle.size() < minIdle && totalConnections.get() < maxSize) {
+            try {
+                PooledConnection pooled = createConnection();
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "No se pudo abrir una conexión para el mínimo del pool", e);
+                return;
+            }
+        }
+    }
+
+    // Métricas
+
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    /**
+     * Obtiene el tiempo medio de espera para obtener una conexión.
+     *
+     * @return la media de espera en milisegundos, o 0 si aún no se ha prestado ninguna conexión.
+     */
+    public double getAverageBorrowWaitMillis() {
+        long count = borrowCount.get();
+        return count == 0 ? 0 : borrowWaitNanos.get() / (count * 1_000_000.0);
+    }
+
+    public double getMaxBorrowWaitMillis() {
+        return maxBorrowWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts.get();
+    }
+
+    public long getValidationFailures() {
+        return validationFailures.get();
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated.get();
+    }
+
+    public long getConnectionsEvicted() {
+        return connectionsEvicted.get();
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected.get();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * Obtiene el registro de consultas lentas.
+     *
+     * @return el registro, o null si está desactivado.
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool[url=" + url + ", activas=" + getActiveConnections() + ", ociosas=" + getIdleConnections()
+                + ", total=" + getTotalConnections() + ", préstamos=" + getBorrowCount()
+                + ", esperaMedia=" + String.format("%.3f", getAverageBorrowWaitMillis()) + " ms"
+                + ", esperaMáxima=" + String.format("%.3f", getMaxBorrowWaitMillis()) + " ms"
+                + ", timeouts=" + getBorrowTimeouts() + ", fugas=" + getLeaksDetected()
+                + ", sentenciasReutilizadas=" + getStatementCacheHits() + ", sentenciasPreparadas=" + getStatementCacheMisses() + "]";
+    }
+
+    // Configuración
+
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public void setHousekeepingPeriodMillis(long housekeepingPeriodMillis) {
+        this.housekeepingPeriodMillis = housekeepingPeriodMillis;
+    }
+
+    /**
+     * Establece cuántas sentencias preparadas guarda cada conexión física; al superarse se cierra la usada hace
+     * más tiempo. Con 0 no se guardan y cada {@code prepareStatement} llega al controlador.
+     *
+     * @param statementCacheSize El número máximo de sentencias por conexión.
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Activa el registro de consultas lentas: cada ejecución que tarde al menos este tiempo se registra en el log
+     * con sus filas y la forma de sus parámetros. Con un valor negativo (por defecto) se desactiva y las sentencias
+     * se entregan sin envolver; cambiarlo descarta las estadísticas acumuladas.
+     *
+     * @param slowQueryThresholdMillis El umbral en milisegundos; con 0 se registran todas las ejecuciones.
+     */
+    public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+        this.slowQueryLog = slowQueryThresholdMillis >= 0 ? new SlowQueryLog(slowQueryThresholdMillis) : null;
+    }
+
+    // Métodos de DataSource que el pool no utiliza
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool no envuelve " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Conexión física gestionada por el pool junto con los datos de préstamo.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+        /** Sentencias preparadas de esta conexión, de la usada hace más tiempo a la más reciente. */
+        private final LinkedHashMap<StatementKey, CachedStatement> statements = new LinkedHashMap<StatementKey, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Entrega la sentencia guardada para la clave o prepara una nueva y la guarda. Si la guardada está en uso
+         * (dos sentencias iguales abiertas a la vez), la nueva se entrega sin guardar.
+         */
+        synchronized PreparedStatement prepare(Connection handle, Method method, Object[] args) throws Throwable {
+            StatementKey key = new StatementKey(args);
+            CachedStatement cached = statements.get(key);
+            if (cached != null && cached.checkout == null) {
+                statementCacheHits.incrementAndGet();
+                return cached.checkout(handle);
+            }
+            statementCacheMisses.incrementAndGet();
+            PreparedStatement statement;
+            try {
+                statement = (PreparedStatement) method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (cached != null) {
+                return statement;
+            }
+            cached = new CachedStatement(this, statement);
+            statements.put(key, cached);
+            return cached.checkout(handle);
+        }
+
+        /**
+         * Devuelve a la caché las sentencias que el usuario no cerró antes de devolver la conexión.
+         */
+        synchronized void recycleStatements() {
+            for (CachedStatement cached : new ArrayList<>(statements.values())) {
+                if (cached.checkout != null) {
+                    cached.checkout.release();
+                }
+            }
+        }
+
+        /**
+         * Olvida todas las sentencias; se cierran con la conexión física.
+         */
+        synchronized void clearStatements() {
+            statements.clear();
+        }
+
+        synchronized void discard(CachedStatement cached) {
+            statements.values().remove(cached);
+        }
+
+        void markBorrowed() {
+            borrowedAt = System.currentTimeMillis();
+            leakReported = false;
+            borrowSite = leakDetectionThresholdMillis > 0 ? new Throwable("Conexión obtenida aquí") : null;
+        }
+
+        /**
+         * Crea el envoltorio que se entrega al usuario. Cada préstamo recibe un envoltorio nuevo,
+         * de modo que cerrar dos veces o usar una conexión ya devuelta no afecta al siguiente usuario.
+         */
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * Intercepta {@code close()} para devolver la conexión al pool y delega el resto de llamadas en la conexión física.
+     */
+    private final class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    synchronized (this) {
+                        if (pooled != null) {
+                            PooledConnection returned = pooled;
+                            pooled = null;
+                            release(returned);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pooled == null ? "devuelta" : pooled.physical) + "]";
+                default:
+                    break;
+            }
+            PooledConnection current = pooled;
+            if (current == null) {
+                throw new SQLException("La conexión ya fue devuelta al pool.");
+            }
+            Object result;
+            if (name.equals("prepareStatement") && statementCacheSize > 0 && StatementKey.isCacheable(method)) {
+                result = current.prepare((Connection) proxy, method, args);
+            } else {
+                try {
+                    result = method.invoke(current.physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            SlowQueryLog queries = slowQueryLog;
+            if (queries != null && (name.equals("prepareStatement") || name.equals("createStatement"))) {
+                return queries.wrap((Statement) result, name.equals("prepareStatement") ? (String) args[0] : null);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Clave de una sentencia preparada: el texto SQL y las opciones con que se preparó.
+     */
+    private static final class StatementKey {
+        private final Object[] args;
+        private final int hash;
+
+        StatementKey(Object[] args) {
+            this.args = args;
+            this.hash = Arrays.hashCode(args);
+        }
+
+        /**
+         * Indica si la variante de {@code prepareStatement} se guarda en caché: solo SQL, SQL con claves generadas
+         * y SQL con tipo y concurrencia del ResultSet.
+         */
+        static boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            for (int i = 1; i < types.length; i++) {
+                if (types[i] != int.class) {
+                    return false;
+                }
+            }
+            return types.length <= 3;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof StatementKey && Arrays.equals(args, ((StatementKey) other).args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Sentencia preparada guardada en la caché de una conexión física, con el envoltorio que la tiene prestada.
+     */
+    private static final class CachedStatement {
+        private final PooledConnection owner;
+        private final PreparedStatement physical;
+        private StatementHandle checkout;  // Envoltorio prestado, o null si está libre en la caché
+        private boolean evicted;
+
+        CachedStatement(PooledConnection owner, PreparedStatement physical) {
+            this.owner = owner;
+            this.physical = physical;
+        }
+
+        PreparedStatement checkout(Connection connection) {
+            checkout = new StatementHandle(this, connection);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, checkout);
+        }
+
+        /**
+         * Limpia la sentencia devuelta para el siguiente uso; si ya no está en la caché o no se puede limpiar, la cierra.
+         */
+        void giveBack(List<ResultSet> results) {
+            synchronized (owner) {
+                checkout = null;
+                try {
+                    for (ResultSet resultSet : results) {
+                        resultSet.close();
+                    }
+                    physical.clearParameters();
+                    physical.clearBatch();
+                    if (!evicted) {
+                        return;
+                    }
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Error al limpiar una sentencia de la caché", e);
+                    owner.discard(this);
+                }
+                closePhysical();
+            }
+        }
+
+        /**
+         * La caché ha descartado la sentencia: se cierra ahora o, si está prestada, al devolverla.
+         */
+        void evict() {
+            evicted = true;
+            if (checkout == null) {
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Error al cerrar una sentencia descartada", e);
+            }
+        }
+    }
+
+    /**
+     * Envoltorio de una sentencia de la caché: {@code close()} la devuelve a la caché, {@code getConnection()}
+     * devuelve el envoltorio de la conexión y los ResultSet de la última ejecución se cierran al devolverla.
+     */
+    private static final class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection connection;
+        private final List<ResultSet> results = new ArrayList<>(1);
+        private volatile boolean closed;
+
+        StatementHandle(CachedStatement cached, Connection connection) {
+            this.cached = cached;
+            this.connection = connection;
+        }
+
+        void release() {
+            if (!closed) {
+                closed = true;
+                cached.giveBack(results);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (cached.owner) {
+                        release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + (closed ? "devuelta" : cached.physical) + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("La sentencia ya está cerrada.");
+            }
+            if (method.getName().startsWith("execute")) {
+                results.clear(); // El controlador cierra los resultados de la ejecución anterior
+            }
+            Object result;
+            try {
+                result = method.invoke(cached.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                results.add((ResultSet) result);
+                // getStatement() del resultado debe devolver este envoltorio, no la sentencia de la caché
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new ResultHandle((ResultSet) result, proxy));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Envoltorio del ResultSet de una sentencia de la caché, que devuelve el envoltorio de la sentencia en
+     * {@code getStatement()} para que nadie pueda cerrar la sentencia física.
+     */
+    private static final class ResultHandle implements InvocationHandler {
+        private final ResultSet target;
+        private final Object statement;
+
+        ResultHandle(ResultSet target, Object statement) {
+            this.target = target;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getStatement":
+                    return statement;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Llamadas, errores y latencias de un método de un DAO. Se registra sin bloqueos desde cualquier hilo.
+ */
+public class DaoMethodStats implements DaoMethodStatsMXBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String dao;
+    private final String method;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Crea las métricas de un método.
+     *
+     * @param dao El nombre de la clase del DAO.
+     * @param method La firma del método, por ejemplo {@code getTaskById(Long)}.
+     */
+    public DaoMethodStats(String dao, String method) {
+        this.dao = dao;
+        this.method = method;
+    }
+
+    /**
+     * Registra una llamada.
+     *
+     * @param nanos La duración de la llamada en nanosegundos.
+     * @param failed Si la llamada terminó con una excepción.
+     */
+    public void record(long nanos, boolean failed) {
+        latencies.record(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    @Override
+    public String getDao() {
+        return dao;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getCalls() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latencies.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latencies.getPercentileNanos(0.50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latencies.getPercentileNanos(0.95) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latencies.getPercentileNanos(0.99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latencies.getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        latencies.reset();
+        errors.reset();
+    }
+
+    @Override
+    public String toString() {
+        return dao + "." + method + ": llamadas=" + getCalls() + ", errores=" + getErrors()
+                + String.format(", media=%.3f ms, p50=%.3f ms, p95=%.3f ms, p99=%.3f ms, máx=%.3f ms",
+                getMeanMillis(), getP50Millis(), getP95Millis(), getP99Millis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,31 @@
+package model;
+
+/**
+ * Métricas de un método de un DAO publicadas por JMX (ver {@link DaoMetrics}).
+ * Los tiempos se expresan en milisegundos y se acumulan desde el arranque o desde el último {@link #reset()}.
+ */
+public interface DaoMethodStatsMXBean {
+
+    String getDao();
+
+    String getMethod();
+
+    long getCalls();
+
+    long getErrors();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    /**
+     * Pone a cero las llamadas, los errores y las latencias.
+     */
+    void reset();
+}
@@ -0,0 +1,241 @@
+package model;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Métricas de los DAO: llamadas, errores y latencias (p50, p95, p99) de cada método que accede a la base de datos.
+ * <p>
+ * {@link #instrument} envuelve un DAO en una subclase generada (un proxy de Spring AOP) que mide cada método que
+ * declara {@link SQLException}; el resto de métodos y las llamadas internas del DAO no se miden. Las métricas se
+ * agrupan por clase de DAO y firma del método, aunque haya varias instancias, se publican como MBeans
+ * {@code model:type=DaoMetrics,dao=...,method=...} y pueden volcarse al log periódicamente.
+ * <p>
+ * Se activan con la propiedad del sistema {@code dao.metrics=true}; el intervalo del volcado al log se fija con
+ * {@code dao.metrics.logSeconds} (60 por defecto, 0 para no volcarlas). Desactivadas, {@link #instrumentIfEnabled}
+ * devuelve el mismo DAO sin envolver, así que no tienen ningún coste.
+ */
+public class DaoMetrics {
+    private static final Logger LOGGER = Logger.getLogger(DaoMetrics.class.getName());
+    static final String ENABLED_PROPERTY = "dao.metrics";
+    static final String LOG_PERIOD_PROPERTY = "dao.metrics.logSeconds";
+    private static final long DEFAULT_LOG_PERIOD_SECONDS = 60;
+    private static final String OBJECT_NAME_DOMAIN = "model";
+    /** Marca de los métodos que no se miden, para decidirlo una sola vez por método. */
+    private static final DaoMethodStats NOT_MEASURED = new DaoMethodStats("", "");
+
+    private static volatile DaoMetrics shared;
+
+    private final MBeanServer server;
+    private final ConcurrentHashMap<String, DaoMethodStats> stats = new ConcurrentHashMap<>();
+    private ScheduledExecutorService logger;
+
+    /**
+     * Crea un registro de métricas.
+     *
+     * @param server El servidor JMX en el que se publican las métricas, o null para no publicarlas.
+     */
+    public DaoMetrics(MBeanServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Obtiene el registro compartido por la aplicación, publicado en el servidor JMX de la plataforma, creándolo
+     * en el primer uso. Al crearlo arranca el volcado periódico al log según {@code dao.metrics.logSeconds}.
+     *
+     * @return el registro de métricas compartido.
+     */
+    public static DaoMetrics shared() {
+        DaoMetrics metrics = shared;
+        if (metrics == null) {
+            synchronized (DaoMetrics.class) {
+                metrics = shared;
+                if (metrics == null) {
+                    metrics = new DaoMetrics(ManagementFactory.getPlatformMBeanServer());
+                    long period = Long.getLong(LOG_PERIOD_PROPERTY, DEFAULT_LOG_PERIOD_SECONDS);
+                    if (period > 0) {
+                        metrics.startLogging(period);
+                    }
+                    shared = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Indica si las métricas están activadas con la propiedad {@code dao.metrics}.
+     *
+     * @return true si la propiedad vale {@code true}.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * Envuelve el DAO con el registro compartido si las métricas están activadas.
+     *
+     * @param dao El DAO.
+     * @param <T> el tipo del DAO.
+     * @return el DAO envuelto, o el mismo DAO si las métricas están desactivadas.
+     */
+    public static <T> T instrumentIfEnabled(T dao) {
+        return isEnabled() ? shared().instrument(dao) : dao;
+    }
+
+    /**
+     * Envuelve un DAO para medir sus métodos de base de datos. El objeto devuelto es una subclase de la clase del DAO
+     * que delega cada llamada en el DAO original.
+     *
+     * @param dao El DAO.
+     * @param <T> el tipo del DAO.
+     * @return el DAO envuelto.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T instrument(T dao) {
+        String daoName = dao.getClass().getSimpleName();
+        ConcurrentHashMap<Method, DaoMethodStats> byMethod = new ConcurrentHashMap<>();
+        ProxyFactory factory = new ProxyFactory(dao);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            DaoMethodStats methodStats = byMethod.get(invocation.getMethod());
+            if (methodStats == null) {
+                methodStats = byMethod.computeIfAbsent(invocation.getMethod(), method ->
+                        Arrays.asList(method.getExceptionTypes()).contains(SQLException.class)
+                                ? getStats(daoName, signatureOf(method)) : NOT_MEASURED);
+            }
+            if (methodStats == NOT_MEASURED) {
+                return invocation.proceed();
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                methodStats.record(System.nanoTime() - start, failed);
+            }
+        });
+        return (T) factory.getProxy(dao.getClass().getClassLoader());
+    }
+
+    /**
+     * Obtiene las métricas de un método, creándolas y publicándolas por JMX si aún no existen.
+     *
+     * @param dao El nombre de la clase del DAO.
+     * @param method La firma del método, por ejemplo {@code getTaskById(Long)}.
+     * @return las métricas del método.
+     */
+    public DaoMethodStats getStats(String dao, String method) {
+        return stats.computeIfAbsent(dao + "." + method, key -> {
+            DaoMethodStats created = new DaoMethodStats(dao, method);
+            register(created);
+            return created;
+        });
+    }
+
+    /**
+     * Obtiene las métricas de todos los métodos llamados al menos una vez, ordenadas por DAO y método.
+     *
+     * @return una lista con las métricas.
+     */
+    public List<DaoMethodStats> getAllStats() {
+        return stats.values().stream()
+                .filter(methodStats -> methodStats.getCalls() > 0)
+                .sorted(Comparator.comparing(DaoMethodStats::getDao).thenComparing(DaoMethodStats::getMethod))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Vuelca al log las métricas acumuladas de cada método, una línea por método.
+     */
+    public void logStats() {
+        List<DaoMethodStats> all = getAllStats();
+        if (all.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Métricas de los DAO:");
+        for (DaoMethodStats methodStats : all) {
+            message.append(System.lineSeparator()).append("  ").append(methodStats);
+        }
+        LOGGER.info(message.toString());
+    }
+
+    /**
+     * Arranca el volcado periódico de las métricas al log en un hilo en segundo plano.
+     *
+     * @param periodSeconds El intervalo entre volcados, en segundos.
+     */
+    public synchronized void startLogging(long periodSeconds) {
+        if (logger != null) {
+            return;
+        }
+        logger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dao-metrics-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.scheduleWithFixedDelay(() -> {
+            try {
+                logStats();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al volcar las métricas de los DAO", e);
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Detiene el volcado periódico, si está activo.
+     */
+    public synchronized void stopLogging() {
+        if (logger != null) {
+            logger.shutdownNow();
+            logger = null;
+        }
+    }
+
+    private void register(DaoMethodStats methodStats) {
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME_DOMAIN + ":type=DaoMetrics,dao=" + methodStats.getDao()
+                    + ",method=" + ObjectName.quote(methodStats.getMethod()));
+            if (!server.isRegistered(name)) {
+                server.registerMBean(methodStats, name);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "No se pudieron publicar por JMX las métricas de " + methodStats.getMethod(), e);
+        }
+    }
+
+    /**
+     * Construye la firma legible de un método, con los nombres simples de sus parámetros.
+     */
+    static String signatureOf(Method method) {
+        List<String> parameters = new ArrayList<>();
+        for (Class<?> type : method.getParameterTypes()) {
+            parameters.add(type.getSimpleName());
+        }
+        return method.getName() + "(" + String.join(", ", parameters) + ")";
+    }
+}
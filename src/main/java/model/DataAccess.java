@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * Los DAO compartidos por la aplicación, elegidos en un único sitio.
+ * <p>
+ * Con {@code -Ddb.persistence=hibernate} (ver {@link HibernateSupport#isSelected()}) las tareas, los usuarios y los
+ * roles se leen y escriben con Hibernate; si no, con JDBC. Con {@code -Ddao.metrics=true} cada DAO se envuelve para
+ * medir sus llamadas (ver {@link DaoMetrics}). {@link Main}, {@link PermissionCache#shared()} y
+ * {@link AuthenticationService#shared()} toman sus DAO de aquí, de modo que toda la aplicación usa la misma
+ * persistencia.
+ */
+public class DataAccess {
+    private static volatile DataAccess shared;
+
+    private final TaskDAO taskDAO;
+    private final UserDAO userDAO;
+    private final RoleDAO roleDAO;
+
+    /**
+     * Crea los DAO de la persistencia indicada.
+     *
+     * @param hibernate true para usar los DAO de Hibernate, false para los de JDBC.
+     */
+    DataAccess(boolean hibernate) {
+        if (hibernate) {
+            HibernateSupport support = HibernateSupport.shared();
+            taskDAO = DaoMetrics.instrumentIfEnabled(new HibernateTaskDAO(support));
+            userDAO = DaoMetrics.instrumentIfEnabled(new HibernateUserDAO(support, null));
+            roleDAO = DaoMetrics.instrumentIfEnabled(new HibernateRoleDAO(support));
+        } else {
+            taskDAO = DaoMetrics.instrumentIfEnabled(new TaskDAO());
+            userDAO = DaoMetrics.instrumentIfEnabled(new UserDAO());
+            roleDAO = DaoMetrics.instrumentIfEnabled(new RoleDAO());
+        }
+        taskDAO.enableCache(new TaskCache());
+    }
+
+    /**
+     * Obtiene los DAO compartidos, creándolos en el primer uso según la propiedad {@code db.persistence}.
+     *
+     * @return los DAO de la aplicación.
+     */
+    public static DataAccess shared() {
+        DataAccess access = shared;
+        if (access == null) {
+            synchronized (DataAccess.class) {
+                access = shared;
+                if (access == null) {
+                    access = new DataAccess(HibernateSupport.isSelected());
+                    shared = access;
+                }
+            }
+        }
+        return access;
+    }
+
+    public TaskDAO getTaskDAO() {
+        return taskDAO;
+    }
+
+    public UserDAO getUserDAO() {
+        return userDAO;
+    }
+
+    public RoleDAO getRoleDAO() {
+        return roleDAO;
+    }
+}
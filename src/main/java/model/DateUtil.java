@@ -17,12 +17,13 @@ public class DateUtil {
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_LOCAL_DATE;
     /**
      * Convierte una cadena de texto que representa una fecha en formato 'yyyy-MM-dd' a un objeto {@link LocalDate}.
+     * Acepta cualquier {@link CharSequence}, lo que permite parsear directamente desde un búfer sin crear un String.
      *
      * @param dateString La cadena de texto de la fecha a convertir.
      * @return Un objeto {@link LocalDate} que representa la fecha.
      * @throws IllegalArgumentException si el formato de la fecha no es válido.
      */
-    public static LocalDate parse(String dateString) {
+    public static LocalDate parse(CharSequence dateString) {
         try {
             return LocalDate.parse(dateString, dateFormatter);
         } catch (DateTimeParseException e) {
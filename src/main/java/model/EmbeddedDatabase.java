@@ -0,0 +1,153 @@
+package model;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Base de datos H2 en memoria, en modo MySQL, con el esquema de la aplicación ya creado.
+ * <p>
+ * Sustituye al servidor MySQL en las pruebas y los benchmarks: cada instancia es una base de datos nueva y aislada,
+ * se crea en milisegundos y desaparece al cerrarla, de modo que las pruebas pueden ejecutarse en paralelo sin
+ * borrar datos de otras. Los DAO la usan a través de {@link #getDataSource()} igual que el pool de MySQL.
+ * <p>
+ * La aplicación también puede usarla indicando una URL {@code jdbc:h2:} en la propiedad {@code db.url}
+ * (ver {@link ConexionJDBC}); en ese caso el esquema se crea al arrancar con {@link #createSchema}.
+ */
+public class EmbeddedDatabase implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(EmbeddedDatabase.class.getName());
+
+    static final String DRIVER_CLASS_NAME = "org.h2.Driver";
+    static final String SCHEMA_RESOURCE = "schema.sql";
+    private static final String URL_OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final String url;
+    private final ConnectionPool pool;
+
+    private EmbeddedDatabase(String url, ConnectionPool pool) {
+        this.url = url;
+        this.pool = pool;
+    }
+
+    /**
+     * Crea una base de datos vacía con el esquema de la aplicación.
+     *
+     * @param name Un nombre descriptivo; se le añade un sufijo para que cada base de datos sea única.
+     * @return La base de datos, que debe cerrarse al terminar.
+     * @throws SQLException Si no se puede crear la base de datos o el esquema.
+     */
+    public static EmbeddedDatabase create(String name) throws SQLException {
+        String url = "jdbc:h2:mem:" + name + "-" + COUNTER.incrementAndGet() + URL_OPTIONS;
+        ConnectionPool pool = new ConnectionPool();
+        pool.setDriverClassName(DRIVER_CLASS_NAME);
+        pool.setUrl(url);
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setMinIdle(1);
+        pool.setMaxSize(8);
+        pool.init();
+        EmbeddedDatabase database = new EmbeddedDatabase(url, pool);
+        try {
+            createSchema(pool);
+        } catch (SQLException e) {
+            database.close();
+            throw e;
+        }
+        return database;
+    }
+
+    /**
+     * Crea las tablas de la aplicación que aún no existan, ejecutando el script {@value #SCHEMA_RESOURCE}.
+     *
+     * @param dataSource La base de datos en la que se crea el esquema.
+     * @throws SQLException Si el script no se encuentra o alguna sentencia falla.
+     */
+    public static void createSchema(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : readStatements(SCHEMA_RESOURCE)) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Indica si una URL JDBC corresponde a una base de datos H2.
+     *
+     * @param url La URL de conexión.
+     * @return true si la URL empieza por {@code jdbc:h2:}.
+     */
+    public static boolean isEmbeddedUrl(String url) {
+        return url != null && url.startsWith("jdbc:h2:");
+    }
+
+    /**
+     * Obtiene el pool de conexiones de esta base de datos, para pasarlo a los DAO.
+     *
+     * @return El pool de conexiones.
+     */
+    public ConnectionPool getDataSource() {
+        return pool;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Cierra el pool y elimina la base de datos con todos sus datos.
+     */
+    @Override
+    public void close() {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error al eliminar la base de datos " + url, e);
+        }
+        pool.close();
+    }
+
+    /**
+     * Lee un script SQL del classpath y lo divide en sentencias terminadas en punto y coma.
+     * Se omiten las líneas vacías y los comentarios de línea.
+     */
+    private static List<String> readStatements(String resource) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (InputStream in = EmbeddedDatabase.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new SQLException("No se encontró " + resource + " en el classpath.");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            StringBuilder current = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                current.append(trimmed).append(' ');
+                if (trimmed.endsWith(";")) {
+                    current.setLength(current.length() - 2);
+                    statements.add(current.toString());
+                    current.setLength(0);
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Error al leer " + resource, e);
+        }
+        return statements;
+    }
+}
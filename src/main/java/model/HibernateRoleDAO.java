@@ -0,0 +1,75 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link RoleDAO} que usa Hibernate con la caché de segundo nivel.
+ * <p>
+ * Los roles, los roles de cada usuario y las consultas de roles se guardan en caché: tras la primera lectura,
+ * comprobar los roles de un usuario no consulta la base de datos. Las altas y asignaciones se hacen a través
+ * de Hibernate, que invalida las entradas afectadas.
+ */
+public class HibernateRoleDAO extends RoleDAO {
+    private final HibernateSupport hibernate;
+
+    /**
+     * Crea el DAO sobre la fábrica de sesiones indicada.
+     *
+     * @param hibernate El acceso con Hibernate.
+     */
+    public HibernateRoleDAO(HibernateSupport hibernate) {
+        super(hibernate.getDataSource());
+        this.hibernate = hibernate;
+    }
+
+    @Override
+    public void addRole(Role role) throws SQLException {
+        Role saved = new Role(role.getName());
+        hibernate.inTransaction(session -> session.save(saved));
+        role.setId(saved.getId());
+    }
+
+    @Override
+    public Role getRoleByName(String name) throws SQLException {
+        return hibernate.inTransaction(session -> session.createQuery("from Role where name = :name", Role.class)
+                .setParameter("name", name)
+                .setCacheable(true)
+                .uniqueResult());
+    }
+
+    @Override
+    public Set<Role> getRoles() throws SQLException {
+        return hibernate.inTransaction(session -> new HashSet<>(session.createQuery("from Role", Role.class)
+                .setCacheable(true)
+                .list()));
+    }
+
+    @Override
+    public void assignRoleToUser(Long userId, Long roleId) throws SQLException {
+        hibernate.inTransaction(session -> {
+            User user = session.get(User.class, userId);
+            if (user == null) {
+                throw new IllegalArgumentException("No existe el usuario " + userId);
+            }
+            return user.getRoles().add(session.load(Role.class, roleId));
+        });
+        PermissionCache.notifyUsersChanged();
+    }
+
+    @Override
+    public Set<String> getUserRoles(Long userId) throws SQLException {
+        return hibernate.inTransaction(session -> {
+            Set<String> names = new HashSet<>();
+            User user = session.get(User.class, userId);
+            if (user != null) {
+                // La colección y cada rol se leen de la caché de segundo nivel cuando están en ella
+                for (Role role : user.getRoles()) {
+                    names.add(role.getName());
+                }
+            }
+            return names;
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package model;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.springframework.orm.hibernate5.LocalSessionFactoryBuilder;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acceso a datos con Hibernate, alternativo a los DAO JDBC.
+ * <p>
+ * Construye la {@link SessionFactory} sobre un origen de datos (por defecto el pool compartido de
+ * {@link ConexionJDBC}) con los paquetes y propiedades del bean {@code sessionFactory} de applicationContext.xml,
+ * sin levantar el contexto de Spring completo. Allí se activan la carga por lotes de colecciones y la caché de
+ * segundo nivel y de consultas, que usan {@link Role} y los roles de cada {@link User}.
+ * <p>
+ * La propiedad del sistema {@code db.persistence=hibernate} hace que la aplicación use {@link HibernateTaskDAO},
+ * {@link HibernateUserDAO} y {@link HibernateRoleDAO} en lugar de los DAO JDBC (ver {@link #isSelected()} y
+ * {@link DataAccess}).
+ */
+public class HibernateSupport implements AutoCloseable {
+    static final String SESSION_FACTORY_BEAN = "sessionFactory";
+    static final String PERSISTENCE_PROPERTY = "db.persistence";
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static volatile HibernateSupport shared;
+
+    private final DataSource dataSource;
+    private final SessionFactory sessionFactory;
+
+    /**
+     * Operación que se ejecuta con una sesión dentro de una transacción.
+     *
+     * @param <T> el tipo del resultado.
+     */
+    public interface SessionWork<T> {
+        T execute(Session session);
+    }
+
+    /**
+     * Crea la fábrica de sesiones sobre el origen de datos indicado.
+     *
+     * @param dataSource El origen de datos del que Hibernate obtiene las conexiones.
+     */
+    public HibernateSupport(DataSource dataSource) {
+        this.dataSource = dataSource;
+        Element bean = ConexionJDBC.findBean(SESSION_FACTORY_BEAN);
+        LocalSessionFactoryBuilder builder = new LocalSessionFactoryBuilder(dataSource);
+        builder.scanPackages(readProperty(bean, "packagesToScan").split("\\s*,\\s*"));
+        Properties properties = readHibernateProperties(bean);
+        // Las cachés son del proceso: cada fábrica usa sus propias regiones para no mezclar bases de datos
+        properties.putIfAbsent("hibernate.cache.region_prefix", "hibernate-" + COUNTER.incrementAndGet());
+        builder.addProperties(properties);
+        this.sessionFactory = builder.buildSessionFactory();
+    }
+
+    /**
+     * Obtiene la instancia compartida sobre el pool de la aplicación, creándola en el primer uso.
+     *
+     * @return el acceso con Hibernate de la aplicación.
+     */
+    public static HibernateSupport shared() {
+        HibernateSupport support = shared;
+        if (support == null) {
+            synchronized (HibernateSupport.class) {
+                support = shared;
+                if (support == null) {
+                    support = new HibernateSupport(ConexionJDBC.getDataSource());
+                    shared = support;
+                    ConexionJDBC.addShutdownTask(support::close);
+                }
+            }
+        }
+        return support;
+    }
+
+    /**
+     * Indica si la aplicación debe usar Hibernate en lugar de JDBC, según la propiedad {@code db.persistence}.
+     *
+     * @return true si la propiedad vale {@code hibernate}.
+     */
+    public static boolean isSelected() {
+        return "hibernate".equalsIgnoreCase(System.getProperty(PERSISTENCE_PROPERTY, "jdbc").trim());
+    }
+
+    /**
+     * Ejecuta una operación en una sesión nueva dentro de una transacción, que se confirma al terminar o se deshace
+     * si la operación falla. Los errores de Hibernate se devuelven como {@link SQLException}, igual que en los DAO JDBC.
+     * Como en {@link TaskDAO}, la transacción se deshace si tarda más de {@link TaskDAO#MAX_WRITE_MILLIS}.
+     *
+     * @param work La operación a ejecutar.
+     * @param <T> el tipo del resultado.
+     * @return el resultado de la operación.
+     * @throws SQLException si la operación o la confirmación fallan.
+     */
+    public <T> T inTransaction(SessionWork<T> work) throws SQLException {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            long started = System.nanoTime();
+            try {
+                T result = work.execute(session);
+                session.flush();
+                TaskDAO.checkWriteDeadline(started);
+                transaction.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (PersistenceException e) {
+            throw new SQLException("Error de Hibernate: " + e.getMessage(), e);
+        }
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    /**
+     * Cierra la fábrica de sesiones y libera las cachés. El origen de datos no se cierra.
+     */
+    @Override
+    public void close() {
+        if (sessionFactory.isOpen()) {
+            sessionFactory.close();
+        }
+    }
+
+    private static String readProperty(Element bean, String name) {
+        NodeList properties = bean.getElementsByTagNameNS("*", "property");
+        for (int i = 0; i < properties.getLength(); i++) {
+            Element property = (Element) properties.item(i);
+            if (name.equals(property.getAttribute("name"))) {
+                return property.getAttribute("value");
+            }
+        }
+        throw new IllegalStateException("Falta la propiedad '" + name + "' del bean '" + SESSION_FACTORY_BEAN + "'.");
+    }
+
+    /**
+     * Lee los elementos {@code <prop key="...">valor</prop>} de la propiedad {@code hibernateProperties}.
+     */
+    private static Properties readHibernateProperties(Element bean) {
+        Properties properties = new Properties();
+        NodeList props = bean.getElementsByTagNameNS("*", "prop");
+        for (int i = 0; i < props.getLength(); i++) {
+            Element prop = (Element) props.item(i);
+            properties.setProperty(prop.getAttribute("key"), prop.getTextContent().trim());
+        }
+        return properties;
+    }
+}
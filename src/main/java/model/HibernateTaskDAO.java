@@ -0,0 +1,86 @@
+package model;
+
+import org.hibernate.StaleStateException;
+
+import javax.persistence.OptimisticLockException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * {@link TaskDAO} que lee y escribe las tareas individuales con Hibernate.
+ * <p>
+ * El alta, la lectura por id, la lista completa, la edición con control de versión y el borrado pasan por la
+ * {@link org.hibernate.Session}; la edición condicionada la hace Hibernate con su propia comprobación de
+ * {@code @Version}, en una sola sentencia. Los recorridos con cursor, las páginas por rango de ids, las operaciones
+ * por lotes, la edición sin control de versión y la lectura de cambios siguen usando JDBC, donde Hibernate no aporta
+ * nada y añade el coste de las entidades gestionadas. Los oyentes y la caché de tareas funcionan igual.
+ */
+public class HibernateTaskDAO extends TaskDAO {
+    private final HibernateSupport hibernate;
+
+    /**
+     * Crea el DAO sobre la fábrica de sesiones indicada, usando su mismo origen de datos para las operaciones JDBC.
+     *
+     * @param hibernate El acceso con Hibernate.
+     */
+    public HibernateTaskDAO(HibernateSupport hibernate) {
+        super(hibernate.getDataSource());
+        this.hibernate = hibernate;
+    }
+
+    @Override
+    public boolean addTask(Task task) throws SQLException {
+        Task saved = new Task(task);
+        hibernate.inTransaction(session -> session.save(saved));
+        task.setId(saved.getId());
+        task.setVersion(saved.getVersion());
+        fireSaved(task);
+        return true;
+    }
+
+    @Override
+    public boolean updateTask(Task task, long expectedVersion) throws SQLException {
+        // Se guarda una copia para que la tarea no cambie de versión si la actualización se rechaza
+        Task updated = new Task(task);
+        updated.setVersion(expectedVersion);
+        try {
+            hibernate.inTransaction(session -> {
+                session.update(updated);
+                session.flush();
+                return null;
+            });
+        } catch (SQLException e) {
+            if (e.getCause() instanceof StaleStateException || e.getCause() instanceof OptimisticLockException) {
+                invalidateCached(task.getId());
+                return false;
+            }
+            throw e;
+        }
+        task.setVersion(updated.getVersion());
+        fireSaved(task);
+        return true;
+    }
+
+    @Override
+    public void deleteTask(Long id) throws SQLException {
+        int deleted = hibernate.inTransaction(session -> {
+            session.createNativeQuery(TOMBSTONE_QUERY).setParameter(1, id).executeUpdate();
+            return session.createQuery("delete from Task where id = :id").setParameter("id", id).executeUpdate();
+        });
+        if (deleted > 0) {
+            fireDeleted(id);
+        } else {
+            invalidateCached(id);
+        }
+    }
+
+    @Override
+    protected Task loadTask(Long id) throws SQLException {
+        return hibernate.inTransaction(session -> session.get(Task.class, id));
+    }
+
+    @Override
+    public List<Task> getAllTasks() throws SQLException {
+        return hibernate.inTransaction(session -> session.createQuery("from Task", Task.class).list());
+    }
+}
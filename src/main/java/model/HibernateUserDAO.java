@@ -0,0 +1,96 @@
+package model;
+
+import org.hibernate.jpa.QueryHints;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link UserDAO} que usa Hibernate para leer y modificar usuarios.
+ * <p>
+ * Las listas de usuarios traen sus roles en la misma consulta con {@code join fetch}, en lugar de una consulta
+ * de roles por usuario; los roles de un usuario se consultan con la caché de consultas. La verificación de
+ * contraseñas y el recálculo de hashes siguen usando JDBC: solo leen y escriben la columna de la contraseña,
+ * que no está en caché.
+ */
+public class HibernateUserDAO extends UserDAO {
+    private final HibernateSupport hibernate;
+
+    /**
+     * Crea el DAO sobre la fábrica de sesiones indicada.
+     *
+     * @param hibernate El acceso con Hibernate.
+     * @param hasher El hasher de contraseñas, o null para usar el compartido por la aplicación.
+     */
+    public HibernateUserDAO(HibernateSupport hibernate, PasswordHasher hasher) {
+        super(hibernate.getDataSource(), hasher);
+        this.hibernate = hibernate;
+    }
+
+    @Override
+    public void addUser(User user) throws SQLException {
+        User saved = new User(user.getUsername(), hashPassword(user.getPassword()));
+        hibernate.inTransaction(session -> session.save(saved));
+        user.setId(saved.getId());
+    }
+
+    /**
+     * Obtiene un usuario con sus roles ya cargados.
+     */
+    @Override
+    public User getUserByUsername(String username) throws SQLException {
+        return hibernate.inTransaction(session -> session.createQuery(
+                        "select u from User u left join fetch u.roles where u.username = :username", User.class)
+                .setParameter("username", username)
+                .uniqueResult());
+    }
+
+    /**
+     * Modifica el nombre y la contraseña con una actualización directa, que no toca los roles del usuario
+     * e invalida las consultas en caché que dependen de la tabla de usuarios.
+     */
+    @Override
+    public void updateUser(User user) throws SQLException {
+        hibernate.inTransaction(session -> session.createQuery(
+                        "update User set username = :username, password = :password where id = :id")
+                .setParameter("username", user.getUsername())
+                .setParameter("password", user.getPassword())
+                .setParameter("id", user.getId())
+                .executeUpdate());
+        PermissionCache.notifyUsersChanged();
+    }
+
+    @Override
+    public void deleteUser(Long id) throws SQLException {
+        hibernate.inTransaction(session -> {
+            User user = session.get(User.class, id);
+            if (user != null) {
+                session.delete(user); // También elimina sus filas de user_roles
+            }
+            return null;
+        });
+        PermissionCache.notifyUsersChanged();
+    }
+
+    @Override
+    public Set<String> getRoles(String username) throws SQLException {
+        return hibernate.inTransaction(session -> new HashSet<>(session.createQuery(
+                        "select r.name from User u join u.roles r where u.username = :username", String.class)
+                .setParameter("username", username)
+                .setCacheable(true)
+                .list()));
+    }
+
+    /**
+     * Obtiene todos los usuarios con sus roles en una sola consulta.
+     */
+    @Override
+    public List<User> getAllUsers() throws SQLException {
+        return hibernate.inTransaction(session -> session.createQuery(
+                        "select distinct u from User u left join fetch u.roles order by u.username", User.class)
+                .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                .list());
+    }
+}
@@ -0,0 +1,124 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias en nanosegundos que se puede registrar desde varios hilos sin bloqueos.
+ * <p>
+ * Los valores se agrupan en cubetas log-lineales: cada potencia de dos se divide en {@value #SUB_BUCKETS} cubetas
+ * iguales, de modo que cualquier percentil se obtiene con un error relativo menor del 6,25 % y el histograma
+ * ocupa un tamaño fijo (menos de 8 KB) cubra microsegundos o minutos. Registrar un valor es un incremento atómico;
+ * los percentiles se calculan al consultarlos, sobre una lectura de las cubetas que no detiene a los que registran.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Registra una medición.
+     *
+     * @param nanos La duración en nanosegundos; los valores negativos se cuentan como 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        totalNanos.addAndGet(value);
+        long currentMax;
+        while (value > (currentMax = maxNanos.get())) {
+            if (maxNanos.compareAndSet(currentMax, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de mediciones registradas.
+     *
+     * @return el número de mediciones.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Obtiene la duración media.
+     *
+     * @return la media en nanosegundos, o 0 si no hay mediciones.
+     */
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Obtiene el valor por debajo del cual queda la fracción indicada de las mediciones.
+     * Devuelve el límite superior de la cubeta correspondiente, sin superar el máximo registrado.
+     *
+     * @param fraction La fracción, entre 0 y 1 (0.99 para el percentil 99).
+     * @return el percentil en nanosegundos, o 0 si no hay mediciones.
+     */
+    public long getPercentileNanos(double fraction) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Descarta todas las mediciones. Las que se registren a la vez pueden conservarse o perderse.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
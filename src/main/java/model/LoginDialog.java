@@ -4,11 +4,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import org.mindrot.jbcrypt.BCrypt;
+import java.util.concurrent.CompletionException;
 
 /**
  * Clase LoginDialog que proporciona un cuadro de diálogo de inicio de sesión para la autenticación de usuarios.
@@ -19,7 +16,8 @@ public class LoginDialog extends JDialog {
     private JPasswordField passwordField;
     private boolean authenticated = false;
     private String username;
-    private UserDAO userDAO;
+    private JButton loginButton;
+    private final AuthenticationService authenticationService;
 
     /**
      * Constructor para crear un nuevo cuadro de diálogo de inicio de sesión.
@@ -28,7 +26,7 @@ public class LoginDialog extends JDialog {
      */
     public LoginDialog(JFrame parent) {
         super(parent, "Inicio de Sesión", true);
-        userDAO = new UserDAO();
+        authenticationService = AuthenticationService.shared();
         initUI();
     }
 
@@ -46,22 +44,14 @@ public class LoginDialog extends JDialog {
         passwordField = new JPasswordField();
         panel.add(passwordField);
 
-        JButton loginButton = new JButton("Iniciar sesión");
+        loginButton = new JButton("Iniciar sesión");
         loginButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (authenticate(usernameField.getText(), new String(passwordField.getPassword()))) {
-                    authenticated = true;
-                    username = usernameField.getText();
-                    dispose();
-                } else {
-                    JOptionPane.showMessageDialog(LoginDialog.this,
-                            "Usuario o contraseña incorrectos",
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+                authenticate(usernameField.getText(), new String(passwordField.getPassword()));
             }
         });
+        getRootPane().setDefaultButton(loginButton);
 
         add(panel, BorderLayout.CENTER);
         add(loginButton, BorderLayout.SOUTH);
@@ -71,24 +61,48 @@ public class LoginDialog extends JDialog {
 
     /**
      * Autentica al usuario verificando las credenciales ingresadas.
+     * La verificación se hace en el pool de {@link AuthenticationService} y el resultado se muestra en el hilo
+     * de eventos; mientras tanto el botón queda deshabilitado para no encolar intentos repetidos.
      */
-    private boolean authenticate(String username, String password) {
-        try (Connection connection = ConexionJDBC.obtenerConexion()) {
-            String query = "SELECT password FROM usuarios WHERE username = ?";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setString(1, username);
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        String storedHash = resultSet.getString("password");
-                        return BCrypt.checkpw(password, storedHash);
-                    }
-                }
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error de conexión a la base de datos.", "Error", JOptionPane.ERROR_MESSAGE);
+    private void authenticate(String username, String password) {
+        loginButton.setEnabled(false);
+        authenticationService.submit(username, password).whenComplete((result, error) ->
+                SwingUtilities.invokeLater(() -> showResult(username, result, error)));
+    }
+
+    private void showResult(String username, AuthenticationService.Result result, Throwable error) {
+        loginButton.setEnabled(true);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            cause.printStackTrace();
+            String message = cause instanceof SQLException
+                    ? "Error de conexión a la base de datos."
+                    : "Error al verificar las credenciales.";
+            JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        switch (result) {
+            case SUCCESS:
+                authenticated = true;
+                this.username = username;
+                dispose();
+                break;
+            case THROTTLED:
+                JOptionPane.showMessageDialog(this,
+                        "Demasiados intentos fallidos. Espere unos segundos antes de volver a intentarlo.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                break;
+            case BUSY:
+                JOptionPane.showMessageDialog(this,
+                        "El servidor está ocupado. Inténtelo de nuevo en unos segundos.",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                break;
+            default:
+                JOptionPane.showMessageDialog(this,
+                        "Usuario o contraseña incorrectos",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
         }
-        return false;
     }
 
     /**
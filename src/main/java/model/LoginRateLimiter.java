@@ -0,0 +1,136 @@
+package model;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de intentos de inicio de sesión por nombre de usuario basado en cubetas de fichas (token bucket).
+ * Cada usuario dispone de {@code capacity} intentos que se reponen a razón de uno cada {@code refillInterval};
+ * un intento sin fichas se rechaza antes de gastar CPU en BCrypt.
+ * <p>
+ * Las cubetas se reparten en franjas con su propio bloqueo, de modo que los intentos de usuarios distintos
+ * rara vez compiten por el mismo bloqueo. Cada franja guarda como mucho {@code MAX_BUCKETS_PER_STRIPE} cubetas;
+ * al superarlo se descarta la del usuario que lleva más tiempo sin intentar entrar, sin recorrer la franja.
+ */
+public class LoginRateLimiter {
+    static final int DEFAULT_CAPACITY = 5;
+    static final long DEFAULT_REFILL_MILLIS = TimeUnit.SECONDS.toMillis(12);
+    static final int STRIPES = 64;
+    static final int MAX_BUCKETS_PER_STRIPE = 1024;
+
+    private final int capacity;
+    private final long refillIntervalNanos;
+    private final LongSupplier clock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Crea un limitador con 5 intentos por usuario que se reponen a razón de uno cada 12 segundos.
+     */
+    public LoginRateLimiter() {
+        this(DEFAULT_CAPACITY, DEFAULT_REFILL_MILLIS, System::nanoTime);
+    }
+
+    LoginRateLimiter(int capacity, long refillIntervalMillis, LongSupplier clock) {
+        this.capacity = capacity;
+        this.refillIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refillIntervalMillis);
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Consume un intento del usuario si le queda alguno.
+     *
+     * @param username El nombre de usuario.
+     * @return true si el intento está permitido, false si debe rechazarse.
+     */
+    public boolean tryAcquire(String username) {
+        String key = normalize(username);
+        Stripe stripe = stripeFor(key);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.refill(now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens--;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Restablece los intentos de un usuario, por ejemplo tras un inicio de sesión correcto.
+     *
+     * @param username El nombre de usuario.
+     */
+    public void reset(String username) {
+        String key = normalize(username);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.buckets.remove(key);
+        }
+    }
+
+    /**
+     * @return el número de cubetas guardadas en todas las franjas.
+     */
+    int bucketCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.buckets.size();
+            }
+        }
+        return count;
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Grupo de cubetas protegido por un mismo bloqueo, ordenadas por último acceso.
+     */
+    private static final class Stripe {
+        private final Map<String, Bucket> buckets = new LinkedHashMap<String, Bucket>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > MAX_BUCKETS_PER_STRIPE;
+            }
+        };
+    }
+
+    /**
+     * Intentos disponibles de un usuario y el instante de la última reposición.
+     */
+    private final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + (double) elapsed / refillIntervalNanos);
+                lastRefill = now;
+            }
+        }
+    }
+}
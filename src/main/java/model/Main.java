@@ -14,6 +14,8 @@ public class Main {
             Connection conexion = ConexionJDBC.obtenerConexion();
             System.out.println("Conexión exitosa a la base de datos");
             conexion.close();
+            // Asigna los bits de permisos de todos los roles existentes antes de la primera comprobación
+            Permissions.registerAll(DataAccess.shared().getRoleDAO().getRoles());
         } catch (SQLException e) {
             System.out.println("Error al conectar a la base de datos:");
             e.printStackTrace();
@@ -24,11 +26,15 @@ public class Main {
             loginDialog.setVisible(true);
 
             if (loginDialog.isAuthenticated()) {
-                TaskDAO taskDAO = new TaskDAO();
-                UserDAO userDAO = new UserDAO();
+                // Los mismos DAO que usan la caché de permisos y el servicio de autenticación (ver DataAccess)
+                TaskDAO taskDAO = DataAccess.shared().getTaskDAO();
+                UserDAO userDAO = DataAccess.shared().getUserDAO();
                 String currentUser = loginDialog.getUsername();
                 TaskManagerUI taskManagerUI = new TaskManagerUI(taskDAO, currentUser);
-                new TaskController(taskManagerUI, taskDAO, userDAO, currentUser);
+                TaskController taskController = new TaskController(taskManagerUI, taskDAO, userDAO, currentUser);
+                if (Boolean.getBoolean("tasks.writeBehind")) {
+                    taskController.enableWriteBehind(new TaskWriteBehindQueue(taskDAO));
+                }
                 taskManagerUI.setVisible(true);
             } else {
                 System.exit(0);
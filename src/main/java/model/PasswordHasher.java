@@ -0,0 +1,180 @@
+package model;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.regex.Pattern;
+
+/**
+ * Calcula y verifica los hashes BCrypt de las contraseñas con un coste ajustado a la máquina.
+ * <p>
+ * El coste se calibra midiendo la velocidad de BCrypt en el equipo y eligiendo el mayor coste cuyo tiempo
+ * de cálculo no supera la latencia objetivo de un inicio de sesión. Puede fijarse con la propiedad de sistema
+ * {@code bcrypt.cost} o cambiarse la latencia objetivo con {@code bcrypt.targetMillis}.
+ * <p>
+ * {@link #needsRehash} solo pide recalcular los hashes con un coste menor que el mínimo configurado
+ * ({@code bcrypt.minCost}, o {@code bcrypt.cost} si está fijado, o {@link #MIN_COST}), nunca los de coste mayor.
+ * El coste calibrado cambia de un equipo a otro, así que compararlo con el del hash haría que clientes con CPU
+ * distintas se recalcularan las contraseñas unos a otros en cada inicio de sesión, y que los más lentos las bajaran.
+ */
+public class PasswordHasher {
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+    static final long DEFAULT_TARGET_MILLIS = 250;
+    private static final int PROBE_COST = 8;
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[abxy]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private static volatile PasswordHasher shared;
+
+    private final int cost;
+    private final int minCost;
+
+    /**
+     * Crea un hasher con el coste indicado, que es también el mínimo por debajo del cual se recalculan los hashes.
+     *
+     * @param cost El factor de coste de BCrypt (logaritmo en base 2 del número de rondas), entre 4 y 31.
+     */
+    public PasswordHasher(int cost) {
+        this(cost, cost);
+    }
+
+    /**
+     * Crea un hasher con el coste indicado y un mínimo distinto para recalcular los hashes.
+     *
+     * @param cost El factor de coste de los hashes nuevos, entre 4 y 31.
+     * @param minCost El coste por debajo del cual {@link #needsRehash} pide recalcular un hash; no mayor que {@code cost}.
+     */
+    public PasswordHasher(int cost, int minCost) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("El coste de BCrypt debe estar entre 4 y 31.");
+        }
+        if (minCost > cost) {
+            throw new IllegalArgumentException("El coste mínimo (" + minCost + ") no puede ser mayor que el coste (" + cost + ").");
+        }
+        this.cost = cost;
+        this.minCost = minCost;
+    }
+
+    /**
+     * Obtiene el hasher compartido por la aplicación, calibrándolo en el primer uso. El coste mínimo es
+     * {@code bcrypt.minCost} si está definido; si no, {@code bcrypt.cost} o {@link #MIN_COST}, nunca el calibrado.
+     *
+     * @return el hasher compartido.
+     */
+    public static PasswordHasher shared() {
+        PasswordHasher hasher = shared;
+        if (hasher == null) {
+            synchronized (PasswordHasher.class) {
+                hasher = shared;
+                if (hasher == null) {
+                    Integer fixedCost = Integer.getInteger("bcrypt.cost");
+                    long target = Long.getLong("bcrypt.targetMillis", DEFAULT_TARGET_MILLIS);
+                    int cost = fixedCost != null ? fixedCost : calibrate(target);
+                    int minCost = Integer.getInteger("bcrypt.minCost", fixedCost != null ? fixedCost : MIN_COST);
+                    hasher = new PasswordHasher(Math.max(cost, minCost), minCost);
+                    shared = hasher;
+                }
+            }
+        }
+        return hasher;
+    }
+
+    /**
+     * Mide la velocidad de BCrypt en esta máquina y elige el mayor coste cuyo tiempo estimado no supera el objetivo.
+     * Cada unidad de coste duplica el tiempo, así que basta medir un coste bajo y extrapolar.
+     * El resultado se limita a [{@link #MIN_COST}, {@link #MAX_COST}].
+     *
+     * @param targetMillis La latencia objetivo de un cálculo de hash en milisegundos.
+     * @return El coste elegido.
+     */
+    public static int calibrate(long targetMillis) {
+        String sample = "calibración de BCrypt";
+        BCrypt.hashpw(sample, BCrypt.gensalt(PROBE_COST)); // calentamiento del JIT
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(sample, BCrypt.gensalt(PROBE_COST));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double millis = best / 1_000_000.0;
+        int chosen = PROBE_COST;
+        while (chosen < MAX_COST && millis * 2 <= targetMillis) {
+            millis *= 2;
+            chosen++;
+        }
+        return Math.max(chosen, MIN_COST);
+    }
+
+    /**
+     * Calcula el hash de una contraseña con el coste actual.
+     *
+     * @param password La contraseña en texto plano.
+     * @return El hash BCrypt.
+     */
+    public String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    /**
+     * Verifica una contraseña contra un hash almacenado.
+     *
+     * @param password La contraseña en texto plano.
+     * @param storedHash El hash almacenado.
+     * @return true si la contraseña coincide; false si no coincide o el valor almacenado no es un hash BCrypt.
+     */
+    public boolean verify(String password, String storedHash) {
+        if (!isBCryptHash(storedHash)) {
+            return false;
+        }
+        return BCrypt.checkpw(password, storedHash);
+    }
+
+    /**
+     * Indica si un hash debe recalcularse porque se generó con un coste menor que el mínimo.
+     * Los hashes de coste mayor se conservan.
+     *
+     * @param storedHash El hash almacenado.
+     * @return true si el valor no es un hash BCrypt o su coste es menor que el mínimo.
+     */
+    public boolean needsRehash(String storedHash) {
+        return !isBCryptHash(storedHash) || costOf(storedHash) < minCost;
+    }
+
+    /**
+     * Obtiene el coste con el que este hasher genera los hashes.
+     *
+     * @return el factor de coste.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Obtiene el coste por debajo del cual se recalculan los hashes.
+     *
+     * @return el factor de coste mínimo.
+     */
+    public int getMinCost() {
+        return minCost;
+    }
+
+    /**
+     * Indica si el valor almacenado es un hash BCrypt bien formado.
+     *
+     * @param value El valor de la columna de contraseña.
+     * @return true si es un hash BCrypt.
+     */
+    public static boolean isBCryptHash(String value) {
+        return value != null && BCRYPT_HASH.matcher(value).matches();
+    }
+
+    /**
+     * Obtiene el coste de un hash BCrypt, que son los dos dígitos tras el prefijo de versión.
+     *
+     * @param hash Un hash BCrypt bien formado.
+     * @return el factor de coste del hash.
+     */
+    public static int costOf(String hash) {
+        int start = hash.indexOf('$', 1) + 1;
+        return Integer.parseInt(hash.substring(start, start + 2));
+    }
+}
@@ -0,0 +1,172 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché en memoria de los roles de cada usuario, compartida por los controladores para que las comprobaciones
+ * de permisos no consulten la base de datos en cada acción.
+ * <p>
+ * Cada entrada caduca tras un tiempo de vida configurable. Además, {@link UserDAO} y {@link RoleDAO} invalidan la
+ * caché compartida cuando cambian usuarios o asignaciones de roles. Como esas operaciones solo conocen el id del
+ * usuario y la caché se indexa por nombre, se vacía la caché completa; son operaciones de administración poco
+ * frecuentes y la caché solo contiene los usuarios con sesión abierta.
+ * <p>
+ * Junto a los nombres de los roles se guarda su máscara de {@link Permissions}, de modo que las comprobaciones
+ * de permisos sobre una entrada vigente son una operación de bits que no crea objetos.
+ */
+public class PermissionCache {
+    static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static volatile PermissionCache shared;
+
+    private final UserDAO userDAO;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Crea una caché que carga los roles a través del DAO indicado.
+     *
+     * @param userDAO El DAO del que se leen los roles.
+     * @param ttlMillis El tiempo de vida de cada entrada en milisegundos.
+     */
+    public PermissionCache(UserDAO userDAO, long ttlMillis) {
+        this.userDAO = userDAO;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Obtiene la caché compartida por toda la aplicación, creándola en el primer uso con el DAO de usuarios de
+     * {@link DataAccess}.
+     *
+     * @return la caché de permisos compartida.
+     */
+    public static PermissionCache shared() {
+        PermissionCache cache = shared;
+        if (cache == null) {
+            synchronized (PermissionCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    cache = new PermissionCache(DataAccess.shared().getUserDAO(), DEFAULT_TTL_MILLIS);
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Invalida la caché compartida, si existe. Lo invocan los DAO tras modificar usuarios o asignaciones de roles.
+     */
+    static void notifyUsersChanged() {
+        PermissionCache cache = shared;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Obtiene los roles de un usuario, consultando la base de datos solo si no están en caché o han caducado.
+     *
+     * @param username El nombre de usuario.
+     * @return Un conjunto inmutable con los nombres de los roles del usuario.
+     * @throws SQLException Si ocurre un error al consultar los roles.
+     */
+    public Set<String> getRoles(String username) throws SQLException {
+        return getEntry(username).roles;
+    }
+
+    /**
+     * Obtiene la máscara de permisos de un usuario, con los bits de {@link Permissions} de cada uno de sus roles.
+     *
+     * @param username El nombre de usuario.
+     * @return la máscara de permisos del usuario.
+     * @throws SQLException Si ocurre un error al consultar los roles.
+     */
+    public long getPermissions(String username) throws SQLException {
+        return getEntry(username).permissions;
+    }
+
+    /**
+     * Comprueba si un usuario tiene todos los permisos indicados.
+     *
+     * @param username El nombre de usuario.
+     * @param required Los bits de los permisos requeridos, por ejemplo {@link Permissions#ADMIN}.
+     * @return true si el usuario tiene todos los permisos, false en caso contrario.
+     * @throws SQLException Si ocurre un error al consultar los roles.
+     */
+    public boolean hasPermission(String username, long required) throws SQLException {
+        return Permissions.includes(getPermissions(username), required);
+    }
+
+    /**
+     * Comprueba si un usuario tiene un rol.
+     *
+     * @param username El nombre de usuario.
+     * @param role El nombre del rol.
+     * @return true si el usuario tiene el rol, false en caso contrario o si ningún usuario lo tiene todavía.
+     * @throws SQLException Si ocurre un error al consultar los roles.
+     */
+    public boolean hasRole(String username, String role) throws SQLException {
+        long bit = Permissions.bit(role);
+        return bit != 0 && hasPermission(username, bit);
+    }
+
+    /**
+     * Descarta los roles en caché de un usuario.
+     *
+     * @param username El nombre de usuario.
+     */
+    public void invalidate(String username) {
+        version.incrementAndGet();
+        entries.remove(username);
+    }
+
+    /**
+     * Descarta todos los roles en caché.
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Obtiene la entrada vigente de un usuario, consultando la base de datos si no está en caché o ha caducado.
+     */
+    private Entry getEntry(String username) throws SQLException {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return entry;
+        }
+        long versionBeforeLoad = version.get();
+        Set<String> roles = Collections.unmodifiableSet(new HashSet<>(userDAO.getRoles(username)));
+        entry = new Entry(roles, Permissions.maskOf(roles), now);
+        // Si hubo una invalidación durante la consulta, el resultado puede estar desactualizado: no se guarda
+        if (version.get() == versionBeforeLoad) {
+            entries.put(username, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Roles de un usuario y su máscara de permisos, junto con el instante en que se leyeron.
+     */
+    private static final class Entry {
+        private final Set<String> roles;
+        private final long permissions;
+        private final long loadedAt;
+
+        Entry(Set<String> roles, long permissions, long loadedAt) {
+            this.roles = roles;
+            this.permissions = permissions;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de los nombres de rol como bits de una máscara de permisos.
+ * <p>
+ * Cada nombre de rol recibe, la primera vez que se ve, un índice de 0 a 63 que se conserva durante toda la
+ * ejecución. Los roles de un usuario se guardan así en un {@code long} (ver {@link PermissionCache#getPermissions}),
+ * y comprobar un permiso es una operación de bits sin búsquedas en conjuntos ni objetos nuevos.
+ * La aplicación registra todos los roles de la base de datos al arrancar; los roles creados después se registran
+ * al aparecer en los roles de un usuario. Las comprobaciones usan {@link #bit}, que nunca registra: un nombre
+ * desconocido no ocupa ninguno de los 64 bits.
+ */
+public final class Permissions {
+    static final int MAX_ROLES = Long.SIZE;
+
+    private static final ConcurrentHashMap<String, Long> BITS = new ConcurrentHashMap<>();
+
+    /** Permiso de administración: agregar, editar y eliminar tareas. */
+    public static final long ADMIN = register("admin");
+
+    private Permissions() {
+    }
+
+    /**
+     * Obtiene el bit de un rol ya registrado, sin registrarlo.
+     *
+     * @param role El nombre del rol.
+     * @return una máscara con un único bit activo que representa el rol, o 0 si el rol no está registrado.
+     */
+    public static long bit(String role) {
+        Long bit = BITS.get(role);
+        return bit == null ? 0 : bit;
+    }
+
+    /**
+     * Obtiene el bit de un rol, asignándole uno nuevo si es la primera vez que se registra.
+     *
+     * @param role El nombre del rol.
+     * @return una máscara con un único bit activo que representa el rol.
+     * @throws IllegalStateException si ya hay {@value #MAX_ROLES} roles registrados.
+     */
+    static long register(String role) {
+        Long bit = BITS.get(role);
+        if (bit != null) {
+            return bit;
+        }
+        synchronized (BITS) {
+            return BITS.computeIfAbsent(role, name -> {
+                if (BITS.size() == MAX_ROLES) {
+                    throw new IllegalStateException("No se pueden registrar más de " + MAX_ROLES + " roles: " + name);
+                }
+                return 1L << BITS.size();
+            });
+        }
+    }
+
+    /**
+     * Obtiene la máscara de los roles de un usuario, registrando los que aún no tengan bit.
+     *
+     * @param roles Los nombres de los roles leídos de la base de datos.
+     * @return la unión de los bits de los roles.
+     */
+    public static long maskOf(Collection<String> roles) {
+        long mask = 0;
+        for (String role : roles) {
+            mask |= register(role);
+        }
+        return mask;
+    }
+
+    /**
+     * Registra los roles existentes para que sus bits queden asignados desde el arranque.
+     *
+     * @param roles Los roles de la base de datos.
+     */
+    public static void registerAll(Collection<Role> roles) {
+        for (Role role : roles) {
+            register(role.getName());
+        }
+    }
+
+    /**
+     * Comprueba si una máscara incluye todos los permisos requeridos.
+     *
+     * @param permissions La máscara de permisos del usuario.
+     * @param required Los bits de los permisos requeridos.
+     * @return true si todos los bits requeridos están activos.
+     */
+    public static boolean includes(long permissions, long required) {
+        return (permissions & required) == required;
+    }
+}
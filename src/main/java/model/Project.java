@@ -3,9 +3,10 @@ package model;
 /**
  * Clase que representa un proyecto en la aplicación.
  * Cada proyecto tiene un identificador único, un nombre y una descripción.
+ * Se guarda en la tabla {@code proyectos} a través de {@link ProjectDAO}; las tareas lo referencian por su id.
  */
 public class Project {
-    private int id;
+    private Long id;
     private String name;
     private String description;
 
@@ -16,21 +17,41 @@ public class Project {
      * @param name        el nombre del proyecto
      * @param description una breve descripción del proyecto
      */
-    public Project(int id, String name, String description) {
+    public Project(Long id, String name, String description) {
         this.id = id;
         this.name = name;
         this.description = description;
     }
 
+    /**
+     * Constructor para crear un nuevo proyecto sin especificar el identificador.
+     * El identificador se generará automáticamente al guardarlo.
+     *
+     * @param name        el nombre del proyecto
+     * @param description una breve descripción del proyecto
+     */
+    public Project(String name, String description) {
+        this(null, name, description);
+    }
+
     /**
      * Obtiene el identificador único del proyecto.
      *
      * @return el identificador del proyecto
      */
-    public int getId() {
+    public Long getId() {
         return id;
     }
 
+    /**
+     * Establece el identificador único del proyecto.
+     *
+     * @param id el nuevo identificador del proyecto
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     /**
      * Obtiene el nombre del proyecto.
      *
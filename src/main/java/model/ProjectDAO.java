@@ -0,0 +1,238 @@
+package model;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Clase que gestiona el acceso a los datos de los proyectos en la base de datos.
+ * Proporciona métodos para agregar, actualizar, eliminar y recuperar proyectos, y los recuentos de tareas
+ * por proyecto para el panel de proyectos.
+ */
+public class ProjectDAO {
+    /** Columnas que leen las consultas de proyectos, en este orden; el resumen añade sus recuentos detrás. */
+    static final Projection PROJECT_COLUMNS = new Projection("id", "nombre", "descripcion");
+    private static final int ID = PROJECT_COLUMNS.index("id");
+    private static final int NAME = PROJECT_COLUMNS.index("nombre");
+    private static final int DESCRIPTION = PROJECT_COLUMNS.index("descripcion");
+    private static final int PENDING = 4;
+    private static final int COMPLETED = 5;
+    private static final int OVERDUE = 6;
+    /** Construye un proyecto a partir de una consulta sobre {@link #PROJECT_COLUMNS}. */
+    static final RowMapper<Project> PROJECT_MAPPER = resultSet -> new Project(resultSet.getLong(ID),
+            resultSet.getString(NAME), resultSet.getString(DESCRIPTION));
+
+    /** Condición de tarea completada, con el mismo criterio que {@link TaskIndex#isCompleted}. */
+    private static final String COMPLETED_CONDITION = "LOWER(TRIM(estado)) LIKE 'complet%'";
+    private static final String SUMMARY_QUERY =
+            "SELECT p.id, p.nombre, p.descripcion, COALESCE(c.pendientes, 0) AS pendientes, "
+            + "COALESCE(c.completadas, 0) AS completadas, COALESCE(c.vencidas, 0) AS vencidas "
+            + "FROM proyectos p LEFT JOIN ("
+            + "SELECT project_id, "
+            + "SUM(CASE WHEN " + COMPLETED_CONDITION + " THEN 0 ELSE 1 END) AS pendientes, "
+            + "SUM(CASE WHEN " + COMPLETED_CONDITION + " THEN 1 ELSE 0 END) AS completadas, "
+            + "SUM(CASE WHEN NOT " + COMPLETED_CONDITION + " AND fecha_vencimiento < ? THEN 1 ELSE 0 END) AS vencidas "
+            + "FROM tareas WHERE project_id IS NOT NULL GROUP BY project_id"
+            + ") c ON c.project_id = p.id ORDER BY p.nombre, p.id";
+
+    private final DataSource dataSource;
+    private final TaskDAO taskDAO;
+
+    /**
+     * Crea el DAO usando el pool de conexiones compartido de la aplicación.
+     */
+    public ProjectDAO() {
+        this(ConexionJDBC.getDataSource());
+    }
+
+    /**
+     * Crea el DAO sobre el origen de datos indicado.
+     *
+     * @param dataSource El origen de datos del que se obtienen las conexiones para los proyectos.
+     */
+    public ProjectDAO(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    /**
+     * Crea el DAO sobre el origen de datos indicado, avisando al DAO de tareas de las tareas que modifica.
+     *
+     * @param dataSource El origen de datos del que se obtienen las conexiones para los proyectos.
+     * @param taskDAO El DAO de tareas cuya caché y oyentes deben enterarse de los cambios, o null.
+     */
+    public ProjectDAO(DataSource dataSource, TaskDAO taskDAO) {
+        this.dataSource = dataSource;
+        this.taskDAO = taskDAO;
+    }
+
+    /**
+     * Agrega un nuevo proyecto a la base de datos y le asigna el id generado.
+     *
+     * @param project El proyecto a agregar.
+     * @return true si el proyecto se agregó correctamente, false de lo contrario.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public boolean addProject(Project project) throws SQLException {
+        String query = "INSERT INTO proyectos (nombre, descripcion) VALUES (?, ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, project.getName());
+            statement.setString(2, project.getDescription());
+            if (statement.executeUpdate() > 0) {
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        project.setId(generatedKeys.getLong(1));
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Actualiza el nombre y la descripción de un proyecto.
+     *
+     * @param project El proyecto con los datos actualizados.
+     * @return true si el proyecto existía y se actualizó.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public boolean updateProject(Project project) throws SQLException {
+        String query = "UPDATE proyectos SET nombre = ?, descripcion = ? WHERE id = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, project.getName());
+            statement.setString(2, project.getDescription());
+            statement.setLong(3, project.getId());
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Elimina un proyecto. Sus tareas se conservan sin proyecto asignado, en la misma transacción; se marcan como
+     * modificadas para que los clientes las reciban en la siguiente sincronización ({@link TaskDAO#getChangesSince}).
+     * Si el DAO se creó con un {@link TaskDAO}, tras confirmar se avisa a su caché y a sus oyentes.
+     *
+     * @param id El id del proyecto a eliminar.
+     * @return true si el proyecto existía y se eliminó.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public boolean deleteProject(long id) throws SQLException {
+        String unassign = "UPDATE tareas SET project_id = NULL, fecha_actualizacion = CURRENT_TIMESTAMP(3), "
+                + "version = version + 1 WHERE project_id = ?";
+        String query = "DELETE FROM proyectos WHERE id = ?";
+        long[] taskIds;
+        boolean deleted;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long started = System.nanoTime();
+            try (PreparedStatement select = connection.prepareStatement("SELECT id FROM tareas WHERE project_id = ? FOR UPDATE");
+                 PreparedStatement tasks = connection.prepareStatement(unassign);
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                taskIds = taskDAO != null ? readIds(select, id) : new long[0];
+                tasks.setLong(1, id);
+                tasks.executeUpdate();
+                statement.setLong(1, id);
+                deleted = statement.executeUpdate() > 0;
+                TaskDAO.checkWriteDeadline(started); // Las tareas modificadas deben verse en getChangesSince
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        if (taskIds.length > 0) {
+            taskDAO.tasksChangedElsewhere(taskIds);
+        }
+        return deleted;
+    }
+
+    /**
+     * Lee y bloquea los ids de las tareas de un proyecto, para avisar después de las que se desasignan.
+     */
+    private static long[] readIds(PreparedStatement select, long projectId) throws SQLException {
+        select.setLong(1, projectId);
+        long[] ids = new long[16];
+        int size = 0;
+        try (ResultSet resultSet = select.executeQuery()) {
+            while (resultSet.next()) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = resultSet.getLong(1);
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Recupera un proyecto por su id.
+     *
+     * @param id El id del proyecto.
+     * @return El proyecto, o null si no existe.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public Project getProjectById(long id) throws SQLException {
+        String query = "SELECT " + PROJECT_COLUMNS + " FROM proyectos WHERE id = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return PROJECT_MAPPER.mapRow(resultSet);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recupera todos los proyectos, ordenados por nombre.
+     *
+     * @return Una lista con todos los proyectos.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public List<Project> getAllProjects() throws SQLException {
+        String query = "SELECT " + PROJECT_COLUMNS + " FROM proyectos ORDER BY nombre, id";
+        List<Project> projects = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                projects.add(PROJECT_MAPPER.mapRow(resultSet));
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Obtiene los recuentos de tareas pendientes, completadas y vencidas de cada proyecto, ordenados por nombre.
+     * <p>
+     * La base de datos agrupa las tareas por proyecto en una sola consulta, recorriendo el índice
+     * {@code idx_tareas_proyecto} sin leer las filas, y solo devuelve una fila por proyecto; las tareas no se
+     * cargan en el cliente. Los proyectos sin tareas aparecen con los recuentos a cero.
+     *
+     * @param today La fecha de hoy; las tareas sin completar que vencen antes se cuentan como vencidas.
+     * @return El resumen de cada proyecto.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public List<ProjectSummary> getProjectSummaries(LocalDate today) throws SQLException {
+        List<ProjectSummary> summaries = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SUMMARY_QUERY)) {
+            statement.setDate(1, Date.valueOf(today));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    summaries.add(new ProjectSummary(PROJECT_MAPPER.mapRow(resultSet), resultSet.getInt(PENDING),
+                            resultSet.getInt(COMPLETED), resultSet.getInt(OVERDUE)));
+                }
+            }
+        }
+        return summaries;
+    }
+}
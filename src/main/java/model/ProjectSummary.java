@@ -0,0 +1,59 @@
+package model;
+
+/**
+ * Resumen de un proyecto para el panel de proyectos: el proyecto y el número de sus tareas pendientes,
+ * completadas y vencidas, calculados por la base de datos en {@link ProjectDAO#getProjectSummaries}.
+ * Las vencidas son las pendientes cuya fecha de vencimiento ya pasó, así que también cuentan como pendientes.
+ */
+public class ProjectSummary {
+    private final Project project;
+    private final int pending;
+    private final int completed;
+    private final int overdue;
+
+    /**
+     * Crea el resumen de un proyecto.
+     *
+     * @param project El proyecto.
+     * @param pending El número de tareas sin completar.
+     * @param completed El número de tareas completadas.
+     * @param overdue El número de tareas sin completar que ya vencieron.
+     */
+    public ProjectSummary(Project project, int pending, int completed, int overdue) {
+        this.project = project;
+        this.pending = pending;
+        this.completed = completed;
+        this.overdue = overdue;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getOverdue() {
+        return overdue;
+    }
+
+    /**
+     * Obtiene el número total de tareas del proyecto.
+     *
+     * @return las tareas pendientes más las completadas.
+     */
+    public int getTotal() {
+        return pending + completed;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectSummary[" + project.getName() + ": pendientes=" + pending + ", completadas=" + completed
+                + ", vencidas=" + overdue + "]";
+    }
+}
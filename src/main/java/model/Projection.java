@@ -0,0 +1,45 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Lista explícita y ordenada de las columnas que lee una consulta, en lugar de {@code SELECT *}.
+ * <p>
+ * Como el orden lo fija la proyección y no la tabla, la posición de cada columna se conoce al definirla:
+ * los {@link RowMapper} la obtienen una vez con {@link #index} y leen las filas por posición.
+ * {@link #toString()} devuelve la lista separada por comas para componer la consulta.
+ */
+public final class Projection {
+    private final String[] columns;
+    private final String sql;
+
+    /**
+     * Crea la proyección con las columnas en el orden en que se seleccionan.
+     *
+     * @param columns Los nombres de las columnas.
+     */
+    public Projection(String... columns) {
+        this.columns = columns.clone();
+        this.sql = String.join(", ", columns);
+    }
+
+    /**
+     * Obtiene la posición de una columna en el resultado, empezando en 1 como en JDBC.
+     *
+     * @param column El nombre de la columna.
+     * @return la posición de la columna.
+     * @throws IllegalArgumentException si la columna no forma parte de la proyección.
+     */
+    public int index(String column) {
+        int position = Arrays.asList(columns).indexOf(column);
+        if (position < 0) {
+            throw new IllegalArgumentException("La columna '" + column + "' no está en la proyección " + sql);
+        }
+        return position + 1;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -0,0 +1,103 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuciones acumuladas de una huella de SQL en el {@link SlowQueryLog}: cuántas hubo, cuántas superaron el umbral,
+ * el tiempo total y el máximo, y la forma de los parámetros de la ejecución más lenta.
+ */
+public class QueryStats {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String fingerprint;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder slowExecutions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong(-1);
+    private volatile String slowestParameters;
+    private volatile long slowestRows;
+
+    /**
+     * Crea las estadísticas de una huella.
+     *
+     * @param fingerprint La huella del SQL.
+     */
+    public QueryStats(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Registra una ejecución.
+     *
+     * @param nanos El tiempo de ejecución y lectura de filas, en nanosegundos.
+     * @param rows Las filas leídas o modificadas, o -1 si no se conocen.
+     * @param parameters La forma de los parámetros.
+     * @param slow Si la ejecución superó el umbral.
+     */
+    void record(long nanos, long rows, String parameters, boolean slow) {
+        executions.increment();
+        totalNanos.add(nanos);
+        if (slow) {
+            slowExecutions.increment();
+        }
+        long currentMax;
+        while (nanos > (currentMax = maxNanos.get())) {
+            if (maxNanos.compareAndSet(currentMax, nanos)) {
+                // Los datos de la más lenta pueden mezclarse con otra ejecución simultánea; son orientativos
+                slowestParameters = parameters;
+                slowestRows = rows;
+                break;
+            }
+        }
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getSlowExecutions() {
+        return slowExecutions.sum();
+    }
+
+    public double getTotalMillis() {
+        return totalNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    public double getMaxMillis() {
+        return Math.max(0, maxNanos.get()) / NANOS_PER_MILLI;
+    }
+
+    long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Obtiene el tiempo medio por ejecución.
+     *
+     * @return la media en milisegundos, o 0 si no hay ejecuciones.
+     */
+    public double getMeanMillis() {
+        long count = getExecutions();
+        return count == 0 ? 0 : getTotalMillis() / count;
+    }
+
+    public String getSlowestParameters() {
+        return slowestParameters;
+    }
+
+    public long getSlowestRows() {
+        return slowestRows;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: ejecuciones=%d, lentas=%d, media=%.3f ms, máx=%.3f ms (%d filas, parámetros %s)",
+                fingerprint, getExecutions(), getSlowExecutions(), getMeanMillis(), getMaxMillis(),
+                getSlowestRows(), getSlowestParameters());
+    }
+}
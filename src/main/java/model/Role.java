@@ -1,5 +1,8 @@
 package model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;  
 import java.util.HashSet;
 import java.util.Set;
@@ -7,8 +10,11 @@ import java.util.Set;
 /**
  * Entidad que representa un rol dentro del sistema.
  * Cada rol tiene un identificador único, un nombre y puede estar asociado a varios usuarios.
+ * Los roles cambian muy poco, por lo que se guardan en la caché de segundo nivel de Hibernate.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "roles")
 public class Role {
     @Id
@@ -1,5 +1,6 @@
 package model;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -9,10 +10,30 @@ import java.util.Set;
  * Proporciona métodos para agregar roles, obtener roles, asignar roles a usuarios y recuperar roles de usuarios.
  */
 public class RoleDAO {
+    /** Columnas que leen las consultas de roles, en este orden. */
+    static final Projection ROLE_COLUMNS = new Projection("id", "name");
+    private static final int ID = ROLE_COLUMNS.index("id");
+    private static final int NAME = ROLE_COLUMNS.index("name");
+    /** Construye un rol a partir de una consulta sobre {@link #ROLE_COLUMNS}. */
+    static final RowMapper<Role> ROLE_MAPPER = resultSet -> new Role(resultSet.getLong(ID), resultSet.getString(NAME));
 
-    private static final String URL = "jdbc:mysql://localhost:3307/martinbd";
-    private static final String USUARIO = "root";
-    private static final String CONTRASEÑA = "melmmlam1234*";
+    private final DataSource dataSource;
+
+    /**
+     * Crea el DAO usando el pool de conexiones compartido de la aplicación.
+     */
+    public RoleDAO() {
+        this(ConexionJDBC.getDataSource());
+    }
+
+    /**
+     * Crea el DAO sobre el origen de datos indicado.
+     *
+     * @param dataSource El origen de datos del que se obtienen las conexiones para los roles.
+     */
+    public RoleDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
 
     /**
      * Inserta un nuevo rol en la base de datos.
@@ -22,7 +43,7 @@ public class RoleDAO {
      */
     public void addRole(Role role) throws SQLException {
         String query = "INSERT INTO roles (name) VALUES (?)";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             statement.setString(1, role.getName());
             statement.executeUpdate();
@@ -42,14 +63,13 @@ public class RoleDAO {
      * @throws SQLException Si ocurre un problema de acceso a la base de datos.
      */
     public Role getRoleByName(String name) throws SQLException {
-        String query = "SELECT * FROM roles WHERE name = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        String query = "SELECT " + ROLE_COLUMNS + " FROM roles WHERE name = ?";
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, name);
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    Long id = resultSet.getLong("id");
-                    return new Role(id, name);
+                    return ROLE_MAPPER.mapRow(resultSet);
                 }
             }
         }
@@ -64,18 +84,14 @@ public class RoleDAO {
      */
     public Set<Role> getRoles() throws SQLException {
         Set<Role> roles = new HashSet<>();
-        String sql = "SELECT * FROM roles";
+        String sql = "SELECT " + ROLE_COLUMNS + " FROM roles";
 
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet resultSet = statement.executeQuery()) {
 
             while (resultSet.next()) {
-                Long id = resultSet.getLong("id");
-                String name = resultSet.getString("name");
-
-                Role role = new Role(id, name);
-                roles.add(role);
+                roles.add(ROLE_MAPPER.mapRow(resultSet));
             }
         }
         return roles;
@@ -90,12 +106,13 @@ public class RoleDAO {
      */
     public void assignRoleToUser(Long userId, Long roleId) throws SQLException {
         String query = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, userId);
             statement.setLong(2, roleId);
             statement.executeUpdate();
         }
+        PermissionCache.notifyUsersChanged();
     }
 
     /**
@@ -108,12 +125,12 @@ public class RoleDAO {
     public Set<String> getUserRoles(Long userId) throws SQLException {
         Set<String> roles = new HashSet<>();
         String query = "SELECT r.name FROM roles r INNER JOIN user_roles ur ON r.id = ur.role_id WHERE ur.user_id = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, userId);
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    roles.add(resultSet.getString("name"));
+                    roles.add(resultSet.getString(1));
                 }
             }
         }
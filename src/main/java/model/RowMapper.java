@@ -0,0 +1,25 @@
+package model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un ResultSet en un objeto.
+ * <p>
+ * Los DAO consultan columnas explícitas de una {@link Projection} y leen cada columna por su posición, resuelta una
+ * sola vez al definir la proyección, en lugar de buscarla por nombre en cada fila.
+ *
+ * @param <T> el tipo de objeto que se construye.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Construye el objeto de la fila actual; no debe mover el cursor.
+     *
+     * @param resultSet El ResultSet posicionado en la fila.
+     * @return el objeto construido.
+     * @throws SQLException Si ocurre un error al leer las columnas.
+     */
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,368 @@
+package model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Registro de consultas lentas del {@link ConnectionPool}.
+ * <p>
+ * El pool envuelve con {@link #wrap} cada sentencia que entrega. El envoltorio mide el tiempo de cada ejecución,
+ * sumando el de {@code execute*} y el de cada {@code next()} del ResultSet (no el que el llamador dedica a procesar
+ * las filas), y cuenta las filas leídas o modificadas. También anota la forma de los parámetros, es decir, el tipo
+ * asignado a cada posición, sin sus valores.
+ * <p>
+ * Las ejecuciones se agrupan por la huella del SQL ({@link #fingerprint}): el texto sin literales, con los espacios
+ * normalizados y las listas {@code IN (?, ?, ...)} reducidas a una, de modo que las variantes de una misma consulta
+ * cuentan juntas. Cada ejecución que alcanza el umbral se registra en el log con su tiempo, sus filas y sus
+ * parámetros. {@link #getSlowest} devuelve las huellas con la ejecución más lenta.
+ */
+public class SlowQueryLog {
+    private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+    /** Número máximo de huellas distintas que se acumulan; las nuevas a partir de ahí solo se registran en el log. */
+    static final int MAX_FINGERPRINTS = 1000;
+    /** Huella de los lotes de un {@link Statement} con sentencias distintas o sin SQL conocido. */
+    static final String BATCH_FINGERPRINT = "<batch>";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final long thresholdNanos;
+    private final ConcurrentHashMap<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, QueryStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Crea el registro.
+     *
+     * @param thresholdMillis El tiempo a partir del cual una ejecución se registra en el log; con 0 se registran todas.
+     */
+    public SlowQueryLog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Calcula la huella de un SQL: sustituye los literales de texto y números por {@code ?}, normaliza los espacios
+     * y reduce las listas de parámetros entre paréntesis a {@code (?, ...)}.
+     *
+     * @param sql El SQL.
+     * @return la huella.
+     */
+    public static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?, ...)");
+    }
+
+    /**
+     * Registra una ejecución: la acumula en su huella y, si alcanza el umbral, la escribe en el log.
+     *
+     * @param sql El SQL ejecutado, o null si no se conoce (se agrupa bajo {@value #BATCH_FINGERPRINT}).
+     * @param parameters La forma de los parámetros, por ejemplo {@code [1:Long, 2:String]}.
+     * @param nanos El tiempo de la ejecución en nanosegundos.
+     * @param rows Las filas leídas o modificadas, o -1 si no se conocen.
+     */
+    public void record(String sql, String parameters, long nanos, long rows) {
+        String fingerprint = fingerprintOf(sql);
+        boolean slow = nanos >= thresholdNanos;
+        QueryStats queryStats = stats.get(fingerprint);
+        if (queryStats == null && stats.size() < MAX_FINGERPRINTS) {
+            queryStats = stats.computeIfAbsent(fingerprint, QueryStats::new);
+        }
+        if (queryStats != null) {
+            queryStats.record(nanos, rows, parameters, slow);
+        }
+        if (slow) {
+            LOGGER.warning(String.format("Consulta lenta: %.3f ms, %s filas, parámetros %s: %s",
+                    nanos / 1_000_000.0, rows < 0 ? "?" : Long.toString(rows), parameters, fingerprint));
+        }
+    }
+
+    /**
+     * Obtiene las huellas con la ejecución más lenta, de mayor a menor.
+     *
+     * @param limit El número máximo de huellas.
+     * @return las estadísticas de las huellas más lentas.
+     */
+    public List<QueryStats> getSlowest(int limit) {
+        return stats.values().stream()
+                .sorted(Comparator.comparingLong(QueryStats::getMaxNanos).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Escribe en el log las huellas con la ejecución más lenta, si hubo alguna ejecución.
+     *
+     * @param limit El número máximo de huellas.
+     */
+    public void logSlowest(int limit) {
+        List<QueryStats> slowest = getSlowest(limit);
+        if (slowest.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Consultas más lentas:");
+        for (QueryStats queryStats : slowest) {
+            message.append(System.lineSeparator()).append("  ").append(queryStats);
+        }
+        LOGGER.info(message.toString());
+    }
+
+    /**
+     * Descarta las estadísticas acumuladas.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    /**
+     * Envuelve una sentencia para medir sus ejecuciones.
+     *
+     * @param statement La sentencia; si es preparada, {@code sql} es su SQL.
+     * @param sql El SQL de la sentencia preparada, o null para un {@link Statement} que lo recibe al ejecutar.
+     * @return la sentencia envuelta, del mismo tipo.
+     */
+    Statement wrap(Statement statement, String sql) {
+        Class<?> type = statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                new TimedStatement(statement, sql));
+    }
+
+    private String fingerprintOf(String sql) {
+        if (sql == null) {
+            return BATCH_FINGERPRINT;
+        }
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = fingerprint(sql);
+            if (fingerprints.size() < MAX_FINGERPRINTS) {
+                fingerprints.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Describe los tipos de los parámetros, agrupando las posiciones consecutivas del mismo tipo, como las de una
+     * lista {@code IN}: {@code [1-50:Long, 51:String]}.
+     */
+    static String shapeOf(Map<Integer, String> parameters) {
+        StringBuilder shape = new StringBuilder("[");
+        int first = 0;
+        int last = 0;
+        String type = null;
+        for (Map.Entry<Integer, String> entry : parameters.entrySet()) {
+            if (entry.getValue().equals(type) && entry.getKey() == last + 1) {
+                last = entry.getKey();
+                continue;
+            }
+            appendRun(shape, first, last, type);
+            first = last = entry.getKey();
+            type = entry.getValue();
+        }
+        appendRun(shape, first, last, type);
+        return shape.append(']').toString();
+    }
+
+    private static void appendRun(StringBuilder shape, int first, int last, String type) {
+        if (type == null) {
+            return;
+        }
+        if (shape.length() > 1) {
+            shape.append(", ");
+        }
+        shape.append(first);
+        if (last > first) {
+            shape.append('-').append(last);
+        }
+        shape.append(':').append(type);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Envoltorio de una sentencia: anota los parámetros y mide cada ejecución hasta que se cierra su ResultSet.
+     */
+    private final class TimedStatement implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, String> parameters = new TreeMap<>();
+        private String batchSql;  // SQL de addBatch(String); BATCH_FINGERPRINT si el lote mezcla huellas
+        private TimedResultSet pending;  // Consulta cuyo ResultSet aún se está leyendo
+
+        TimedStatement(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], name.equals("setNull") || args[1] == null
+                        ? "null" : args[1].getClass().getSimpleName());
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                String sql = (String) args[0];
+                if (batchSql == null) {
+                    batchSql = sql;
+                } else if (!batchSql.equals(sql) && !fingerprintOf(batchSql).equals(fingerprintOf(sql))) {
+                    batchSql = BATCH_FINGERPRINT;
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSql = null;
+            } else if (name.equals("close")) {
+                finishPending();
+            } else if (name.equals("equals")) {
+                return proxy == args[0];
+            } else if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            finishPending();
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            if (sql == null) {
+                // executeBatch() de un Statement: el SQL llegó con addBatch, y el controlador vacía el lote al ejecutarlo
+                sql = batchSql;
+                batchSql = null;
+            }
+            String shape = shapeOf(parameters);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(target, method, args);
+            } catch (Throwable e) {
+                record(sql, shape, System.nanoTime() - start, -1);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (result instanceof ResultSet) {
+                pending = new TimedResultSet((ResultSet) result, proxy, sql, shape, elapsed);
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, pending);
+            }
+            record(sql, shape, elapsed, rowsOf(result));
+            return result;
+        }
+
+        private long rowsOf(Object result) throws SQLException {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            if (result instanceof int[]) {
+                long rows = 0;
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            if (result instanceof long[]) {
+                long rows = 0;
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            // execute(): devuelve false si no hay ResultSet y el número de filas está en getUpdateCount
+            return Boolean.FALSE.equals(result) ? target.getUpdateCount() : -1;
+        }
+
+        private void finishPending() {
+            if (pending != null) {
+                pending.finish();
+                pending = null;
+            }
+        }
+    }
+
+    /**
+     * Envoltorio de un ResultSet: suma el tiempo de cada {@code next()} y cuenta las filas; registra la ejecución
+     * al cerrarlo, o al cerrar o volver a ejecutar su sentencia.
+     */
+    private final class TimedResultSet implements InvocationHandler {
+        private final ResultSet target;
+        private final Object statement;
+        private final String sql;
+        private final String parameters;
+        private long nanos;
+        private long rows;
+        private boolean finished;
+
+        TimedResultSet(ResultSet target, Object statement, String sql, String parameters, long executeNanos) {
+            this.target = target;
+            this.statement = statement;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.nanos = executeNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    long start = System.nanoTime();
+                    boolean hasRow;
+                    try {
+                        hasRow = target.next();
+                    } finally {
+                        nanos += System.nanoTime() - start;
+                    }
+                    if (hasRow) {
+                        rows++;
+                    }
+                    return hasRow;
+                case "close":
+                    finish();
+                    break;
+                case "getStatement":
+                    return statement;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                record(sql, parameters, nanos, rows);
+            }
+        }
+    }
+}
@@ -1,17 +1,42 @@
 package model;
 
+import org.hibernate.annotations.ResultCheckStyle;
+import org.hibernate.annotations.SQLUpdate;
+
+import javax.persistence.*;
 import java.time.LocalDate;
 
 /**
  * Clase que representa una tarea en el sistema de gestión de tareas.
  * Cada tarea tiene un identificador único, una descripción, una fecha de vencimiento, un estado y puede estar asociada a un proyecto específico.
+ * <p>
+ * Como entidad de Hibernate, la actualización se escribe a mano para que también marque la fecha de actualización
+ * que usa {@link TaskDAO#getChangesSince}; el orden de los parámetros es el de las columnas que genera Hibernate.
  */
+@Entity
+@Table(name = "tareas")
+@SQLUpdate(sql = "UPDATE tareas SET descripcion = ?, fecha_vencimiento = ?, project_id = ?, estado = ?, version = ?, "
+        + "fecha_actualizacion = CURRENT_TIMESTAMP(3) WHERE id = ? AND version = ?", check = ResultCheckStyle.COUNT)
 public class Task {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;          // Identificador único de la tarea
+    @Column(name = "descripcion")
     private String description;  // Descripción de la tarea
+    @Column(name = "fecha_vencimiento")
     private LocalDate dueDate;   // Fecha de vencimiento de la tarea
+    @Column(name = "estado")
     private String status;       // Estado actual de la tarea (ej. "Completo", "Pendiente")
+    @Column(name = "project_id")
     private Long projectId;      // Identificador del proyecto al que pertenece la tarea, si aplica
+    @Version
+    private long version;        // Versión de la fila leída, para detectar ediciones concurrentes
+
+    /**
+     * Constructor por defecto, requerido por Hibernate.
+     */
+    protected Task() {
+    }
 
     /**
      * Constructor para crear una nueva tarea con todos los detalles necesarios.
@@ -29,6 +54,15 @@ public class Task {
         this.projectId = projectId;
     }
 
+    /**
+     * Constructor de copia.
+     * @param other La tarea a copiar.
+     */
+    public Task(Task other) {
+        this(other.id, other.description, other.dueDate, other.status, other.projectId);
+        this.version = other.version;
+    }
+
     // Métodos getter y setter para cada propiedad.
 
     public Long getId() {
@@ -70,5 +104,13 @@ public class Task {
     public void setProjectId(Long projectId) {
         this.projectId = projectId;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
     //prueba//
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché acotada de tareas por id, delante de {@link TaskDAO#getTaskById}.
+ * <p>
+ * Se activa con {@link TaskDAO#enableCache}: las lecturas por id consultan primero la caché y, si la tarea no está
+ * o ha caducado, la leen de la base de datos y la guardan. Como oyente del DAO recibe cada tarea guardada
+ * (escritura directa) y elimina las borradas, así que las ediciones hechas a través del DAO no dejan datos viejos.
+ * Una tarea con una versión que no es posterior a la guardada se ignora.
+ * Los cambios hechos por otros procesos se ven como mucho tras el tiempo de vida de la entrada.
+ * <p>
+ * Cuando se supera el número máximo de entradas se descarta la menos usada recientemente. La caché guarda y
+ * devuelve copias, de modo que modificar una tarea leída no altera la caché hasta que se guarda.
+ */
+public class TaskCache implements TaskChangeListener {
+    static final int DEFAULT_MAX_ENTRIES = 10_000;
+    static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<Long, Entry> entries;
+    /** Se incrementa con cada cambio; una lectura iniciada antes de un cambio no debe guardar su resultado. */
+    private long version;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Crea una caché con el tamaño y tiempo de vida por defecto: 10 000 tareas durante 5 minutos.
+     */
+    public TaskCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * Crea una caché con los límites indicados.
+     *
+     * @param maxEntries El número máximo de tareas en caché.
+     * @param ttlMillis El tiempo de vida de cada entrada en milisegundos.
+     */
+    public TaskCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    TaskCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("El tamaño de la caché debe ser positivo.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<Long, Entry>(Math.min(maxEntries, 1024) * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > TaskCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Obtiene una copia de la tarea en caché.
+     *
+     * @param id El id de la tarea.
+     * @return Una copia de la tarea, o null si no está en caché o ha caducado.
+     */
+    public Task get(Long id) {
+        long now = clock.getAsLong();
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (now - entry.storedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return new Task(entry.task);
+                }
+                entries.remove(id);
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Marca el inicio de una lectura de la base de datos tras un fallo de caché.
+     *
+     * @return La marca que debe pasarse a {@link #putIfUnchanged}.
+     */
+    synchronized long beginLoad() {
+        return version;
+    }
+
+    /**
+     * Guarda una tarea leída de la base de datos, salvo que haya habido algún cambio desde {@link #beginLoad()};
+     * en ese caso la lectura podría ser anterior al cambio y se descarta.
+     *
+     * @param task La tarea leída.
+     * @param stamp La marca obtenida antes de la lectura.
+     */
+    synchronized void putIfUnchanged(Task task, long stamp) {
+        if (stamp == version) {
+            entries.put(task.getId(), new Entry(new Task(task), clock.getAsLong()));
+        }
+    }
+
+    /**
+     * Guarda la tarea, salvo que la caché ya tenga esa versión o una posterior: la sincronización puede entregar una
+     * lectura hecha antes de una edición local que ya se guardó aquí.
+     */
+    @Override
+    public synchronized void taskSaved(Task task) {
+        Entry held = entries.get(task.getId());
+        if (held != null && task.getVersion() <= held.task.getVersion()) {
+            return;
+        }
+        version++;
+        entries.put(task.getId(), new Entry(new Task(task), clock.getAsLong()));
+    }
+
+    @Override
+    public synchronized void taskDeleted(Long id) {
+        invalidate(id);
+    }
+
+    /**
+     * Elimina una tarea de la caché.
+     *
+     * @param id El id de la tarea.
+     */
+    public synchronized void invalidate(Long id) {
+        version++;
+        entries.remove(id);
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+    }
+
+    /**
+     * Elimina las entradas caducadas sin esperar a que se lean.
+     *
+     * @return El número de entradas eliminadas.
+     */
+    public int purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().storedAt >= ttlNanos) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        expirations.addAndGet(removed);
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    /**
+     * Obtiene la proporción de lecturas servidas desde la caché.
+     *
+     * @return un valor entre 0 y 1, o 0 si aún no hay lecturas.
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TaskCache[tamaño=%d/%d, aciertos=%d, fallos=%d, descartes=%d, caducadas=%d, tasaAciertos=%.2f]",
+                size(), maxEntries, getHits(), getMisses(), getEvictions(), getExpirations(), getHitRatio());
+    }
+
+    /**
+     * Copia de una tarea y el instante en que se guardó.
+     */
+    private static final class Entry {
+        private final Task task;
+        private final long storedAt;
+
+        Entry(Task task, long storedAt) {
+            this.task = task;
+            this.storedAt = storedAt;
+        }
+    }
+}
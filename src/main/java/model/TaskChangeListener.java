@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * Recibe los cambios de tareas confirmados por un {@link TaskDAO}, para mantener sincronizadas
+ * las estructuras en memoria (índices, cachés) sin volver a consultar la base de datos.
+ * <p>
+ * Los avisos se entregan en el hilo que hizo la modificación, justo después de confirmarla,
+ * por lo que las implementaciones deben ser rápidas y seguras frente a varios hilos. En las operaciones por
+ * lotes se avisa de todos los elementos de cada bloque confirmado, porque el controlador no siempre informa
+ * del recuento de cada fila.
+ */
+public interface TaskChangeListener {
+
+    /**
+     * Se invoca cuando una tarea se ha insertado o actualizado.
+     *
+     * @param task La tarea con los datos guardados y su id.
+     */
+    void taskSaved(Task task);
+
+    /**
+     * Se invoca cuando una tarea se ha eliminado.
+     *
+     * @param id El id de la tarea eliminada.
+     */
+    void taskDeleted(Long id);
+}
@@ -0,0 +1,58 @@
+package model;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cambios de tareas ocurridos desde un cursor, devueltos por {@link TaskDAO#getChangesSince}.
+ * Contiene las tareas insertadas o modificadas con sus datos actuales, los ids de las eliminadas y el cursor
+ * que debe pasarse en la siguiente consulta.
+ * <p>
+ * Las eliminadas deben aplicarse después de las guardadas: si una tarea se borra mientras se leen los cambios,
+ * puede aparecer en ambas listas.
+ */
+public class TaskChanges {
+    private final List<Task> savedTasks;
+    private final long[] deletedIds;
+    private final Timestamp cursor;
+
+    /**
+     * Crea el conjunto de cambios.
+     *
+     * @param savedTasks Las tareas insertadas o modificadas.
+     * @param deletedIds Los ids de las tareas eliminadas.
+     * @param cursor El cursor para la siguiente consulta.
+     */
+    public TaskChanges(List<Task> savedTasks, long[] deletedIds, Timestamp cursor) {
+        this.savedTasks = Collections.unmodifiableList(savedTasks);
+        this.deletedIds = deletedIds;
+        this.cursor = cursor;
+    }
+
+    public List<Task> getSavedTasks() {
+        return savedTasks;
+    }
+
+    public long[] getDeletedIds() {
+        return deletedIds.clone();
+    }
+
+    public Timestamp getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Indica si no hay ningún cambio.
+     *
+     * @return true si no hay tareas guardadas ni eliminadas.
+     */
+    public boolean isEmpty() {
+        return savedTasks.isEmpty() && deletedIds.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChanges[guardadas=" + savedTasks.size() + ", eliminadas=" + deletedIds.length + ", cursor=" + cursor + "]";
+    }
+}
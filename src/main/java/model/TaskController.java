@@ -1,23 +1,55 @@
 package model;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Controlador que gestiona las interacciones entre la vista y el modelo para la funcionalidad relacionada con las tareas.
  * Proporciona métodos para agregar, eliminar y editar tareas, así como cargar tareas desde la base de datos.
  */
 public class TaskController {
+    private static final Logger LOGGER = Logger.getLogger(TaskController.class.getName());
+    private static final int SEARCH_DELAY_MILLIS = 250;  // Pausa de escritura tras la que se aplica la búsqueda
+    private static final long SYNC_INTERVAL_SECONDS = 15;  // Intervalo entre consultas de cambios de otros clientes
+
     private TaskManagerUI view;  // La interfaz de usuario para la gestión de tareas
     private TaskDAO model;       // El acceso a datos de las tareas
     private UserDAO userDAO;     // El acceso a datos de los usuarios
     private String currentUser;  // El usuario actualmente autenticado en la aplicación
+    private BackgroundExecutor background;  // Ejecuta las operaciones de base de datos fuera del hilo de eventos
+    private ProjectDAO projectDAO;  // El acceso a datos de los proyectos, para su panel
+    private PermissionCache permissions = PermissionCache.shared();  // Roles en caché del usuario actual
+    private final TaskIndex taskIndex = new TaskIndex();  // Índices en memoria por estado y fecha de vencimiento
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();  // Índice de texto de las descripciones
+    private boolean searchIndexLoaded = false;  // Si los índices ya pueden responder búsquedas y filtros
+    private final List<TaskFilter> filters = new ArrayList<>();  // Opciones del selector "Mostrar", en su orden
+    private boolean updatingFilters = false;  // Evita aplicar el filtro mientras se rehacen las opciones
+    private Timer searchTimer;  // Retrasa la búsqueda hasta que el usuario deja de escribir
+    private TaskWriteBehindQueue writeBehind;  // Cola de escritura diferida de ediciones y borrados, si está activa
+    private ScheduledExecutorService syncExecutor;  // Consulta periódicamente los cambios hechos por otros clientes
+    private Timestamp syncCursor;  // Cursor de la última sincronización; solo lo usa el hilo de sincronización
     private boolean isInitialized = false;  // Indicador de si el controlador ha sido inicializado
 
     /**
@@ -28,10 +60,24 @@ public class TaskController {
      * @param currentUser El nombre del usuario actualmente autenticado
      */
     public TaskController(TaskManagerUI view, TaskDAO model, UserDAO userDAO, String currentUser) {
+        this(view, model, userDAO, currentUser, new BackgroundExecutor());
+    }
+
+    /**
+     * Constructor que además recibe el ejecutor en segundo plano usado para las operaciones de base de datos.
+     * @param view La interfaz de usuario para la gestión de tareas
+     * @param model El modelo de acceso a datos para las tareas
+     * @param userDAO El acceso a datos de los usuarios
+     * @param currentUser El nombre del usuario actualmente autenticado
+     * @param background El ejecutor de las operaciones de base de datos
+     */
+    public TaskController(TaskManagerUI view, TaskDAO model, UserDAO userDAO, String currentUser, BackgroundExecutor background) {
         this.view = view;
         this.model = model;
+        this.projectDAO = new ProjectDAO(ConexionJDBC.getDataSource(), model);
         this.userDAO = userDAO;
         this.currentUser = currentUser;
+        this.background = background;
         initController();
     }
 
@@ -47,44 +93,324 @@ public class TaskController {
         view.getAddButton().addActionListener(e -> addTask());
         view.getDeleteButton().addActionListener(e -> deleteTask());
         view.getEditButton().addActionListener(e -> editTask());
+        view.getProjectsButton().addActionListener(e -> showProjects());
+        view.getCancelButton().addActionListener(e -> background.cancelAll());
+        background.setPendingListener(view::setPendingOperations);
+        initSearch();
+        initFilters();
         loadTasks();
+        loadTaskIndexes();
+        startSync();
         
         isInitialized = true;
     }
     
     /**
      * Carga las tareas desde la base de datos y las muestra en la tabla de la interfaz de usuario.
+     * El modelo de la tabla lee los ids en segundo plano y carga las filas visibles bajo demanda.
      */
     private void loadTasks() {
-        view.getTableModel().setRowCount(0);  // Limpiar la tabla antes de cargar datos
+        view.getTableModel().reload();
+    }
+
+    /**
+     * Construye en segundo plano los índices en memoria de las tareas. Desde ese momento el DAO los mantiene al día
+     * con cada alta, edición o borrado. Si el usuario ya había escrito una búsqueda, se aplica al terminar.
+     */
+    private void loadTaskIndexes() {
+        background.submit(() -> {
+            loadIndexes(model, taskIndex, searchIndex);
+            return taskIndex.size();
+        }, size -> {
+            LOGGER.info("Índices de tareas cargados: " + size + " tareas.");
+            searchIndexLoaded = true;
+            refreshFilters();
+            applySearch();
+        }, e -> showFailure(e, "Error de base de datos al cargar el índice de tareas."));
+    }
+
+    /**
+     * Arranca la sincronización periódica: cada {@link #SYNC_INTERVAL_SECONDS} segundos se leen solo las tareas
+     * modificadas o eliminadas desde la consulta anterior, incluidas las de otros clientes, y se aplican a la tabla
+     * y a los índices sin recargarlos. Se detiene al cerrar la ventana.
+     */
+    private void startSync() {
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // La primera ejecución solo fija el cursor; los cambios hechos mientras se cargaba la tabla quedan dentro
+        // del margen con el que getChangesSince vuelve a leer los cambios recientes
+        syncExecutor.scheduleWithFixedDelay(this::syncChanges, 0, SYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        view.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                syncExecutor.shutdownNow();
+            }
+        });
+    }
+
+    /**
+     * Lee los cambios desde el último cursor y los aplica. Se ejecuta en el hilo de sincronización: los índices y la
+     * caché se actualizan aquí, antes que la tabla, para que el filtro de búsqueda vea ya los datos nuevos.
+     */
+    private void syncChanges() {
         try {
-            List<Task> tasks = model.getAllTasks();
-            for (Task task : tasks) {
-                Object[] rowData = {task.getId(), task.getDescription(), task.getDueDate(), task.getStatus()};
-                view.getTableModel().addRow(rowData);
+            TaskChanges changes = model.getChangesSince(syncCursor);
+            syncCursor = changes.getCursor();
+            if (changes.isEmpty()) {
+                return;
+            }
+            TaskCache cache = model.getCache();
+            for (Task task : changes.getSavedTasks()) {
+                taskIndex.taskSaved(task);
+                searchIndex.taskSaved(task);
+                if (cache != null) {
+                    cache.taskSaved(task);
+                }
+            }
+            for (long id : changes.getDeletedIds()) {
+                taskIndex.taskDeleted(id);
+                searchIndex.taskDeleted(id);
+                if (cache != null) {
+                    cache.taskDeleted(id);
+                }
             }
-        } catch (SQLException e) {
-            view.showError("Error al cargar las tareas desde la base de datos.");
+            SwingUtilities.invokeLater(() -> applyChanges(changes));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error al sincronizar los cambios de tareas", e);
         }
     }
 
     /**
-     * Actualiza la tabla de tareas recargando las tareas desde la base de datos.
+     * Aplica a la tabla los cambios leídos en la sincronización, fila a fila.
+     * @param changes Los cambios a aplicar; las eliminaciones se aplican al final.
      */
-    private void updateTable() {
-        view.getTableModel().setRowCount(0);
-        loadTasks();
+    private void applyChanges(TaskChanges changes) {
+        TaskTableModel tableModel = view.getTableModel();
+        for (Task task : changes.getSavedTasks()) {
+            if (tableModel.findRow(task.getId()) == -1) {
+                tableModel.taskInserted(task);
+            } else {
+                tableModel.taskUpdated(task);
+            }
+        }
+        for (long id : changes.getDeletedIds()) {
+            tableModel.taskRemoved(id);
+        }
     }
 
     /**
-     * Agrega una nueva tarea a la base de datos usando la información ingresada en la interfaz de usuario.
+     * Conecta el cuadro de búsqueda: cada cambio reinicia un temporizador y la búsqueda se aplica cuando
+     * el usuario deja de escribir durante {@link #SEARCH_DELAY_MILLIS} milisegundos.
      */
-    private void addTask() {
-        if (!hasPermission("admin")) {
-            view.showError("No tienes permisos para realizar esta acción.");
+    private void initSearch() {
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> applySearch());
+        searchTimer.setRepeats(false);
+        view.getSearchField().getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+    }
+
+    /**
+     * Conecta el selector "Mostrar", que filtra la tabla con los índices por estado y fecha de vencimiento.
+     * Las opciones por estado, con su número de tareas, se recalculan cada vez que se despliega el selector.
+     */
+    private void initFilters() {
+        JComboBox<String> filterBox = view.getFilterBox();
+        refreshFilters();
+        filterBox.addActionListener(e -> {
+            if (!updatingFilters) {
+                applySearch();
+            }
+        });
+        filterBox.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                refreshFilters();
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
+    }
+
+    /**
+     * Rehace las opciones del selector "Mostrar" conservando la seleccionada si sigue existiendo.
+     */
+    private void refreshFilters() {
+        TaskFilter selected = getSelectedFilter();
+        filters.clear();
+        filters.add(new TaskFilter("Todas las tareas", null, null));
+        filters.add(new TaskFilter("Vencidas", () -> taskIndex.getOverdueIds(LocalDate.now()),
+                id -> taskIndex.isOverdue(id, LocalDate.now())));
+        filters.add(new TaskFilter("Vencen esta semana", () -> taskIndex.getIdsDueThisWeek(LocalDate.now()),
+                id -> taskIndex.isDueThisWeek(id, LocalDate.now())));
+        if (searchIndexLoaded) {
+            for (Map.Entry<String, Integer> count : taskIndex.getStatusCounts().entrySet()) {
+                String status = count.getKey();
+                filters.add(new TaskFilter("Estado: " + status + " (" + count.getValue() + ")",
+                        () -> taskIndex.getIdsByStatus(status), id -> taskIndex.hasStatus(id, status), status));
+            }
+        }
+        JComboBox<String> filterBox = view.getFilterBox();
+        updatingFilters = true;
+        try {
+            filterBox.removeAllItems();
+            int selectedIndex = 0;
+            for (int i = 0; i < filters.size(); i++) {
+                filterBox.addItem(filters.get(i).label);
+                if (selected != null && selected.key.equals(filters.get(i).key)) {
+                    selectedIndex = i;
+                }
+            }
+            filterBox.setSelectedIndex(selectedIndex);
+        } finally {
+            updatingFilters = false;
+        }
+    }
+
+    /**
+     * Obtiene la opción del selector "Mostrar" elegida.
+     * @return el filtro elegido, o null si se muestran todas las tareas.
+     */
+    private TaskFilter getSelectedFilter() {
+        int index = view.getFilterBox().getSelectedIndex();
+        TaskFilter filter = index >= 0 && index < filters.size() ? filters.get(index) : null;
+        return filter != null && filter.ids != null ? filter : null;
+    }
+
+    /**
+     * Filtra la tabla con el texto del cuadro de búsqueda y la opción del selector "Mostrar" usando los índices
+     * en memoria, sin consultar la base de datos. Si hay ambos se muestran las tareas que cumplen los dos.
+     * Sin búsqueda ni filtro se vuelven a mostrar todas las tareas.
+     */
+    private void applySearch() {
+        String query = view.getSearchField().getText().trim();
+        TaskFilter filter = getSelectedFilter();
+        TaskTableModel tableModel = view.getTableModel();
+        if (query.isEmpty() && filter == null) {
+            if (tableModel.isFiltered()) {
+                tableModel.reload();
+            }
             return;
         }
+        if (!searchIndexLoaded) {
+            return; // Se aplicará cuando termine de cargarse el índice
+        }
+        if (filter == null) {
+            tableModel.showOnly(searchIndex.findMatchingIds(query), id -> searchIndex.matches(query, id));
+        } else if (query.isEmpty()) {
+            tableModel.showOnly(filter.ids.get(), filter.matcher);
+        } else {
+            tableModel.showOnly(intersect(searchIndex.findMatchingIds(query), filter.ids.get()),
+                    id -> searchIndex.matches(query, id) && filter.matcher.test(id));
+        }
+    }
+
+    /**
+     * Construye los dos índices con un único recorrido de la tabla de tareas. Ambos se registran como oyentes antes
+     * de abrir el cursor, así que los cambios que lleguen durante la carga prevalecen sobre las filas leídas.
+     *
+     * @param taskDAO El DAO de tareas.
+     * @param taskIndex El índice por estado y fecha de vencimiento.
+     * @param searchIndex El índice de búsqueda por descripción.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    static void loadIndexes(TaskDAO taskDAO, TaskIndex taskIndex, TaskSearchIndex searchIndex) throws SQLException {
+        taskIndex.beginLoad(taskDAO);
+        searchIndex.beginLoad(taskDAO);
+        try {
+            taskDAO.forEachTask(task -> {
+                taskIndex.loaded(task);
+                searchIndex.loaded(task);
+            });
+        } finally {
+            taskIndex.endLoad();
+            searchIndex.endLoad();
+        }
+    }
 
+    /**
+     * Calcula los ids comunes de dos listas ordenadas de forma ascendente.
+     */
+    static long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < first.length && j < second.length; ) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Activa la escritura diferida: las ediciones y borrados se encolan y se escriben por lotes en segundo plano,
+     * fusionando las ediciones repetidas de una misma tarea. Al cerrar la ventana se escriben las pendientes en
+     * otro hilo, para no bloquear el hilo de eventos si la base de datos tarda.
+     * @param queue La cola de escritura diferida sobre el mismo DAO.
+     */
+    public void enableWriteBehind(TaskWriteBehindQueue queue) {
+        this.writeBehind = queue;
+        view.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Si la JVM termina antes, el apagado espera a que este cierre acabe (ver ConexionJDBC)
+                Thread closer = new Thread(queue::close, "task-write-behind-close");
+                closer.setDaemon(true);
+                closer.start();
+            }
+        });
+    }
+
+    /**
+     * Obtiene el índice de texto de las descripciones de las tareas.
+     * @return el índice de búsqueda.
+     */
+    public TaskSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * Obtiene los índices en memoria de las tareas, para consultar por estado o por fecha de vencimiento
+     * sin acceder a la base de datos.
+     * @return el índice de tareas.
+     */
+    public TaskIndex getTaskIndex() {
+        return taskIndex;
+    }
+
+    /**
+     * Agrega una nueva tarea a la base de datos usando la información ingresada en la interfaz de usuario.
+     * La entrada se valida en el hilo de eventos; la comprobación de permisos y la inserción se hacen en segundo plano.
+     */
+    private void addTask() {
         String input = view.getInputField().getText().trim();
         System.out.println("Input recibido: " + input); // Mensaje de depuración
 
@@ -118,37 +444,45 @@ public class TaskController {
             return;
         }
 
-        try {
-            Task task = new Task(null,descripcion, parsedDate, estado, null);
-            if (model.addTask(task)) {
-                updateTable();
+        Task task = new Task(null,descripcion, parsedDate, estado, null);
+        background.submit(() -> {
+            requirePermission(Permissions.ADMIN);
+            return model.addTask(task);
+        }, added -> {
+            if (added) {
+                view.getTableModel().taskInserted(task);
                 view.getInputField().setText(""); // Limpiar el campo de entrada después de agregar con éxito
             } else {
                 view.showError("Error al agregar la tarea. Por favor revise los datos e intente de nuevo.");
             }
-        } catch (SQLException e) {
-            view.showError("Error de base de datos al intentar agregar la tarea.");
-        }
+        }, e -> showFailure(e, "Error de base de datos al intentar agregar la tarea."));
+    }
+
+    /**
+     * Muestra el panel de proyectos. Los recuentos se calculan en la base de datos en segundo plano.
+     */
+    private void showProjects() {
+        background.submit(() -> projectDAO.getProjectSummaries(LocalDate.now()), view::showProjectDashboard,
+                e -> showFailure(e, "Error de base de datos al cargar los proyectos."));
     }
 
     /**
      * Elimina la tarea seleccionada en la tabla de la interfaz de usuario.
      */
     private void deleteTask() {
-        if (!hasPermission("admin")) {
-            view.showError("No tienes permisos para realizar esta acción.");
-            return;
-        }
-
         int selectedRow = view.getTaskTable().getSelectedRow();
         if (selectedRow != -1) {
-            Long taskId = (Long) view.getTaskTable().getValueAt(selectedRow, 0);
-            try {
-                model.deleteTask(taskId);
-                updateTable();
-            } catch (SQLException e) {
-                view.showError("Error de base de datos al intentar eliminar la tarea.");
-            }
+            Long taskId = view.getTableModel().getTaskIdAt(selectedRow);
+            background.submit(() -> {
+                requirePermission(Permissions.ADMIN);
+                if (writeBehind != null) {
+                    writeBehind.enqueueDelete(taskId);
+                } else {
+                    model.deleteTask(taskId);
+                }
+                return taskId;
+            }, deleted -> view.getTableModel().taskRemoved(deleted),
+                    e -> showFailure(e, "Error de base de datos al intentar eliminar la tarea."));
         } else {
             view.showError("Por favor seleccione una tarea para eliminar.");
         }
@@ -156,6 +490,8 @@ public class TaskController {
 
     /**
      * Edita la tarea seleccionada en la tabla de la interfaz de usuario utilizando la nueva información ingresada por el usuario.
+     * Se parte de la tarea ya cargada en la tabla y se guarda con una actualización condicionada a su versión,
+     * en un solo viaje a la base de datos; si otro usuario la ha modificado entretanto, no se sobrescribe su cambio.
      */
     private void editTask() {
         int selectedRow = view.getTaskTable().getSelectedRow();
@@ -164,7 +500,7 @@ public class TaskController {
             return; // Asegura que no proceda si no hay una fila seleccionada.
         }
 
-        Long taskId = (Long) view.getTaskTable().getValueAt(selectedRow, 0);
+        Long taskId = view.getTableModel().getTaskIdAt(selectedRow);
         if (taskId == null) {
             view.showError("Error al obtener el ID de la tarea.");
             return;
@@ -180,39 +516,154 @@ public class TaskController {
         String nuevoEstado = JOptionPane.showInputDialog("Ingrese el nuevo estado de la tarea:");
         if (nuevoEstado == null || nuevoEstado.isEmpty()) return; // Salir si el usuario cancela o ingresa un valor vacío
 
+        LocalDate parsedDate;
         try {
-            LocalDate parsedDate = LocalDate.parse(nuevaFechaVencimiento, DateTimeFormatter.ISO_LOCAL_DATE);
-            Task task = model.getTaskById(taskId);
-            if (task != null) {
+            parsedDate = LocalDate.parse(nuevaFechaVencimiento, DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException e) {
+            view.showError("Formato de fecha incorrecto. Utilice YYYY-MM-DD.");
+            return;
+        }
+
+        // Copia de la fila mostrada, tomada en el hilo de eventos; null si la fila aún no se ha cargado
+        TaskTableModel tableModel = view.getTableModel();
+        int currentRow = tableModel.findRow(taskId);
+        Task shown = currentRow != -1 ? tableModel.getTaskAt(currentRow) : null;
+        Task original = shown != null ? new Task(shown) : null;
+
+        background.submit(() -> {
+            if (writeBehind != null) {
+                // La escritura diferida fusiona las ediciones y aplica la última
+                Task task = writeBehind.getTask(taskId);
+                if (task == null) {
+                    return null;
+                }
                 task.setDescription(nuevaDescripcion);
                 task.setDueDate(parsedDate);
                 task.setStatus(nuevoEstado);
-                model.updateTask(task);
-                updateTable();
-                view.getTaskTable().setRowSelectionInterval(selectedRow, selectedRow); // Re-selecciona la fila editada
+                // Se rechaza si entretanto se encoló su borrado
+                return writeBehind.enqueueUpdate(task) ? task : null;
+            }
+            Task task = original != null ? original : model.getTaskById(taskId);
+            if (task == null) {
+                return null;
+            }
+            long expectedVersion = task.getVersion();
+            task.setDescription(nuevaDescripcion);
+            task.setDueDate(parsedDate);
+            task.setStatus(nuevoEstado);
+            if (!model.updateTask(task, expectedVersion)) {
+                throw new EditConflictException(model.getTaskById(taskId));
+            }
+            return task;
+        }, task -> {
+            if (task != null) {
+                view.getTableModel().taskUpdated(task);
+                int row = view.getTableModel().findRow(task.getId());
+                if (row != -1) {
+                    view.getTaskTable().setRowSelectionInterval(row, row); // Re-selecciona la fila editada
+                }
             } else {
                 view.showError("La tarea no existe.");
             }
-        } catch (DateTimeParseException e) {
-            view.showError("Formato de fecha incorrecto. Utilice YYYY-MM-DD.");
-        } catch (SQLException e) {
-            view.showError("Error de base de datos al intentar actualizar la tarea.");
+        }, e -> {
+            if (e instanceof EditConflictException) {
+                showConflict(taskId, ((EditConflictException) e).current);
+            } else {
+                showFailure(e, "Error de base de datos al intentar actualizar la tarea.");
+            }
+        });
+    }
+
+    /**
+     * Muestra en la tabla los datos actuales de una tarea que otro usuario ha modificado o eliminado, y avisa al usuario.
+     * @param taskId El id de la tarea en conflicto.
+     * @param current Los datos actuales de la tarea, o null si se ha eliminado.
+     */
+    private void showConflict(Long taskId, Task current) {
+        if (current != null) {
+            view.getTableModel().taskUpdated(current);
+            view.showError("Otro usuario ha modificado esta tarea. Se muestran sus datos actuales; vuelva a editarla si es necesario.");
+        } else {
+            view.getTableModel().taskRemoved(taskId);
+            view.showError("Otro usuario ha eliminado esta tarea.");
         }
     }
 
     /**
      * Verifica si el usuario actual tiene el permiso necesario para realizar una acción específica.
-     * @param requiredRole El rol requerido para realizar la acción.
+     * La máscara de permisos se lee de la caché de permisos; si ha caducado se consulta la base de datos,
+     * por lo que no debe invocarse desde el hilo de eventos.
+     * @param required Los bits de {@link Permissions} requeridos para realizar la acción.
      * @return true si el usuario tiene el permiso, false en caso contrario.
+     * @throws SQLException Si ocurre un error al consultar los roles del usuario.
      */
-    private boolean hasPermission(String requiredRole) {
-        try {
-            Set<String> roles = userDAO.getRoles(currentUser);
-            return roles.contains(requiredRole);
-        } catch (SQLException e) {
+    private boolean hasPermission(long required) throws SQLException {
+        return permissions.hasPermission(currentUser, required);
+    }
+
+    /**
+     * Comprueba el permiso indicado desde una operación en segundo plano.
+     * @param required Los bits de {@link Permissions} requeridos para realizar la acción.
+     * @throws PermissionDeniedException Si el usuario no tiene el permiso.
+     * @throws SQLException Si ocurre un error al consultar los roles del usuario.
+     */
+    private void requirePermission(long required) throws PermissionDeniedException, SQLException {
+        if (!hasPermission(required)) {
+            throw new PermissionDeniedException();
+        }
+    }
+
+    /**
+     * Muestra al usuario el error de una operación en segundo plano.
+     * @param e La excepción producida por la operación.
+     * @param databaseMessage El mensaje a mostrar si el error es de base de datos.
+     */
+    private void showFailure(Exception e, String databaseMessage) {
+        if (e instanceof PermissionDeniedException) {
+            view.showError("No tienes permisos para realizar esta acción.");
+        } else if (e instanceof RejectedExecutionException) {
+            view.showError("Hay demasiadas operaciones en curso. Inténtelo de nuevo en unos segundos.");
+        } else {
             e.printStackTrace();
-            view.showError("Error al verificar los roles del usuario.");
-            return false;
+            view.showError(databaseMessage);
+        }
+    }
+
+    /**
+     * Opción del selector "Mostrar": los ids que muestra y la condición que deben cumplir las tareas que cambian.
+     */
+    private static final class TaskFilter {
+        private final String label;
+        private final String key;  // Identifica la opción aunque cambie su recuento
+        private final Supplier<long[]> ids;  // null para mostrar todas las tareas
+        private final LongPredicate matcher;
+
+        TaskFilter(String label, Supplier<long[]> ids, LongPredicate matcher) {
+            this(label, ids, matcher, label);
+        }
+
+        TaskFilter(String label, Supplier<long[]> ids, LongPredicate matcher, String key) {
+            this.label = label;
+            this.ids = ids;
+            this.matcher = matcher;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Señala que el usuario actual no tiene el rol necesario para una operación.
+     */
+    private static class PermissionDeniedException extends Exception {
+    }
+
+    /**
+     * Señala que la tarea editada cambió de versión antes de guardarse.
+     */
+    private static class EditConflictException extends Exception {
+        private final Task current;  // Los datos actuales de la tarea, o null si se ha eliminado
+
+        EditConflictException(Task current) {
+            this.current = current;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,229 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lector de registros CSV que lee directamente de un canal NIO en bloques, sin crear una cadena por línea.
+ * Los campos se acumulan en búferes reutilizables que se sobrescriben en cada registro, de modo que el llamador
+ * solo crea objetos para los valores que realmente conserva.
+ * <p>
+ * Admite campos entre comillas dobles (con comillas escapadas como {@code ""} y saltos de línea dentro del campo),
+ * finales de línea LF o CRLF y elimina los espacios al principio y al final de cada campo.
+ */
+public class TaskCsvReader implements Closeable {
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    static final int MAX_FIELDS = 3;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean endOfInput = false;
+    private boolean decoderFlushed = false;
+
+    private final StringBuilder[] fields = new StringBuilder[MAX_FIELDS];
+    private int fieldCount;
+    private long lineNumber = 1;
+    private long recordLine;
+
+    /**
+     * Crea un lector sobre el canal indicado con búferes de 64 KB.
+     *
+     * @param channel El canal del que se leen los bytes en UTF-8.
+     */
+    public TaskCsvReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    TaskCsvReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.bytes = ByteBuffer.allocateDirect(bufferSize);
+        this.chars = CharBuffer.allocate(bufferSize);
+        this.chars.flip();
+        for (int i = 0; i < MAX_FIELDS; i++) {
+            fields[i] = new StringBuilder(64);
+        }
+    }
+
+    /**
+     * Avanza al siguiente registro.
+     *
+     * @return true si se leyó un registro, false al llegar al final del canal.
+     * @throws IOException Si ocurre un error al leer del canal.
+     */
+    public boolean nextRecord() throws IOException {
+        fieldCount = 0;
+        fields[0].setLength(0);
+        recordLine = lineNumber;
+        boolean any = false;
+        boolean inQuotes = false;
+        boolean quoted = false;   // el campo actual empezó con comillas
+        boolean justClosed = false;   // el carácter anterior cerró las comillas
+        int c;
+        while ((c = nextChar()) != -1) {
+            any = true;
+            if (c == '\n') {
+                lineNumber++;
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    inQuotes = false;
+                    justClosed = true;
+                } else {
+                    append((char) c);
+                }
+                continue;
+            }
+            if (c == '"') {
+                if (justClosed) {
+                    append('"');
+                    inQuotes = true;
+                } else if (!quoted && currentLength() == 0) {
+                    inQuotes = true;
+                    quoted = true;
+                } else {
+                    append('"');
+                }
+                justClosed = false;
+                continue;
+            }
+            justClosed = false;
+            if (c == ',') {
+                endField();
+                quoted = false;
+            } else if (c == '\n') {
+                endField();
+                return true;
+            } else if (c != '\r') {
+                append((char) c);
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        endField();
+        return true;
+    }
+
+    /**
+     * Obtiene el número de campos del registro actual, incluidos los que exceden {@link #MAX_FIELDS} y no se guardan.
+     *
+     * @return El número de campos.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Obtiene el contenido de un campo del registro actual. El valor se sobrescribe al leer el siguiente registro,
+     * por lo que debe copiarse si se quiere conservar.
+     *
+     * @param index El índice del campo, menor que {@link #MAX_FIELDS}.
+     * @return El contenido del campo sin espacios al principio ni al final.
+     */
+    public CharSequence getField(int index) {
+        if (index >= Math.min(fieldCount, MAX_FIELDS)) {
+            throw new IndexOutOfBoundsException("Campo " + index + " inexistente en la línea " + recordLine);
+        }
+        return fields[index];
+    }
+
+    /**
+     * Indica si el registro actual es una línea vacía.
+     *
+     * @return true si el registro no tiene contenido.
+     */
+    public boolean isBlank() {
+        return fieldCount == 1 && fields[0].length() == 0;
+    }
+
+    /**
+     * Obtiene el número de línea en el que empieza el registro actual.
+     *
+     * @return El número de línea, empezando por 1.
+     */
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int currentLength() {
+        return fieldCount < MAX_FIELDS ? fields[fieldCount].length() : 0;
+    }
+
+    private void append(char c) {
+        if (fieldCount < MAX_FIELDS) {
+            fields[fieldCount].append(c);
+        }
+    }
+
+    private void endField() {
+        if (fieldCount < MAX_FIELDS) {
+            trim(fields[fieldCount]);
+        }
+        fieldCount++;
+        if (fieldCount < MAX_FIELDS) {
+            fields[fieldCount].setLength(0);
+        }
+    }
+
+    private static void trim(StringBuilder field) {
+        int end = field.length();
+        while (end > 0 && Character.isWhitespace(field.charAt(end - 1))) {
+            end--;
+        }
+        field.setLength(end);
+        int start = 0;
+        while (start < end && Character.isWhitespace(field.charAt(start))) {
+            start++;
+        }
+        if (start > 0) {
+            field.delete(0, start);
+        }
+    }
+
+    private int nextChar() throws IOException {
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return chars.get();
+    }
+
+    /**
+     * Decodifica el siguiente bloque de bytes del canal en el búfer de caracteres.
+     */
+    private boolean fill() throws IOException {
+        if (decoderFlushed) {
+            return false;
+        }
+        chars.clear();
+        while (chars.position() == 0) {
+            if (!endOfInput && channel.read(bytes) == -1) {
+                endOfInput = true;
+            }
+            bytes.flip();
+            decoder.decode(bytes, chars, endOfInput);
+            bytes.compact();
+            if (endOfInput) {
+                decoder.flush(chars);
+                decoderFlushed = true;
+                break;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+}
@@ -0,0 +1,238 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Herramienta sin interfaz gráfica para importar y exportar la tabla de tareas en formato CSV.
+ * Usa el mismo formato que el campo de entrada de la aplicación: {@code descripcion,fecha_vencimiento,estado},
+ * con la fecha en formato 'yyyy-MM-dd' y una línea de cabecera opcional.
+ * <p>
+ * La importación lee el archivo en bloques con {@link TaskCsvReader}, descarta las filas no válidas indicando su
+ * línea y envía las tareas a {@link TaskDAO#addTasks} en lotes. La exportación recorre la tabla con un cursor y
+ * escribe cada tarea en disco según se lee, sin construir una lista en memoria.
+ */
+public class TaskCsvTool {
+    static final String HEADER = "descripcion,fecha_vencimiento,estado";
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final TaskDAO taskDAO;
+
+    /**
+     * Crea la herramienta sobre el DAO de tareas indicado.
+     *
+     * @param taskDAO El DAO en el que se importan y del que se exportan las tareas.
+     */
+    public TaskCsvTool(TaskDAO taskDAO) {
+        this.taskDAO = taskDAO;
+    }
+
+    /**
+     * Método principal que ejecuta una importación o una exportación.
+     *
+     * @param args {@code import <archivo>} o {@code export <archivo>}.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.err.println("Uso: TaskCsvTool import|export <archivo.csv>");
+            System.exit(2);
+        }
+        TaskCsvTool tool = new TaskCsvTool(new TaskDAO());
+        Path file = Paths.get(args[1]);
+        try {
+            long start = System.nanoTime();
+            if (args[0].equals("import")) {
+                ImportResult result = tool.importFrom(file);
+                for (String error : result.getErrors()) {
+                    System.err.println(error);
+                }
+                System.out.println("Tareas importadas: " + result.getImported() + ", filas rechazadas: " + result.getRejected());
+            } else {
+                long exported = tool.exportTo(file);
+                System.out.println("Tareas exportadas: " + exported);
+            }
+            System.out.printf("Tiempo: %.3f s%n", (System.nanoTime() - start) / 1_000_000_000.0);
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Importa las tareas de un archivo CSV.
+     *
+     * @param file El archivo a importar.
+     * @return El resultado de la importación con el número de filas importadas y rechazadas.
+     * @throws IOException Si ocurre un error al leer el archivo.
+     * @throws SQLException Si ocurre un error al insertar las tareas; los lotes anteriores quedan confirmados.
+     */
+    public ImportResult importFrom(Path file) throws IOException, SQLException {
+        ImportResult result = new ImportResult();
+        List<Task> batch = new ArrayList<>(taskDAO.getBatchSize());
+        boolean firstRecord = true;
+        try (TaskCsvReader reader = new TaskCsvReader(FileChannel.open(file, StandardOpenOption.READ))) {
+            while (reader.nextRecord()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+                if (firstRecord) {
+                    firstRecord = false;
+                    if (reader.getFieldCount() == 3 && contentEquals(reader.getField(0), "descripcion")) {
+                        continue;
+                    }
+                }
+                Task task = toTask(reader, result);
+                if (task != null) {
+                    batch.add(task);
+                    if (batch.size() == taskDAO.getBatchSize()) {
+                        result.imported += taskDAO.addTasks(batch);
+                        batch.clear();
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            result.imported += taskDAO.addTasks(batch);
+        }
+        return result;
+    }
+
+    /**
+     * Exporta todas las tareas a un archivo CSV, sobrescribiéndolo si existe.
+     *
+     * @param file El archivo de destino.
+     * @return El número de tareas exportadas.
+     * @throws IOException Si ocurre un error al escribir el archivo.
+     * @throws SQLException Si ocurre un error al leer las tareas.
+     */
+    public long exportTo(Path file) throws IOException, SQLException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1),
+                     TaskCsvReader.DEFAULT_BUFFER_SIZE)) {
+            out.write(HEADER);
+            out.write('\n');
+            return taskDAO.forEachTask(task -> {
+                try {
+                    writeField(out, task.getDescription());
+                    out.write(',');
+                    out.write(DateUtil.format(task.getDueDate()));
+                    out.write(',');
+                    writeField(out, task.getStatus());
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Valida el registro actual y lo convierte en tarea, o registra el error y devuelve null.
+     */
+    private static Task toTask(TaskCsvReader reader, ImportResult result) {
+        if (reader.getFieldCount() != 3) {
+            result.reject(reader.getLineNumber(), "se esperaban 3 campos y hay " + reader.getFieldCount());
+            return null;
+        }
+        CharSequence description = reader.getField(0);
+        CharSequence dueDate = reader.getField(1);
+        CharSequence status = reader.getField(2);
+        if (description.length() == 0 || dueDate.length() == 0 || status.length() == 0) {
+            result.reject(reader.getLineNumber(), "todos los campos son obligatorios");
+            return null;
+        }
+        LocalDate parsedDate;
+        try {
+            parsedDate = DateUtil.parse(dueDate);
+        } catch (IllegalArgumentException e) {
+            result.reject(reader.getLineNumber(), "fecha no válida '" + dueDate + "', use 'yyyy-MM-dd'");
+            return null;
+        }
+        return new Task(null, description.toString(), parsedDate, status.toString(), null);
+    }
+
+    /**
+     * Escribe un campo, entre comillas si contiene comas, comillas o saltos de línea.
+     */
+    private static void writeField(Writer out, String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean contentEquals(CharSequence value, String expected) {
+        if (value.length() != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toLowerCase(value.charAt(i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resultado de una importación: filas importadas, filas rechazadas y los primeros mensajes de error.
+     */
+    public static class ImportResult {
+        private long imported;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Línea " + line + ": " + reason);
+            }
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Obtiene los mensajes de error, limitados a los primeros {@link #MAX_REPORTED_ERRORS}.
+         *
+         * @return la lista de mensajes de error.
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+    }
+}
@@ -1,17 +1,102 @@
 package model;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Clase que maneja el acceso a la base de datos para las tareas, proporcionando métodos para agregar, actualizar, eliminar y recuperar tareas.
  */
 public class TaskDAO {
-    private static final String URL = "jdbc:mysql://localhost:3307/martinbd";
-    private static final String USUARIO = "root";
-    private static final String CONTRASEÑA = "melmmlam1234*";
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    /**
+     * Margen con el que se vuelven a leer los cambios anteriores al cursor, por si alguno se confirmó tarde.
+     * Se configura con la propiedad {@code tasks.changeOverlapMillis}.
+     */
+    static final long CHANGE_OVERLAP_MILLIS = Long.getLong("tasks.changeOverlapMillis", 60_000);
+    /**
+     * Tiempo máximo de una escritura de tareas, desde que empieza hasta que se confirma: la mitad del margen, para
+     * que ningún cambio se confirme tan tarde que {@link #getChangesSince} ya no lo vuelva a leer.
+     */
+    static final long MAX_WRITE_MILLIS = CHANGE_OVERLAP_MILLIS / 2;
+    /**
+     * Tamaños de las listas {@code IN (?, ...)}: las listas se rellenan hasta el siguiente tamaño y las más largas se
+     * parten, de modo que solo hay tres textos de SQL distintos y no llenan la caché de sentencias del pool.
+     */
+    private static final int[] IN_LIST_SIZES = {8, 32, 200};
+    private static final int WRITE_TIMEOUT_SECONDS = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(MAX_WRITE_MILLIS));
+
+    /** Columnas que leen las consultas de tareas, en este orden. */
+    static final Projection TASK_COLUMNS =
+            new Projection("id", "descripcion", "fecha_vencimiento", "estado", "version", "project_id");
+    private static final String SELECT_TASKS = "SELECT " + TASK_COLUMNS + " FROM tareas";
+    private static final int ID = TASK_COLUMNS.index("id");
+    private static final int DESCRIPTION = TASK_COLUMNS.index("descripcion");
+    private static final int DUE_DATE = TASK_COLUMNS.index("fecha_vencimiento");
+    private static final int STATUS = TASK_COLUMNS.index("estado");
+    private static final int VERSION = TASK_COLUMNS.index("version");
+    private static final int PROJECT_ID = TASK_COLUMNS.index("project_id");
+
+    /**
+     * Construye una tarea a partir de la fila actual de una consulta sobre {@link #TASK_COLUMNS}.
+     */
+    static final RowMapper<Task> TASK_MAPPER = resultSet -> {
+        long projectId = resultSet.getLong(PROJECT_ID);
+        Long project = resultSet.wasNull() ? null : projectId;
+        Task task = new Task(resultSet.getLong(ID), resultSet.getString(DESCRIPTION),
+                resultSet.getDate(DUE_DATE).toLocalDate(), resultSet.getString(STATUS), project);
+        task.setVersion(resultSet.getLong(VERSION));
+        return task;
+    };
+
+    private static final String INSERT_QUERY =
+            "INSERT INTO tareas (descripcion, fecha_vencimiento, estado, project_id) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_QUERY = "UPDATE tareas SET descripcion = ?, fecha_vencimiento = ?, estado = ?, "
+            + "project_id = ?, fecha_actualizacion = CURRENT_TIMESTAMP(3), version = version + 1 WHERE id = ?";
+    private static final String CONDITIONAL_UPDATE_QUERY = UPDATE_QUERY + " AND version = ?";
+    private static final String DELETE_QUERY = "DELETE FROM tareas WHERE id = ?";
+    /** Guarda la marca de borrado; si dos clientes borran a la vez la misma tarea, el segundo solo la actualiza. */
+    static final String TOMBSTONE_QUERY =
+            "INSERT INTO tareas_eliminadas (id, fecha_eliminacion) SELECT id, CURRENT_TIMESTAMP(3) FROM tareas WHERE id = ? "
+            + "ON DUPLICATE KEY UPDATE fecha_eliminacion = CURRENT_TIMESTAMP(3)";
+
+    private final DataSource dataSource;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile TaskCache cache;
+
+    /**
+     * Crea el DAO usando el pool de conexiones compartido de la aplicación.
+     */
+    public TaskDAO() {
+        this(ConexionJDBC.getDataSource());
+    }
+
+    /**
+     * Crea el DAO sobre el origen de datos indicado.
+     *
+     * @param dataSource El origen de datos del que se obtienen las conexiones para las tareas.
+     */
+    public TaskDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
 
     /**
      * Agrega una nueva tarea a la base de datos.
@@ -21,17 +106,16 @@ public class TaskDAO {
      * @throws SQLException Si ocurre un error durante la operación de base de datos.
      */
     public boolean addTask(Task task) throws SQLException {
-        String query = "INSERT INTO tareas (descripcion, fecha_vencimiento, estado) VALUES (?, ?, ?)";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
-             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, task.getDescription());
-            statement.setDate(2, Date.valueOf(task.getDueDate()));
-            statement.setString(3, task.getStatus());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setQueryTimeout(WRITE_TIMEOUT_SECONDS);
+            bindInsert(statement, task);
             int affectedRows = statement.executeUpdate();
             if (affectedRows > 0) {
                 try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         task.setId(generatedKeys.getLong(1));
+                        fireSaved(task);
                         return true;
                     }
                 }
@@ -41,56 +125,196 @@ public class TaskDAO {
     }
 
     /**
-     * Actualiza una tarea existente en la base de datos.
+     * Actualiza una tarea existente en la base de datos, sobrescribiendo cualquier cambio concurrente.
+     * La versión de la fila se incrementa y la tarea recibe la nueva, leída en la misma transacción, aunque la suya
+     * estuviera desfasada; para detectar ediciones concurrentes debe usarse {@link #updateTask(Task, long)}.
      * 
      * @param task La tarea con los datos actualizados.
      * @throws SQLException Si ocurre un error durante la operación de base de datos.
      */
     public void updateTask(Task task) throws SQLException {
-        String query = "UPDATE tareas SET descripcion = ?, fecha_vencimiento = ?, estado = ? WHERE id = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
-             PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, task.getDescription());
-            statement.setDate(2, Date.valueOf(task.getDueDate()));
-            statement.setString(3, task.getStatus());
-            statement.setLong(4, task.getId());
-            statement.executeUpdate();
+        Long version = null;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long started = System.nanoTime();
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_QUERY)) {
+                statement.setQueryTimeout(WRITE_TIMEOUT_SECONDS);
+                bindUpdate(statement, task);
+                if (statement.executeUpdate() > 0) {
+                    version = readVersions(connection, Collections.singletonList(task)).get(task.getId());
+                }
+                checkWriteDeadline(started);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        if (version != null) {
+            task.setVersion(version);
+            fireSaved(task);
+        } else {
+            invalidateCached(task.getId()); // La fila ya no existe
         }
     }
 
+    /**
+     * Actualiza una tarea solo si nadie la ha modificado desde que se leyó (control de concurrencia optimista).
+     * La comprobación y la escritura se hacen en una única sentencia {@code UPDATE ... WHERE version = ?},
+     * sin leer antes la fila ni bloquearla.
+     *
+     * @param task La tarea con los datos actualizados; si se guarda, recibe la nueva versión.
+     * @param expectedVersion La versión de la tarea cuando se leyó.
+     * @return true si se actualizó; false si la tarea ha cambiado de versión o ya no existe.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public boolean updateTask(Task task, long expectedVersion) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(CONDITIONAL_UPDATE_QUERY)) {
+            statement.setQueryTimeout(WRITE_TIMEOUT_SECONDS);
+            bindUpdate(statement, task);
+            statement.setLong(6, expectedVersion);
+            if (statement.executeUpdate() > 0) {
+                task.setVersion(expectedVersion + 1);
+                fireSaved(task);
+                return true;
+            }
+        }
+        invalidateCached(task.getId()); // La copia en caché puede ser la versión antigua
+        return false;
+    }
+
     /**
      * Elimina una tarea de la base de datos basándose en su ID.
+     * En la misma transacción se guarda una marca de borrado para que otros clientes lo vean en {@link #getChangesSince}.
      * 
      * @param id El ID de la tarea a eliminar.
      * @throws SQLException Si ocurre un error durante la operación de base de datos.
      */
     public void deleteTask(Long id) throws SQLException {
-        String query = "DELETE FROM tareas WHERE id = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
-             PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setLong(1, id);
-            statement.executeUpdate();
+        boolean deleted;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long started = System.nanoTime();
+            try (PreparedStatement tombstone = connection.prepareStatement(TOMBSTONE_QUERY);
+                 PreparedStatement statement = connection.prepareStatement(DELETE_QUERY)) {
+                tombstone.setQueryTimeout(WRITE_TIMEOUT_SECONDS);
+                statement.setQueryTimeout(WRITE_TIMEOUT_SECONDS);
+                tombstone.setLong(1, id);
+                tombstone.executeUpdate();
+                statement.setLong(1, id);
+                deleted = statement.executeUpdate() > 0;
+                checkWriteDeadline(started);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        if (deleted) {
+            fireDeleted(id);
+        } else {
+            invalidateCached(id);
         }
     }
 
+    /**
+     * Agrega varias tareas usando sentencias por lotes. Las tareas se envían en bloques de {@link #getBatchSize()}
+     * filas y cada bloque se confirma en su propia transacción; si un bloque falla se deshace ese bloque,
+     * pero los anteriores quedan confirmados. Cada tarea recibe el id generado por la base de datos.
+     *
+     * @param tasks Las tareas a agregar.
+     * @return El número de tareas agregadas.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public int addTasks(Collection<Task> tasks) throws SQLException {
+        return executeInBatches(null, INSERT_QUERY, true, tasks, this::bindInsert, null, task -> {
+            if (task.getId() != null) {
+                fireSaved(task);
+            }
+        });
+    }
+
+    /**
+     * Actualiza varias tareas usando sentencias por lotes, en bloques confirmados por separado como {@link #addTasks}.
+     * Como {@link #updateTask(Task)}, sobrescribe los cambios concurrentes y cada tarea recibe la versión leída de la
+     * base de datos antes de confirmar su bloque.
+     *
+     * @param tasks Las tareas con los datos actualizados.
+     * @return El número de filas actualizadas que informa el controlador.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public int updateTasks(Collection<Task> tasks) throws SQLException {
+        Map<Long, Long> versions = new HashMap<>();
+        return executeInBatches(null, UPDATE_QUERY, false, tasks, this::bindUpdate,
+                (connection, chunk) -> versions.putAll(readVersions(connection, chunk)), task -> {
+            Long version = versions.get(task.getId());
+            if (version != null) {
+                task.setVersion(version);
+                fireSaved(task);
+            } else {
+                invalidateCached(task.getId()); // La fila ya no existe
+            }
+        });
+    }
+
+    /**
+     * Elimina varias tareas usando sentencias por lotes, en bloques confirmados por separado como {@link #addTasks}.
+     * Cada bloque guarda también las marcas de borrado de sus tareas, como {@link #deleteTask}.
+     *
+     * @param ids Los ids de las tareas a eliminar.
+     * @return El número de filas eliminadas que informa el controlador.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public int deleteTasks(Collection<Long> ids) throws SQLException {
+        return executeInBatches(TOMBSTONE_QUERY, DELETE_QUERY, false, ids, (statement, id) -> statement.setLong(1, id),
+                null, this::fireDeleted);
+    }
+
     /**
      * Recupera una tarea por su ID.
+     * Si hay una caché activa ({@link #enableCache}), se consulta primero y la base de datos solo se lee en caso de fallo.
      * 
      * @param id El ID de la tarea a recuperar.
      * @return La tarea encontrada o null si no existe.
      * @throws SQLException Si ocurre un error durante la operación de base de datos.
      */
     public Task getTaskById(Long id) throws SQLException {
-        String query = "SELECT * FROM tareas WHERE id = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        TaskCache taskCache = cache;
+        long stamp = 0;
+        if (taskCache != null) {
+            Task cached = taskCache.get(id);
+            if (cached != null) {
+                return cached;
+            }
+            stamp = taskCache.beginLoad();
+        }
+        Task task = loadTask(id);
+        if (task != null && taskCache != null) {
+            taskCache.putIfUnchanged(task, stamp);
+        }
+        return task;
+    }
+
+    /**
+     * Lee una tarea de la base de datos, sin pasar por la caché.
+     *
+     * @param id El ID de la tarea a leer.
+     * @return La tarea encontrada o null si no existe.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    protected Task loadTask(Long id) throws SQLException {
+        String query = SELECT_TASKS + " WHERE id = ?";
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, id);
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    String description = resultSet.getString("descripcion");
-                    LocalDate dueDate = resultSet.getDate("fecha_vencimiento").toLocalDate();
-                    String status = resultSet.getString("estado");
-                    return new Task(id, description, dueDate, status, null); // projectId is not handled here
+                    return TASK_MAPPER.mapRow(resultSet);
                 }
             }
         }
@@ -105,20 +329,677 @@ public class TaskDAO {
      */
     public List<Task> getAllTasks() throws SQLException {
         List<Task> tasks = new ArrayList<>();
-        String query = "SELECT * FROM tareas";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        String query = SELECT_TASKS;
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query);
              ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
-                Long id = resultSet.getLong("id");
-                String description = resultSet.getString("descripcion");
-                LocalDate dueDate = resultSet.getDate("fecha_vencimiento").toLocalDate();
-                String status = resultSet.getString("estado");
-                Task task = new Task(id, description, dueDate, status, null);
-                tasks.add(task);
+                tasks.add(TASK_MAPPER.mapRow(resultSet));
             }
         }
         return tasks;
     }
+
+    /**
+     * Recorre todas las tareas con un cursor, entregándolas una a una sin acumularlas en memoria.
+     * El controlador trae las filas en bloques de {@link #getFetchSize()} filas.
+     *
+     * @param consumer La acción a ejecutar sobre cada tarea.
+     * @return El número de tareas procesadas.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public long forEachTask(Consumer<Task> consumer) throws SQLException {
+        String query = SELECT_TASKS + " ORDER BY id";
+        long count = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = prepareCursor(connection, query);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                consumer.accept(TASK_MAPPER.mapRow(resultSet));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Devuelve un flujo perezoso de todas las tareas respaldado por un cursor abierto.
+     * La conexión permanece prestada hasta que se cierra el flujo, por lo que debe usarse con try-with-resources.
+     * Los errores de lectura durante el recorrido se propagan como {@link IllegalStateException} con la
+     * {@link SQLException} original como causa.
+     *
+     * @return Un flujo de tareas ordenado por id que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al abrir el cursor.
+     */
+    public Stream<Task> streamTasks() throws SQLException {
+        String query = SELECT_TASKS + " ORDER BY id";
+        Connection connection = dataSource.getConnection();
+        PreparedStatement statement = null;
+        ResultSet resultSet;
+        try {
+            statement = prepareCursor(connection, query);
+            resultSet = statement.executeQuery();
+        } catch (SQLException e) {
+            if (statement != null) {
+                statement.close();
+            }
+            connection.close();
+            throw e;
+        }
+        PreparedStatement openStatement = statement;
+        Spliterator<Task> spliterator = new Spliterators.AbstractSpliterator<Task>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Task> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(TASK_MAPPER.mapRow(resultSet));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error al leer las tareas de la base de datos.", e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeCursor(resultSet, openStatement, connection));
+    }
+
+    /**
+     * Recupera una página de tareas ordenadas por id usando paginación por clave (keyset):
+     * el filtro {@code id > ?} aprovecha la clave primaria y evita recorrer las filas saltadas como haría OFFSET.
+     *
+     * @param afterId El id de la última tarea de la página anterior, o null para la primera página.
+     * @param limit El número máximo de tareas a devolver.
+     * @return Las tareas de la página, como mucho {@code limit}.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public List<Task> getTasksAfterId(Long afterId, int limit) throws SQLException {
+        String query = SELECT_TASKS + " WHERE id > ? ORDER BY id LIMIT ?";
+        List<Task> tasks = new ArrayList<>(Math.min(limit, 1024));
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, afterId == null ? Long.MIN_VALUE : afterId);
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tasks.add(TASK_MAPPER.mapRow(resultSet));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Recupera las tareas cuyo id está dentro del rango indicado, ordenadas por id.
+     * Permite cargar un bloque de filas conocido por sus ids extremos recorriendo solo ese tramo de la clave primaria.
+     *
+     * @param fromId El id inicial del rango, incluido.
+     * @param toId El id final del rango, incluido.
+     * @return Las tareas existentes dentro del rango.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public List<Task> getTasksInIdRange(long fromId, long toId) throws SQLException {
+        String query = SELECT_TASKS + " WHERE id BETWEEN ? AND ? ORDER BY id";
+        List<Task> tasks = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, fromId);
+            statement.setLong(2, toId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tasks.add(TASK_MAPPER.mapRow(resultSet));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Recupera las tareas de un proyecto, ordenadas por fecha de vencimiento, usando el índice por proyecto.
+     *
+     * @param projectId El id del proyecto.
+     * @return Las tareas del proyecto.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public List<Task> getTasksByProject(long projectId) throws SQLException {
+        String query = SELECT_TASKS + " WHERE project_id = ? ORDER BY fecha_vencimiento, id";
+        List<Task> tasks = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, projectId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tasks.add(TASK_MAPPER.mapRow(resultSet));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Recupera las tareas con los ids indicados, ordenadas por id, con consultas {@code IN} de tamaño fijo
+     * (ver {@link #IN_LIST_SIZES}). Sirve para cargar filas dispersas, como las de un resultado de búsqueda, sin
+     * recorrer los huecos entre ellas.
+     *
+     * @param ids Los ids de las tareas a recuperar.
+     * @return Las tareas que existen de entre las pedidas.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public List<Task> getTasksByIds(long[] ids) throws SQLException {
+        List<Task> tasks = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return tasks;
+        }
+        int maxSize = IN_LIST_SIZES[IN_LIST_SIZES.length - 1];
+        try (Connection connection = dataSource.getConnection()) {
+            for (int from = 0; from < ids.length; from += maxSize) {
+                int count = Math.min(maxSize, ids.length - from);
+                int size = inListSize(count);
+                try (PreparedStatement statement = connection.prepareStatement(
+                        SELECT_TASKS + " WHERE id IN (" + placeholders(size) + ") ORDER BY id")) {
+                    for (int i = 0; i < size; i++) {
+                        // El relleno repite el último id, lo que no cambia el resultado
+                        statement.setLong(i + 1, ids[from + Math.min(i, count - 1)]);
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            tasks.add(TASK_MAPPER.mapRow(resultSet));
+                        }
+                    }
+                }
+            }
+        }
+        if (ids.length > maxSize) {
+            tasks.sort(Comparator.comparing(Task::getId));
+        }
+        return tasks;
+    }
+
+    /**
+     * Obtiene el menor tamaño de {@link #IN_LIST_SIZES} en el que caben {@code count} parámetros.
+     */
+    static int inListSize(int count) {
+        for (int size : IN_LIST_SIZES) {
+            if (count <= size) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Demasiados parámetros para una lista IN: " + count);
+    }
+
+    /**
+     * Lee la versión actual de las tareas indicadas, con la conexión (y la transacción) del llamador.
+     *
+     * @return Las versiones por id; faltan las tareas que ya no existen.
+     */
+    private static Map<Long, Long> readVersions(Connection connection, List<Task> tasks) throws SQLException {
+        Map<Long, Long> versions = new HashMap<>(tasks.size() * 2);
+        int maxSize = IN_LIST_SIZES[IN_LIST_SIZES.length - 1];
+        for (int from = 0; from < tasks.size(); from += maxSize) {
+            int count = Math.min(maxSize, tasks.size() - from);
+            int size = inListSize(count);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, version FROM tareas WHERE id IN (" + placeholders(size) + ")")) {
+                for (int i = 0; i < size; i++) {
+                    statement.setLong(i + 1, tasks.get(from + Math.min(i, count - 1)).getId());
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        versions.put(resultSet.getLong(1), resultSet.getLong(2));
+                    }
+                }
+            }
+        }
+        return versions;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return placeholders.toString();
+    }
+
+    /**
+     * Recupera los ids de todas las tareas en orden ascendente.
+     * Solo lee la clave primaria, por lo que es mucho más ligero que cargar las tareas completas.
+     *
+     * @return Un array ordenado con los ids de todas las tareas.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public long[] getAllTaskIds() throws SQLException {
+        String query = "SELECT id FROM tareas ORDER BY id";
+        long[] ids = new long[1024];
+        int size = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = prepareCursor(connection, query);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = resultSet.getLong(1);
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Recupera una página de tareas ordenadas por fecha de vencimiento y, en caso de empate, por id.
+     * El cursor es el par (fecha, id) de la última tarea de la página anterior; requiere un índice
+     * sobre {@code (fecha_vencimiento, id)} para no recorrer la tabla.
+     *
+     * @param afterDueDate La fecha de vencimiento de la última tarea de la página anterior, o null para la primera página.
+     * @param afterId El id de la última tarea de la página anterior; se ignora si {@code afterDueDate} es null.
+     * @param limit El número máximo de tareas a devolver.
+     * @return Las tareas de la página, como mucho {@code limit}.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public List<Task> getTasksByDueDateAfter(LocalDate afterDueDate, Long afterId, int limit) throws SQLException {
+        List<Task> tasks = new ArrayList<>(Math.min(limit, 1024));
+        String query;
+        if (afterDueDate == null) {
+            query = SELECT_TASKS + " ORDER BY fecha_vencimiento, id LIMIT ?";
+        } else {
+            query = SELECT_TASKS + " WHERE fecha_vencimiento > ? OR (fecha_vencimiento = ? AND id > ?) "
+                    + "ORDER BY fecha_vencimiento, id LIMIT ?";
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            int index = 1;
+            if (afterDueDate != null) {
+                Date date = Date.valueOf(afterDueDate);
+                statement.setDate(index++, date);
+                statement.setDate(index++, date);
+                statement.setLong(index++, afterId == null ? Long.MIN_VALUE : afterId);
+            }
+            statement.setInt(index, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tasks.add(TASK_MAPPER.mapRow(resultSet));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Recupera los cambios de tareas posteriores a un cursor, para sincronizar una copia local sin volver a leer
+     * toda la tabla. Las tareas modificadas se detectan por {@code fecha_actualizacion} y las eliminadas por sus
+     * marcas en {@code tareas_eliminadas}; ambas columnas están indexadas.
+     * <p>
+     * Los cambios de los {@link #CHANGE_OVERLAP_MILLIS} ms anteriores al cursor se devuelven de nuevo, porque una
+     * transacción puede confirmarse después de que otra consulta haya leído su marca de tiempo. Las escrituras que
+     * tardan más de {@link #MAX_WRITE_MILLIS} se deshacen (ver {@link #checkWriteDeadline}), así que ningún cambio
+     * confirmado queda fuera de ese margen. Aplicar un cambio repetido no tiene efecto, así que el receptor no
+     * necesita distinguirlos.
+     *
+     * @param cursor El cursor devuelto por la consulta anterior, o null para empezar: en ese caso no se devuelven
+     *               cambios, solo el cursor inicial.
+     * @return Los cambios y el cursor para la siguiente consulta.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public TaskChanges getChangesSince(Timestamp cursor) throws SQLException {
+        List<Task> saved = new ArrayList<>();
+        long[] deleted = new long[0];
+        Timestamp next;
+        try (Connection connection = dataSource.getConnection()) {
+            // El cursor siguiente es la hora de la base de datos, no la del cliente, leída antes que los cambios
+            try (PreparedStatement statement = connection.prepareStatement("SELECT CURRENT_TIMESTAMP(3)");
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                next = resultSet.getTimestamp(1);
+            }
+            if (cursor == null) {
+                return new TaskChanges(saved, deleted, next);
+            }
+            Timestamp since = new Timestamp(cursor.getTime() - CHANGE_OVERLAP_MILLIS);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    SELECT_TASKS + " WHERE fecha_actualizacion > ? ORDER BY id")) {
+                statement.setTimestamp(1, since);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        saved.add(TASK_MAPPER.mapRow(resultSet));
+                    }
+                }
+            }
+            // Los borrados se leen después: una tarea eliminada entre ambas consultas aparece en las dos listas
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id FROM tareas_eliminadas WHERE fecha_eliminacion > ? ORDER BY id")) {
+                statement.setTimestamp(1, since);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    int size = 0;
+                    deleted = new long[16];
+                    while (resultSet.next()) {
+                        if (size == deleted.length) {
+                            deleted = Arrays.copyOf(deleted, size * 2);
+                        }
+                        deleted[size++] = resultSet.getLong(1);
+                    }
+                    deleted = Arrays.copyOf(deleted, size);
+                }
+            }
+        }
+        return new TaskChanges(saved, deleted, next);
+    }
+
+    /**
+     * Elimina las marcas de borrado anteriores a la fecha indicada. Un cliente cuyo cursor sea anterior a esa fecha
+     * ya no verá esos borrados, por lo que conviene conservarlas bastante más que el intervalo de sincronización.
+     *
+     * @param before La fecha límite; se eliminan las marcas anteriores.
+     * @return El número de marcas eliminadas.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public int purgeTombstones(Timestamp before) throws SQLException {
+        String query = "DELETE FROM tareas_eliminadas WHERE fecha_eliminacion < ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setTimestamp(1, before);
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Obtiene el número de filas que el cursor trae de la base de datos en cada viaje.
+     *
+     * @return El tamaño de bloque del cursor.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Establece el número de filas que el cursor trae de la base de datos en cada viaje.
+     * Con MySQL solo tiene efecto si la URL incluye {@code useCursorFetch=true}.
+     *
+     * @param fetchSize El tamaño de bloque del cursor; debe ser positivo.
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo.");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Obtiene el número de filas que se envían en cada lote de las operaciones masivas.
+     *
+     * @return El tamaño de lote.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Establece el número de filas que se envían en cada lote de las operaciones masivas.
+     * Con MySQL los lotes solo se agrupan en una única sentencia si la URL incluye {@code rewriteBatchedStatements=true}.
+     *
+     * @param batchSize El tamaño de lote; debe ser positivo.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Activa una caché de tareas por id delante de {@link #getTaskById}. La caché se registra como oyente del DAO,
+     * de modo que las altas, ediciones y borrados hechos a través de él la mantienen al día.
+     *
+     * @param taskCache La caché a usar, o null para desactivarla.
+     */
+    public void enableCache(TaskCache taskCache) {
+        TaskCache previous = cache;
+        if (previous != null) {
+            removeTaskChangeListener(previous);
+        }
+        if (taskCache != null) {
+            addTaskChangeListener(taskCache);
+        }
+        cache = taskCache;
+    }
+
+    /**
+     * Obtiene la caché de tareas activa.
+     *
+     * @return la caché, o null si no hay ninguna.
+     */
+    public TaskCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Elimina una tarea de la caché activa, si la hay.
+     *
+     * @param id El id de la tarea.
+     */
+    protected void invalidateCached(Long id) {
+        TaskCache taskCache = cache;
+        if (taskCache != null) {
+            taskCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Avisa a la caché y a los oyentes de tareas modificadas sin pasar por este DAO, como las que quedan sin proyecto
+     * en {@link ProjectDAO#deleteProject}. Las tareas se vuelven a leer de la base de datos; si falla la lectura,
+     * al menos quedan fuera de la caché.
+     *
+     * @param ids Los ids de las tareas modificadas.
+     * @throws SQLException Si ocurre un error al volver a leer las tareas.
+     */
+    void tasksChangedElsewhere(long[] ids) throws SQLException {
+        for (long id : ids) {
+            invalidateCached(id);
+        }
+        for (Task task : getTasksByIds(ids)) {
+            fireSaved(task);
+        }
+    }
+
+    /**
+     * Registra un oyente que recibirá los cambios de tareas confirmados a través de este DAO.
+     *
+     * @param listener El oyente a registrar.
+     */
+    public void addTaskChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Elimina un oyente registrado con {@link #addTaskChangeListener}.
+     *
+     * @param listener El oyente a eliminar.
+     */
+    public void removeTaskChangeListener(TaskChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Avisa a los oyentes de que una tarea se ha guardado. Debe invocarse después de confirmar el cambio.
+     *
+     * @param task La tarea guardada.
+     */
+    protected void fireSaved(Task task) {
+        for (TaskChangeListener listener : listeners) {
+            listener.taskSaved(task);
+        }
+    }
+
+    /**
+     * Avisa a los oyentes de que una tarea se ha eliminado. Debe invocarse después de confirmar el cambio.
+     *
+     * @param id El id de la tarea eliminada.
+     */
+    protected void fireDeleted(Long id) {
+        for (TaskChangeListener listener : listeners) {
+            listener.taskDeleted(id);
+        }
+    }
+
+    /**
+     * Asigna los parámetros de una sentencia para un elemento de un lote.
+     */
+    private interface StatementBinder<T> {
+        void bind(PreparedStatement statement, T item) throws SQLException;
+    }
+
+    /**
+     * Trabajo adicional sobre un bloque ya escrito, en su transacción y antes de confirmarla.
+     */
+    private interface ChunkAction<T> {
+        void apply(Connection connection, List<T> chunk) throws SQLException;
+    }
+
+    /**
+     * Ejecuta una sentencia por lotes sobre todos los elementos, confirmando cada bloque de {@code batchSize} elementos.
+     * Si se indica {@code preQuery}, se ejecuta por lotes con los mismos parámetros antes de la sentencia principal
+     * y en la misma transacción. Si {@code generatedKeys} es true, los elementos deben ser tareas y reciben el id generado.
+     * Si se indica {@code beforeCommit}, se aplica a cada bloque antes de confirmarlo.
+     * Tras confirmar cada bloque se pasa cada uno de sus elementos a {@code committed}.
+     */
+    private <T> int executeInBatches(String preQuery, String query, boolean generatedKeys, Collection<T> items,
+                                     StatementBinder<T> binder, ChunkAction<T> beforeCommit,
+                                     Consumer<? super T> committed) throws SQLException {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        int affected = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement pre = preQuery != null ? connection.prepareStatement(preQuery) : null;
+                 PreparedStatement statement = generatedKeys
+                    ? connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+                    : connection.prepareStatement(query)) {
+                if (pre != null) {
+                    pre.setQueryTimeout(WRITE_TIMEOUT_SECONDS);
+                }
+                statement.setQueryTimeout(WRITE_TIMEOUT_SECONDS);
+                List<T> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+                for (T item : items) {
+                    if (pre != null) {
+                        binder.bind(pre, item);
+                        pre.addBatch();
+                    }
+                    binder.bind(statement, item);
+                    statement.addBatch();
+                    chunk.add(item);
+                    if (chunk.size() == batchSize) {
+                        affected += flushBatch(connection, pre, statement, generatedKeys, chunk, beforeCommit, committed);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    affected += flushBatch(connection, pre, statement, generatedKeys, chunk, beforeCommit, committed);
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        return affected;
+    }
+
+    private <T> int flushBatch(Connection connection, PreparedStatement pre, PreparedStatement statement, boolean generatedKeys,
+                               List<T> chunk, ChunkAction<T> beforeCommit, Consumer<? super T> committed) throws SQLException {
+        long started = System.nanoTime();
+        if (pre != null) {
+            pre.executeBatch();
+        }
+        int[] counts = statement.executeBatch();
+        int affected = 0;
+        if (generatedKeys) {
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                for (T item : chunk) {
+                    if (!keys.next()) {
+                        break;
+                    }
+                    ((Task) item).setId(keys.getLong(1));
+                    affected++;
+                }
+            }
+        } else {
+            for (int count : counts) {
+                // Con lotes reescritos el controlador puede no conocer el recuento de cada fila
+                affected += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        if (beforeCommit != null) {
+            beforeCommit.apply(connection, chunk);
+        }
+        checkWriteDeadline(started);
+        connection.commit();
+        chunk.forEach(committed);
+        chunk.clear();
+        return affected;
+    }
+
+    /**
+     * Comprueba, justo antes de confirmar, que la transacción no ha superado {@link #MAX_WRITE_MILLIS}. Si lo ha
+     * superado debe deshacerse: sus marcas de tiempo podrían quedar fuera del margen de {@link #getChangesSince}.
+     *
+     * @param startNanos El {@link System#nanoTime()} de la primera escritura de la transacción.
+     * @throws SQLTimeoutException Si la transacción ha tardado demasiado.
+     */
+    static void checkWriteDeadline(long startNanos) throws SQLTimeoutException {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (elapsedMillis > MAX_WRITE_MILLIS) {
+            throw new SQLTimeoutException("La escritura tardó " + elapsedMillis + " ms, más del máximo de "
+                    + MAX_WRITE_MILLIS + " ms; se deshace.");
+        }
+    }
+
+    /**
+     * Asigna los parámetros de {@code INSERT_QUERY}: los datos de la tarea.
+     */
+    private void bindInsert(PreparedStatement statement, Task task) throws SQLException {
+        statement.setString(1, task.getDescription());
+        statement.setDate(2, Date.valueOf(task.getDueDate()));
+        statement.setString(3, task.getStatus());
+        if (task.getProjectId() != null) {
+            statement.setLong(4, task.getProjectId());
+        } else {
+            statement.setNull(4, Types.BIGINT);
+        }
+    }
+
+    /**
+     * Asigna los parámetros de {@code UPDATE_QUERY}: los datos de la tarea y su id.
+     */
+    private void bindUpdate(PreparedStatement statement, Task task) throws SQLException {
+        bindInsert(statement, task);
+        statement.setLong(5, task.getId());
+    }
+
+    private PreparedStatement prepareCursor(Connection connection, String query) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    /**
+     * Cierra los recursos de un cursor en orden, intentando cerrar todos aunque alguno falle.
+     */
+    private static void closeCursor(AutoCloseable... resources) {
+        Exception failure = null;
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Error al cerrar el cursor de tareas.", failure);
+        }
+    }
+
     //prueba//
 }
\ No newline at end of file
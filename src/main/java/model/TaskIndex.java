@@ -0,0 +1,355 @@
+package model;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índices secundarios en memoria sobre las tareas: por estado y por fecha de vencimiento.
+ * <p>
+ * Solo guarda los ids y las claves indexadas de cada tarea, así que ocupa poco aunque la tabla sea grande.
+ * El índice por estado es un mapa de estado a ids; el de fechas es un {@link NavigableMap} ordenado por día,
+ * de modo que los rangos (vencidas, vencen esta semana) se resuelven recorriendo solo los días afectados.
+ * Se construye una vez con {@link #load(TaskDAO)} y después se mantiene al día como {@link TaskChangeListener}
+ * del DAO. Los estados se comparan sin distinguir mayúsculas ni espacios sobrantes.
+ */
+public class TaskIndex implements TaskChangeListener {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> byStatus = new HashMap<>();
+    private final NavigableMap<Long, Set<Long>> byDueDay = new TreeMap<>();
+    /** Ids modificados mientras se carga el índice; la carga no debe pisar su versión más reciente. */
+    private Set<Long> changedWhileLoading;
+
+    /**
+     * Carga el índice con todas las tareas del DAO y lo registra como oyente para recibir los cambios posteriores.
+     * El oyente se registra antes de recorrer la tabla, así que los cambios que lleguen durante la carga prevalecen
+     * sobre las filas leídas por el cursor.
+     *
+     * @param taskDAO El DAO de tareas.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public void load(TaskDAO taskDAO) throws SQLException {
+        beginLoad(taskDAO);
+        try {
+            taskDAO.forEachTask(this::loaded);
+        } finally {
+            endLoad();
+        }
+    }
+
+    /**
+     * Vacía el índice y lo registra como oyente del DAO antes de recorrer las tareas.
+     * Permite que {@link TaskController} construya este índice y el de búsqueda con un único recorrido.
+     */
+    void beginLoad(TaskDAO taskDAO) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byStatus.clear();
+            byDueDay.clear();
+            changedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        taskDAO.removeTaskChangeListener(this);
+        taskDAO.addTaskChangeListener(this);
+    }
+
+    /**
+     * Indexa una tarea leída por el cursor, salvo que haya cambiado desde que empezó la carga.
+     */
+    void loaded(Task task) {
+        lock.writeLock().lock();
+        try {
+            if (!changedWhileLoading.contains(task.getId())) {
+                put(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Termina la carga; desde aquí solo cuentan los cambios recibidos como oyente.
+     */
+    void endLoad() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa la tarea, salvo que el índice ya tenga esa versión o una posterior (una lectura desfasada de la
+     * sincronización).
+     */
+    @Override
+    public void taskSaved(Task task) {
+        lock.writeLock().lock();
+        try {
+            Entry held = entries.get(task.getId());
+            if (held != null && task.getVersion() <= held.version) {
+                return;
+            }
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(task.getId());
+            }
+            put(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void taskDeleted(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(id);
+            }
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los ids de las tareas con el estado indicado.
+     *
+     * @param status El estado buscado.
+     * @return Los ids en orden ascendente.
+     */
+    public long[] getIdsByStatus(String status) {
+        lock.readLock().lock();
+        try {
+            return toSortedArray(byStatus.getOrDefault(normalizeStatus(status), Collections.emptySet()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los ids de las tareas que vencen entre dos fechas, ambas incluidas.
+     *
+     * @param from La primera fecha del rango.
+     * @param to La última fecha del rango.
+     * @return Los ids en orden ascendente.
+     */
+    public long[] getIdsDueBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return toSortedArray(collect(byDueDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values(), false));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los ids de las tareas vencidas: las que vencen antes de hoy y no están completadas.
+     *
+     * @param today La fecha de hoy.
+     * @return Los ids en orden ascendente.
+     */
+    public long[] getOverdueIds(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return toSortedArray(collect(byDueDay.headMap(today.toEpochDay(), false).values(), true));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los ids de las tareas que vencen en la semana de la fecha indicada, de lunes a domingo.
+     *
+     * @param today Una fecha de la semana consultada.
+     * @return Los ids en orden ascendente.
+     */
+    public long[] getIdsDueThisWeek(LocalDate today) {
+        LocalDate monday = today.with(DayOfWeek.MONDAY);
+        return getIdsDueBetween(monday, monday.plusDays(6));
+    }
+
+    /**
+     * Obtiene el número de tareas de cada estado, con los estados normalizados en minúsculas.
+     *
+     * @return Un mapa de estado a número de tareas.
+     */
+    public Map<String, Integer> getStatusCounts() {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new TreeMap<>();
+            for (Map.Entry<String, Set<Long>> entry : byStatus.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().size());
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si una tarea tiene el estado indicado.
+     *
+     * @param id El id de la tarea.
+     * @param status El estado buscado.
+     * @return true si la tarea está indexada con ese estado.
+     */
+    public boolean hasStatus(long id, String status) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            return entry != null && entry.status.equals(normalizeStatus(status));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si una tarea está vencida, con el mismo criterio que {@link #getOverdueIds}.
+     *
+     * @param id El id de la tarea.
+     * @param today La fecha de hoy.
+     * @return true si vence antes de hoy y no está completada.
+     */
+    public boolean isOverdue(long id, LocalDate today) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            return entry != null && entry.dueDay != null && entry.dueDay < today.toEpochDay() && !isCompleted(entry.status);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si una tarea vence en la semana de la fecha indicada, con el mismo criterio que {@link #getIdsDueThisWeek}.
+     *
+     * @param id El id de la tarea.
+     * @param today Una fecha de la semana consultada.
+     * @return true si vence entre el lunes y el domingo de esa semana.
+     */
+    public boolean isDueThisWeek(long id, LocalDate today) {
+        long monday = today.with(DayOfWeek.MONDAY).toEpochDay();
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            return entry != null && entry.dueDay != null && entry.dueDay >= monday && entry.dueDay <= monday + 6;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene el número de tareas indexadas.
+     *
+     * @return el número de tareas.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si un estado significa que la tarea está terminada ("Completa", "Completo", "Completada"...).
+     *
+     * @param status El estado de la tarea.
+     * @return true si la tarea está completada.
+     */
+    public static boolean isCompleted(String status) {
+        return normalizeStatus(status).startsWith("complet");
+    }
+
+    private void put(Task task) {
+        remove(task.getId());
+        Entry entry = new Entry(normalizeStatus(task.getStatus()),
+                task.getDueDate() == null ? null : task.getDueDate().toEpochDay(), task.getVersion());
+        entries.put(task.getId(), entry);
+        byStatus.computeIfAbsent(entry.status, key -> new HashSet<>()).add(task.getId());
+        if (entry.dueDay != null) {
+            byDueDay.computeIfAbsent(entry.dueDay, key -> new HashSet<>()).add(task.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        removeFrom(byStatus, previous.status, id);
+        if (previous.dueDay != null) {
+            removeFrom(byDueDay, previous.dueDay, id);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Long>> index, K key, Long id) {
+        Set<Long> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Reúne los ids de varios días; si {@code pendingOnly} es true descarta las tareas completadas.
+     */
+    private Collection<Long> collect(Collection<Set<Long>> days, boolean pendingOnly) {
+        List<Long> result = new ArrayList<>();
+        for (Set<Long> ids : days) {
+            for (Long id : ids) {
+                if (!pendingOnly || !isCompleted(entries.get(id).status)) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        long[] result = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            result[i++] = id;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static String normalizeStatus(String status) {
+        return status == null ? "" : status.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Claves indexadas de una tarea, necesarias para quitarla de los índices cuando cambia, y su versión.
+     */
+    private static final class Entry {
+        private final String status;
+        private final Long dueDay;
+        private final long version;
+
+        Entry(String status, Long dueDay, long version) {
+            this.status = status;
+            this.dueDay = dueDay;
+            this.version = version;
+        }
+    }
+}
@@ -1,18 +1,9 @@
 package model;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Proporciona la interfaz gráfica de usuario para gestionar tareas.
@@ -20,12 +11,15 @@ import java.util.Set;
  */
 public class TaskManagerUI extends JFrame {
 
-    private DefaultTableModel model;
+    private TaskTableModel model;
     private JTable taskTable;
-    private JButton addButton, deleteButton, editButton;
+    private JButton addButton, deleteButton, editButton, projectsButton, cancelButton;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
     private JTextField inputField;
+    private JTextField searchField;
+    private JComboBox<String> filterBox;
     private String currentUser;
-    private UserDAO userDAO;
     private TaskDAO taskDAO;
     private boolean dataLoaded = false;
 
@@ -38,7 +32,6 @@ public class TaskManagerUI extends JFrame {
     public TaskManagerUI(TaskDAO taskDAO, String currentUser) {
         this.currentUser = currentUser;
         this.taskDAO = taskDAO;
-        userDAO = new UserDAO();
         setTitle("Task Manager");
         setSize(800, 600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -48,21 +41,13 @@ public class TaskManagerUI extends JFrame {
     }
 
     /**
-     * Carga los datos de las tareas desde la base de datos y los muestra en la tabla.
+     * Inicia la carga de las tareas en la tabla. El modelo solo lee los ids al principio y carga las filas
+     * visibles a medida que la tabla las necesita.
      */
     private void initTableData() {
         if (dataLoaded) return;
         dataLoaded = true;
-        try {
-            List<Task> tasks = taskDAO.getAllTasks();
-            model.setRowCount(0);
-            for (Task task : tasks) {
-                model.addRow(new Object[]{task.getId(), task.getDescription(), task.getDueDate(), task.getStatus()});
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error al cargar las tareas desde la base de datos.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        model.reload();
     }
 
     /**
@@ -74,6 +59,7 @@ public class TaskManagerUI extends JFrame {
         addButton = new JButton("Add Task");
         deleteButton = new JButton("Delete Task");
         editButton = new JButton("Edit Task");
+        projectsButton = new JButton("Proyectos");
 
         JPanel topPanel = new JPanel();
         topPanel.add(titleLabel);
@@ -81,21 +67,54 @@ public class TaskManagerUI extends JFrame {
         topPanel.add(addButton);
         topPanel.add(deleteButton);
         topPanel.add(editButton);
+        topPanel.add(projectsButton);
+        searchField = new JTextField(15);
+        searchField.setToolTipText("Buscar en las descripciones de las tareas");
+        topPanel.add(new JLabel("Buscar:"));
+        topPanel.add(searchField);
+        filterBox = new JComboBox<>();
+        filterBox.setToolTipText("Mostrar solo las tareas vencidas, las que vencen esta semana o las de un estado");
+        topPanel.add(new JLabel("Mostrar:"));
+        topPanel.add(filterBox);
         add(topPanel, BorderLayout.NORTH);
 
-        model = new NonEditableTableModel(new Object[]{"ID", "Descripción", "Fecha de vencimiento", "Estado"}, 0);
+        model = new TaskTableModel(taskDAO);
         taskTable = new JTable(model);
         JScrollPane scrollPane = new JScrollPane(taskTable);
         add(scrollPane, BorderLayout.CENTER);
+
+        statusLabel = new JLabel(" ");
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
+        cancelButton = new JButton("Cancelar");
+        cancelButton.setEnabled(false);
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusPanel.add(progressBar);
+        statusPanel.add(statusLabel);
+        statusPanel.add(cancelButton);
+        add(statusPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Muestra u oculta el indicador de progreso según el número de operaciones de base de datos en curso.
+     *
+     * @param pending El número de operaciones pendientes.
+     */
+    public void setPendingOperations(int pending) {
+        boolean busy = pending > 0;
+        progressBar.setVisible(busy);
+        cancelButton.setEnabled(busy);
+        statusLabel.setText(busy ? "Operaciones en curso: " + pending : " ");
     }
 
     /**
      * Verifica los permisos del usuario actual para habilitar o deshabilitar funciones.
+     * Usa la caché de permisos compartida con {@link TaskController}.
      */
     private void checkPermissions() {
         try {
-            Set<String> roles = userDAO.getRoles(currentUser);
-            if (!roles.contains("admin")) {
+            if (!PermissionCache.shared().hasPermission(currentUser, Permissions.ADMIN)) {
                 addButton.setEnabled(false);
                 deleteButton.setEnabled(false);
                 editButton.setEnabled(false);
@@ -106,175 +125,62 @@ public class TaskManagerUI extends JFrame {
         }
     }
 
-    /**
-     * Verifica si una tarea existe en la base de datos.
-     *
-     * @param taskId ID de la tarea a verificar.
-     * @return true si la tarea existe, false de lo contrario.
-     */
-    private boolean doesTaskExist(Long taskId) {
-        try (Connection connection = DriverManager.getConnection(ConexionJDBC.URL, ConexionJDBC.USUARIO, ConexionJDBC.CONTRASEÑA)) {
-            String query = "SELECT COUNT(*) FROM tareas WHERE id = ?";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setLong(1, taskId);
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        int count = resultSet.getInt(1);
-                        return count > 0;
-                    }
-                }
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error de conexión a la base de datos.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
-        return false;
+    public JTable getTaskTable() {
+        return taskTable;
     }
 
-    /**
-     * Añade una nueva tarea a la base de datos.
-     *
-     * @param descripcion Descripción de la nueva tarea.
-     * @param fechaVencimiento Fecha de vencimiento de la nueva tarea.
-     * @param estado Estado actual de la nueva tarea.
-     * @param model Modelo de tabla en el que se añadirá la nueva tarea.
-     */
-    private void addTask(String descripcion, String fechaVencimiento, String estado, DefaultTableModel model) {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        try {
-            sdf.parse(fechaVencimiento);
-        } catch (ParseException e) {
-            JOptionPane.showMessageDialog(this, "Formato de fecha inválido. Por favor use YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        try (Connection connection = DriverManager.getConnection(ConexionJDBC.URL, ConexionJDBC.USUARIO, ConexionJDBC.CONTRASEÑA)) {
-            Long nextId = 1L;
-            String maxIdQuery = "SELECT MAX(id) AS max_id FROM tareas";
-            try (PreparedStatement maxIdStatement = connection.prepareStatement(maxIdQuery);
-                 ResultSet resultSet = maxIdStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    nextId = resultSet.getLong("max_id") + 1;
-                }
-            }
+    public JButton getAddButton() {
+        return addButton;
+    }
 
-            String query = "INSERT INTO tareas (id, descripcion, fecha_vencimiento, estado) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-                statement.setLong(1, nextId);
-                statement.setString(2, descripcion);
-                statement.setString(3, fechaVencimiento);
-                statement.setString(4, estado);
-                int affectedRows = statement.executeUpdate();
-                if (affectedRows > 0) {
-                    model.addRow(new Object[]{nextId, descripcion, fechaVencimiento, estado});
-                }
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error de conexión a la base de datos.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+    public JButton getDeleteButton() {
+        return deleteButton;
     }
 
-    /**
-     * Elimina una tarea de la base de datos.
-     *
-     * @param taskId ID de la tarea a eliminar.
-     * @throws SQLException Si ocurre un error de conexión a la base de datos.
-     */
-    private void deleteTask(Long taskId) throws SQLException {
-        try (Connection connection = DriverManager.getConnection(ConexionJDBC.URL, ConexionJDBC.USUARIO, ConexionJDBC.CONTRASEÑA)) {
-            String query = "DELETE FROM tareas WHERE id = ?";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setLong(1, taskId);
-                int rowsAffected = statement.executeUpdate();
-                if (rowsAffected > 0) {
-                    for (int i = 0; i < model.getRowCount(); i++) {
-                        Object value = model.getValueAt(i, 0);
-                        if (value != null && value instanceof Long) {
-                            Long id = (Long) value;
-                            if (id.equals(taskId)) {
-                                model.removeRow(i);
-                                break;
-                            }
-                        }
-                    }
-                    JOptionPane.showMessageDialog(null, "Tarea eliminada correctamente.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(null, "No se encontró la tarea con ID: " + taskId, "Error", JOptionPane.ERROR_MESSAGE);
-                }
-            }
-        }
+    public JButton getEditButton() {
+        return editButton;
+    }
+
+    public JButton getProjectsButton() {
+        return projectsButton;
     }
 
     /**
-     * Edita una tarea existente en la base de datos.
+     * Muestra el panel de proyectos con los recuentos de tareas de cada uno.
      *
-     * @param taskId ID de la tarea a editar.
-     * @param nuevaDescripcion Nueva descripción para la tarea.
-     * @param nuevaFechaVencimiento Nueva fecha de vencimiento para la tarea.
-     * @param nuevoEstado Nuevo estado para la tarea.
-     * @param model Modelo de tabla en el que se actualizarán los datos de la tarea.
-     * @throws SQLException Si ocurre un error de conexión a la base de datos.
+     * @param summaries Los resúmenes de los proyectos, ya calculados por la base de datos.
      */
-    private void editTask(Long taskId, String nuevaDescripcion, String nuevaFechaVencimiento, String nuevoEstado, DefaultTableModel model) {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        try {
-            sdf.parse(nuevaFechaVencimiento);
-        } catch (ParseException e) {
-            JOptionPane.showMessageDialog(null, "Formato de fecha inválido. Por favor use YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
+    public void showProjectDashboard(List<ProjectSummary> summaries) {
+        String[] columns = {"Proyecto", "Pendientes", "Completadas", "Vencidas", "Total"};
+        Object[][] rows = new Object[summaries.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            ProjectSummary summary = summaries.get(i);
+            rows[i] = new Object[] {summary.getProject().getName(), summary.getPending(), summary.getCompleted(),
+                    summary.getOverdue(), summary.getTotal()};
         }
-
-        try (Connection connection = DriverManager.getConnection(ConexionJDBC.URL, ConexionJDBC.USUARIO, ConexionJDBC.CONTRASEÑA)) {
-            String query = "UPDATE tareas SET descripcion = ?, fecha_vencimiento = ?, estado = ? WHERE id = ?";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setString(1, nuevaDescripcion);
-                statement.setString(2, nuevaFechaVencimiento);
-                statement.setString(3, nuevoEstado);
-                statement.setLong(4, taskId);
-                int rowsAffected = statement.executeUpdate();
-
-                if (rowsAffected > 0) {
-                    for (int i = 0; i < model.getRowCount(); i++) {
-                        Object idValue = model.getValueAt(i, 0);
-                        if (idValue != null && idValue instanceof Long) {
-                            Long id = (Long) idValue;
-                            if (id.equals(taskId)) {
-                                model.setValueAt(nuevaDescripcion, i, 1);
-                                model.setValueAt(nuevaFechaVencimiento, i, 2);
-                                model.setValueAt(nuevoEstado, i, 3);
-                                break;
-                            }
-                        }
-                    }
-                    JOptionPane.showMessageDialog(null, "Tarea actualizada correctamente.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(null, "Error al actualizar la tarea.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error de conexión a la base de datos.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    public JTable getTaskTable() {
-        return taskTable;
+        JTable table = new JTable(rows, columns);
+        table.setEnabled(false);
+        JDialog dialog = new JDialog(this, "Proyectos", true);
+        dialog.add(new JScrollPane(table));
+        dialog.setSize(500, 300);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
     }
 
-    public JButton getAddButton() {
-        return addButton;
+    public TaskTableModel getTableModel() {
+        return model;
     }
 
-    public JButton getDeleteButton() {
-        return deleteButton;
+    public JButton getCancelButton() {
+        return cancelButton;
     }
 
-    public JButton getEditButton() {
-        return editButton;
+    public JTextField getSearchField() {
+        return searchField;
     }
 
-    public DefaultTableModel getTableModel() {
-        return model;
+    public JComboBox<String> getFilterBox() {
+        return filterBox;
     }
 
     public JTextField getInputField() {
@@ -285,15 +191,3 @@ public class TaskManagerUI extends JFrame {
         JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
     }
 }
-
-class NonEditableTableModel extends DefaultTableModel {
-    public NonEditableTableModel(Object[] columnNames, int rowCount) {
-        super(columnNames, rowCount);
-    }
-
-    @Override
-    public boolean isCellEditable(int row, int column) {
-        return false;
-    }
-    //prueba//
-}
\ No newline at end of file
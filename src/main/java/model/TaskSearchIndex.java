@@ -0,0 +1,343 @@
+package model;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre las descripciones de las tareas, para buscar sin consultar la base de datos.
+ * <p>
+ * Las descripciones se dividen en palabras, se pasan a minúsculas y se les quitan las tildes y diéresis, de modo
+ * que "revisión" y "REVISION" son la misma palabra. Cada palabra de la consulta se busca como prefijo, lo que
+ * permite buscar mientras se escribe; una tarea coincide si contiene todas las palabras de la consulta.
+ * Los resultados se ordenan con una puntuación TF-IDF en la que una palabra completa pesa más que un prefijo.
+ * <p>
+ * Se construye una vez con {@link #load(TaskDAO)} y después se mantiene al día como {@link TaskChangeListener}.
+ */
+public class TaskSearchIndex implements TaskChangeListener {
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Palabra -> (id de tarea -> número de apariciones), ordenado para resolver prefijos con un rango. */
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    /** Id de tarea -> palabras distintas de su descripción, para quitarla del índice al cambiar. */
+    private final Map<Long, Document> documents = new HashMap<>();
+    /** Ids modificados mientras se carga el índice; la carga no debe pisar su versión más reciente. */
+    private Set<Long> changedWhileLoading;
+
+    /**
+     * Carga el índice con todas las tareas del DAO y lo registra como oyente para recibir los cambios posteriores.
+     * Los cambios que lleguen durante la carga prevalecen sobre las filas leídas por el cursor.
+     *
+     * @param taskDAO El DAO de tareas.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public void load(TaskDAO taskDAO) throws SQLException {
+        beginLoad(taskDAO);
+        try {
+            taskDAO.forEachTask(this::loaded);
+        } finally {
+            endLoad();
+        }
+    }
+
+    /**
+     * Vacía el índice y lo registra como oyente del DAO antes de recorrer las tareas.
+     * Permite que {@link TaskController} construya este índice y el de estados y fechas con un único recorrido.
+     */
+    void beginLoad(TaskDAO taskDAO) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            changedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        taskDAO.removeTaskChangeListener(this);
+        taskDAO.addTaskChangeListener(this);
+    }
+
+    /**
+     * Indexa una tarea leída por el cursor, salvo que haya cambiado desde que empezó la carga.
+     */
+    void loaded(Task task) {
+        List<String> words = tokenize(task.getDescription());
+        lock.writeLock().lock();
+        try {
+            if (!changedWhileLoading.contains(task.getId())) {
+                put(task.getId(), task.getVersion(), words);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Termina la carga; desde aquí solo cuentan los cambios recibidos como oyente.
+     */
+    void endLoad() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa la descripción de la tarea, salvo que el índice ya tenga esa versión o una posterior (una lectura
+     * desfasada de la sincronización).
+     */
+    @Override
+    public void taskSaved(Task task) {
+        List<String> words = tokenize(task.getDescription());
+        lock.writeLock().lock();
+        try {
+            Document held = documents.get(task.getId());
+            if (held != null && task.getVersion() <= held.version) {
+                return;
+            }
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(task.getId());
+            }
+            put(task.getId(), task.getVersion(), words);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void taskDeleted(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(id);
+            }
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las tareas que contienen todas las palabras de la consulta y las ordena por relevancia.
+     *
+     * @param query El texto buscado.
+     * @param limit El número máximo de resultados.
+     * @return Los ids de las tareas, de más a menos relevante; vacío si la consulta no tiene palabras.
+     */
+    public List<Long> search(String query, int limit) {
+        Map<Long, Double> scores;
+        lock.readLock().lock();
+        try {
+            scores = score(tokenize(query));
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+        });
+        List<Long> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            result.add(ranked.get(i).getKey());
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene todas las tareas que contienen todas las palabras de la consulta, sin ordenar por relevancia.
+     *
+     * @param query El texto buscado.
+     * @return Los ids en orden ascendente; vacío si la consulta no tiene palabras.
+     */
+    public long[] findMatchingIds(String query) {
+        Map<Long, Double> scores;
+        lock.readLock().lock();
+        try {
+            scores = score(tokenize(query));
+        } finally {
+            lock.readLock().unlock();
+        }
+        long[] ids = new long[scores.size()];
+        int i = 0;
+        for (Long id : scores.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Indica si una tarea indexada coincide con la consulta, sin recorrer el resto del índice.
+     *
+     * @param query El texto buscado.
+     * @param id El id de la tarea.
+     * @return true si la descripción de la tarea contiene todas las palabras de la consulta.
+     */
+    public boolean matches(String query, long id) {
+        List<String> tokens = tokenize(query);
+        lock.readLock().lock();
+        try {
+            Document document = documents.get(id);
+            if (document == null || tokens.isEmpty()) {
+                return false;
+            }
+            for (String token : tokens) {
+                boolean found = false;
+                for (String word : document.words) {
+                    if (word.startsWith(token)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene el número de tareas indexadas.
+     *
+     * @return el número de tareas.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Divide un texto en palabras en minúsculas y sin tildes. Las letras y los dígitos forman palabras;
+     * cualquier otro carácter las separa.
+     *
+     * @param text El texto a dividir; puede ser null.
+     * @return Las palabras en el orden en que aparecen.
+     */
+    static List<String> tokenize(CharSequence text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    /**
+     * Puntúa las tareas que contienen todas las palabras de la consulta. Debe llamarse con el bloqueo de lectura.
+     */
+    private Map<Long, Double> score(List<String> tokens) {
+        Map<Long, Double> scores = null;
+        for (String token : new LinkedHashSet<>(tokens)) {
+            Map<Long, Double> tokenScores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Integer>> entry : prefixRange(token).entrySet()) {
+                double weight = entry.getKey().equals(token) ? 1.0 : PREFIX_WEIGHT;
+                double idf = Math.log(1 + (double) documents.size() / entry.getValue().size());
+                for (Map.Entry<Long, Integer> posting : entry.getValue().entrySet()) {
+                    double value = posting.getValue() * idf * weight;
+                    tokenScores.merge(posting.getKey(), value, Math::max);
+                }
+            }
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                }
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        if (scores == null) {
+            return new HashMap<>();
+        }
+        // Las descripciones largas acumulan más palabras; se normaliza para no favorecerlas
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            entry.setValue(entry.getValue() / Math.sqrt(documents.get(entry.getKey()).length));
+        }
+        return scores;
+    }
+
+    private NavigableMap<String, Map<Long, Integer>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void put(Long id, long version, List<String> words) {
+        remove(id);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String word : words) {
+            frequencies.merge(word, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new HashMap<>()).put(id, entry.getValue());
+        }
+        // Las descripciones sin palabras también se guardan, para conservar su versión
+        documents.put(id, new Document(frequencies.keySet().toArray(new String[0]), words.size(), version));
+    }
+
+    private void remove(Long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String word : previous.words) {
+            Map<Long, Integer> ids = postings.get(word);
+            if (ids != null && ids.remove(id) != null && ids.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Palabras distintas de una descripción, su número total de palabras y la versión de la tarea.
+     */
+    private static final class Document {
+        private final String[] words;
+        private final int length;
+        private final long version;
+
+        Document(String[] words, int length, long version) {
+            this.words = words;
+            this.length = length;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package model;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Modelo de tabla de tareas con carga perezosa por ventanas.
+ * Solo mantiene en memoria los ids ordenados de todas las tareas; las filas completas se cargan desde
+ * {@link TaskDAO} en páginas de {@link #PAGE_SIZE} filas cuando la tabla las pide, se precargan las páginas vecinas
+ * y se descartan las menos usadas cuando hay más de {@link #MAX_CACHED_PAGES} páginas de tareas en memoria.
+ * <p>
+ * Las tareas cargadas se guardan por id, no por posición, de modo que insertar, eliminar o modificar una tarea
+ * solo toca su fila ({@link #taskInserted}, {@link #taskRemoved}, {@link #taskUpdated}) sin recargar la tabla.
+ * <p>
+ * Las páginas en curso o fallidas se identifican por el id de su primera fila, que no cambia al insertar o eliminar
+ * otras filas. Si una carga no devuelve alguna de las tareas pedidas (por ejemplo, porque otro cliente la eliminó),
+ * su fila se quita de la tabla en lugar de volver a pedirla.
+ * <p>
+ * Con {@link #showOnly} la tabla muestra solo un subconjunto de ids, por ejemplo el resultado de una búsqueda;
+ * las tareas ya cargadas se conservan y {@link #reload()} vuelve a mostrar todas.
+ * <p>
+ * Todos los métodos públicos deben invocarse desde el hilo de eventos de Swing; las consultas se ejecutan
+ * en un hilo de fondo y sus resultados se aplican de nuevo en el hilo de eventos.
+ */
+public class TaskTableModel extends AbstractTableModel {
+    private static final Logger LOGGER = Logger.getLogger(TaskTableModel.class.getName());
+
+    static final int PAGE_SIZE = 200;
+    static final int MAX_CACHED_PAGES = 30;
+    static final String LOADING = "Cargando...";
+
+    private static final String[] COLUMN_NAMES = {"ID", "Descripción", "Fecha de vencimiento", "Estado"};
+
+    private final TaskDAO taskDAO;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-table-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long[] ids = new long[0];
+    private int size = 0;
+    private final Map<Long, Task> tasks = new LinkedHashMap<Long, Task>(PAGE_SIZE * 4, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Task> eldest) {
+            return size() > PAGE_SIZE * MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Long> pendingPages = new HashSet<>();
+    private final Set<Long> failedPages = new HashSet<>();
+    private int generation = 0;
+    /** Última página pedida por la tabla; sus vecinas solo se revisan al cambiar de página. */
+    private int lastPage = -1;
+    private LongPredicate filter;
+
+    /**
+     * Crea el modelo sobre el DAO de tareas. La tabla está vacía hasta que se invoca {@link #reload()}.
+     *
+     * @param taskDAO El DAO del que se leen las tareas.
+     */
+    public TaskTableModel(TaskDAO taskDAO) {
+        this.taskDAO = taskDAO;
+    }
+
+    /**
+     * Vuelve a leer los ids de las tareas en segundo plano y descarta todas las tareas cargadas.
+     * Si la tabla estaba filtrada con {@link #showOnly}, vuelve a mostrar todas las tareas.
+     */
+    public void reload() {
+        final int requested = ++generation;
+        loader.execute(() -> {
+            try {
+                long[] loaded = taskDAO.getAllTaskIds();
+                SwingUtilities.invokeLater(() -> {
+                    if (requested == generation) {
+                        ids = loaded;
+                        size = loaded.length;
+                        filter = null;
+                        tasks.clear();
+                        pendingPages.clear();
+                        failedPages.clear();
+                        lastPage = -1;
+                        fireTableDataChanged();
+                    }
+                });
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error al cargar los ids de las tareas", e);
+            }
+        });
+    }
+
+    /**
+     * Muestra solo las tareas indicadas, conservando las que ya estaban cargadas.
+     * Mientras el filtro está activo, las tareas insertadas o modificadas se muestran u ocultan según {@code matcher}.
+     *
+     * @param matchingIds Los ids a mostrar, en orden ascendente.
+     * @param matcher Indica si una tarea insertada o modificada debe mostrarse.
+     */
+    public void showOnly(long[] matchingIds, LongPredicate matcher) {
+        generation++;
+        ids = matchingIds.clone();
+        size = ids.length;
+        filter = matcher;
+        pendingPages.clear();
+        failedPages.clear();
+        lastPage = -1;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Indica si la tabla muestra solo un subconjunto de las tareas.
+     *
+     * @return true si hay un filtro activo.
+     */
+    public boolean isFiltered() {
+        return filter != null;
+    }
+
+    /**
+     * Añade una tarea recién creada en la posición que le corresponde por id.
+     * Las tareas nuevas reciben el id más alto, por lo que normalmente se añaden al final.
+     *
+     * @param task La tarea insertada, con su id ya asignado.
+     */
+    public void taskInserted(Task task) {
+        long id = task.getId();
+        if (filter != null && !filter.test(id)) {
+            return;
+        }
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            taskUpdated(task);
+            return;
+        }
+        int row = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(16, size + (size >> 1)));
+        }
+        System.arraycopy(ids, row, ids, row + 1, size - row);
+        ids[row] = id;
+        size++;
+        tasks.put(id, task);
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Sustituye los datos de una tarea ya mostrada y repinta solo su fila.
+     * Si hay un filtro activo, la tarea se añade o se quita según cumpla el filtro con sus datos nuevos.
+     * Se ignora si la fila ya muestra una versión posterior, como cuando la sincronización entrega una lectura
+     * anterior a una edición local. La misma versión sí se aplica: las ediciones de la escritura diferida aún no
+     * han cambiado la versión de la tarea.
+     *
+     * @param task La tarea con los datos actualizados.
+     */
+    public void taskUpdated(Task task) {
+        Task shown = tasks.get(task.getId());
+        if (shown != null && task.getVersion() < shown.getVersion()) {
+            return;
+        }
+        int row = findRow(task.getId());
+        if (filter != null) {
+            boolean matches = filter.test(task.getId());
+            if (row == -1 && matches) {
+                taskInserted(task);
+                return;
+            }
+            if (row != -1 && !matches) {
+                taskRemoved(task.getId());
+                return;
+            }
+        }
+        if (row != -1) {
+            tasks.put(task.getId(), task);
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    /**
+     * Quita de la tabla la fila de una tarea eliminada.
+     *
+     * @param id El id de la tarea eliminada.
+     */
+    public void taskRemoved(Long id) {
+        int row = findRow(id);
+        if (row != -1) {
+            System.arraycopy(ids, row + 1, ids, row, size - row - 1);
+            size--;
+            tasks.remove(id);
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == 0) {
+            return ids[row];
+        }
+        Task task = getTaskAt(row);
+        if (task == null) {
+            return column == 1 ? LOADING : null;
+        }
+        switch (column) {
+            case 1:
+                return task.getDescription();
+            case 2:
+                return task.getDueDate();
+            default:
+                return task.getStatus();
+        }
+    }
+
+    /**
+     * Obtiene el id de la tarea mostrada en la fila indicada. Siempre está disponible, aunque la fila no esté cargada.
+     *
+     * @param row El índice de la fila.
+     * @return El id de la tarea.
+     */
+    public Long getTaskIdAt(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Obtiene la tarea de la fila indicada si está cargada. Si no lo está, solicita la carga de su página y
+     * devuelve null; la tabla se repinta cuando los datos llegan. Las páginas vecinas se precargan al pasar a
+     * otra página, no en cada celda pintada.
+     *
+     * @param row El índice de la fila.
+     * @return La tarea, o null si todavía se está cargando.
+     */
+    public Task getTaskAt(int row) {
+        int page = row / PAGE_SIZE;
+        Task task = tasks.get(ids[row]);
+        if (task == null) {
+            requestPage(page);
+        }
+        if (page != lastPage) {
+            lastPage = page;
+            prefetch(page + 1);
+            prefetch(page - 1);
+        }
+        return task;
+    }
+
+    /**
+     * Busca la fila en la que se muestra una tarea.
+     *
+     * @param id El id de la tarea.
+     * @return El índice de la fila, o -1 si la tarea no está en la tabla.
+     */
+    public int findRow(Long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Detiene el hilo de carga. El modelo deja de cargar páginas nuevas.
+     */
+    public void dispose() {
+        loader.shutdownNow();
+    }
+
+    private void prefetch(int page) {
+        int first = page * PAGE_SIZE;
+        if (page < 0 || first >= size) {
+            return;
+        }
+        int end = Math.min(first + PAGE_SIZE, size);
+        for (int row = first; row < end; row++) {
+            if (!tasks.containsKey(ids[row])) {
+                requestPage(page);
+                return;
+            }
+        }
+    }
+
+    private void requestPage(int page) {
+        final int first = page * PAGE_SIZE;
+        final int last = Math.min(first + PAGE_SIZE, size) - 1;
+        final long fromId = ids[first];
+        if (pendingPages.contains(fromId) || failedPages.contains(fromId) || loader.isShutdown()) {
+            return;
+        }
+        pendingPages.add(fromId);
+        final int requested = generation;
+        final long toId = ids[last];
+        final long[] pageIds = Arrays.copyOfRange(ids, first, last + 1);
+        // Si los ids de la página están dispersos (tabla filtrada o con huecos) se piden uno a uno con IN
+        final boolean sparse = toId - fromId + 1 > 2L * pageIds.length;
+        loader.execute(() -> {
+            try {
+                List<Task> loaded = sparse
+                        ? taskDAO.getTasksByIds(pageIds)
+                        : taskDAO.getTasksInIdRange(fromId, toId);
+                SwingUtilities.invokeLater(() -> {
+                    if (requested == generation) {
+                        pendingPages.remove(fromId);
+                        applyPage(pageIds, loaded);
+                    }
+                });
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error al cargar la página de tareas que empieza en el id " + fromId, e);
+                SwingUtilities.invokeLater(() -> {
+                    if (requested == generation) {
+                        pendingPages.remove(fromId);
+                        failedPages.add(fromId);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Guarda las tareas de una página cargada, quita las filas de las tareas pedidas que ya no existen y repinta
+     * el resto de la página.
+     */
+    private void applyPage(long[] pageIds, List<Task> loaded) {
+        Set<Long> found = new HashSet<>(loaded.size() * 2);
+        for (Task task : loaded) {
+            found.add(task.getId());
+            // Una modificación local posterior a la consulta tiene prioridad sobre los datos leídos
+            tasks.putIfAbsent(task.getId(), task);
+        }
+        for (long id : pageIds) {
+            // Una tarea insertada localmente después de la consulta ya está en el mapa y se conserva
+            if (!found.contains(id) && !tasks.containsKey(id)) {
+                taskRemoved(id);
+            }
+        }
+        int firstRow = findInsertionRow(pageIds[0]);
+        int lastRow = Math.min(findInsertionRow(pageIds[pageIds.length - 1]), size - 1);
+        if (firstRow <= lastRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+
+    /**
+     * Devuelve la fila del id indicado o, si ya no está, la fila en la que se insertaría.
+     */
+    private int findInsertionRow(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,423 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cola de escritura diferida (write-behind) para las ediciones y borrados de tareas.
+ * <p>
+ * Las modificaciones se guardan en memoria por id y se escriben en segundo plano con las operaciones por lotes de
+ * {@link TaskDAO}, cuando se acumulan {@code flushThreshold} tareas o pasa {@code flushIntervalMillis}. Varias
+ * ediciones seguidas de la misma tarea se fusionan en una sola escritura con los últimos datos, y un borrado
+ * descarta las ediciones pendientes de esa tarea; una edición posterior a un borrado pendiente se rechaza. Las altas
+ * no pasan por la cola porque necesitan el id generado.
+ * <p>
+ * Si la cola está llena, quien encola espera hasta {@code maxWaitMillis} a que se libere espacio y después recibe
+ * una {@link RejectedExecutionException}. Un lote que falla se vuelve a encolar y se reintenta sin límite, esperando
+ * cada vez más entre intentos (hasta {@link #MAX_RETRY_DELAY_MILLIS}); mientras la base de datos no responde la cola
+ * se llena y quien encola recibe el rechazo. {@link #close()} escribe todo lo pendiente antes de terminar; también se
+ * ejecuta al apagar la JVM, antes de cerrar el pool (ver {@link ConexionJDBC#addShutdownTask(Runnable)}).
+ */
+public class TaskWriteBehindQueue implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(TaskWriteBehindQueue.class.getName());
+
+    static final int DEFAULT_MAX_PENDING = 1000;
+    static final int DEFAULT_FLUSH_THRESHOLD = 100;
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 500;
+    static final long DEFAULT_MAX_WAIT_MILLIS = 5000;
+    static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final TaskDAO taskDAO;
+    private final int maxPending;
+    private final int flushThreshold;
+    private final long flushIntervalNanos;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushNeeded = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    /** Serializa las escrituras para que un lote nunca adelante a otro anterior. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Map<Long, PendingWrite> pending = new LinkedHashMap<>();
+    private Map<Long, PendingWrite> inFlight = Collections.emptyMap();
+    private boolean closed;
+    private int consecutiveFailures;
+    private final Thread flusher;
+    private final Runnable shutdownTask = this::close;
+    private final CountDownLatch closeFinished = new CountDownLatch(1);
+
+    private long enqueued;
+    private long coalesced;
+    private long flushes;
+    private long writtenUpdates;
+    private long writtenDeletes;
+    private long failedFlushes;
+    private long dropped;
+    private long backPressureWaits;
+
+    /**
+     * Crea la cola con los límites por defecto: 1000 tareas pendientes, escritura cada 100 tareas o cada 500 ms,
+     * y hasta 5 segundos de espera cuando la cola está llena.
+     *
+     * @param taskDAO El DAO con el que se escriben las tareas.
+     */
+    public TaskWriteBehindQueue(TaskDAO taskDAO) {
+        this(taskDAO, DEFAULT_MAX_PENDING, DEFAULT_FLUSH_THRESHOLD, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_WAIT_MILLIS);
+    }
+
+    /**
+     * Crea la cola y arranca su hilo de escritura.
+     *
+     * @param taskDAO El DAO con el que se escriben las tareas.
+     * @param maxPending El número máximo de tareas pendientes antes de aplicar contrapresión.
+     * @param flushThreshold El número de tareas pendientes que provoca una escritura inmediata.
+     * @param flushIntervalMillis El tiempo máximo que una modificación espera en la cola.
+     * @param maxWaitMillis El tiempo máximo que se espera a tener espacio en una cola llena.
+     */
+    public TaskWriteBehindQueue(TaskDAO taskDAO, int maxPending, int flushThreshold, long flushIntervalMillis, long maxWaitMillis) {
+        if (maxPending <= 0 || flushThreshold <= 0) {
+            throw new IllegalArgumentException("Los límites de la cola deben ser positivos.");
+        }
+        this.taskDAO = taskDAO;
+        this.maxPending = maxPending;
+        this.flushThreshold = Math.min(flushThreshold, maxPending);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        flusher = new Thread(this::runFlusher, "task-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        ConexionJDBC.addShutdownTask(shutdownTask);
+    }
+
+    /**
+     * Encola la actualización de una tarea. Se guarda una copia, así que la tarea puede seguir modificándose.
+     *
+     * @param task La tarea con los datos a guardar.
+     * @return false si la tarea está pendiente de borrar y la actualización no se encola.
+     * @throws InterruptedException Si el hilo se interrumpe mientras espera espacio en la cola.
+     * @throws RejectedExecutionException Si la cola sigue llena tras la espera máxima o está cerrada.
+     */
+    public boolean enqueueUpdate(Task task) throws InterruptedException {
+        return enqueue(task.getId(), new PendingWrite(new Task(task)));
+    }
+
+    /**
+     * Encola el borrado de una tarea, descartando sus ediciones pendientes.
+     *
+     * @param id El id de la tarea a eliminar.
+     * @throws InterruptedException Si el hilo se interrumpe mientras espera espacio en la cola.
+     * @throws RejectedExecutionException Si la cola sigue llena tras la espera máxima o está cerrada.
+     */
+    public void enqueueDelete(Long id) throws InterruptedException {
+        enqueue(id, new PendingWrite(null));
+    }
+
+    /**
+     * Lee una tarea teniendo en cuenta las modificaciones que aún no se han escrito.
+     *
+     * @param id El id de la tarea.
+     * @return Una copia de la versión pendiente, la tarea leída del DAO, o null si está pendiente de borrar o no existe.
+     * @throws SQLException Si ocurre un error durante la operación de base de datos.
+     */
+    public Task getTask(Long id) throws SQLException {
+        PendingWrite write;
+        lock.lock();
+        try {
+            write = pending.get(id);
+            if (write == null) {
+                write = inFlight.get(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (write != null) {
+            return write.isDelete() ? null : new Task(write.task);
+        }
+        return taskDAO.getTaskById(id);
+    }
+
+    /**
+     * Escribe ya todas las modificaciones pendientes, en el hilo que llama.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            writeBatch();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Deja de aceptar modificaciones, escribe las pendientes y detiene el hilo de escritura. Si otro hilo ya está
+     * cerrando la cola, espera a que termine. Lo que no se pueda escribir en este último intento se pierde y se
+     * cuenta en {@link #getDroppedCount()}.
+     */
+    @Override
+    public void close() {
+        boolean first;
+        lock.lock();
+        try {
+            first = !closed;
+            closed = true;
+            flushNeeded.signalAll();
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (!first) {
+            awaitClose();
+            return;
+        }
+        try {
+            try {
+                flusher.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + MAX_RETRY_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flush();
+            lock.lock();
+            try {
+                if (!pending.isEmpty()) {
+                    dropped += pending.size();
+                    LOGGER.severe("Se pierden " + pending.size() + " modificaciones de tareas que no se pudieron escribir al cerrar");
+                    pending.clear();
+                }
+            } finally {
+                lock.unlock();
+            }
+            ConexionJDBC.removeShutdownTask(shutdownTask);
+        } finally {
+            closeFinished.countDown();
+        }
+    }
+
+    private void awaitClose() {
+        try {
+            closeFinished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean enqueue(Long id, PendingWrite write) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (!closed && !pending.containsKey(id) && pending.size() >= maxPending) {
+                if (remaining <= 0) {
+                    throw new RejectedExecutionException("La cola de escritura de tareas está llena.");
+                }
+                backPressureWaits++;
+                flushNeeded.signal();
+                remaining = spaceAvailable.awaitNanos(remaining);
+            }
+            if (closed) {
+                throw new RejectedExecutionException("La cola de escritura de tareas está cerrada.");
+            }
+            if (!write.isDelete() && isPendingDelete(id)) {
+                return false; // La tarea ya se va a eliminar
+            }
+            if (pending.containsKey(id)) {
+                coalesced++;
+            }
+            pending.put(id, write);
+            enqueued++;
+            if (pending.size() >= flushThreshold) {
+                flushNeeded.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indica si hay un borrado pendiente o en curso de la tarea. Debe llamarse con {@code lock}.
+     */
+    private boolean isPendingDelete(Long id) {
+        PendingWrite write = pending.get(id);
+        if (write == null) {
+            write = inFlight.get(id);
+        }
+        return write != null && write.isDelete();
+    }
+
+    private void runFlusher() {
+        while (true) {
+            lock.lock();
+            try {
+                if (consecutiveFailures > 0) {
+                    // Tras un fallo se espera aunque la cola esté llena, para no insistir sin pausa
+                    long remaining = retryDelayNanos();
+                    while (!closed && remaining > 0) {
+                        remaining = flushNeeded.awaitNanos(remaining);
+                    }
+                } else {
+                    long remaining = flushIntervalNanos;
+                    while (!closed && pending.size() < flushThreshold && remaining > 0) {
+                        remaining = flushNeeded.awaitNanos(remaining);
+                    }
+                }
+                if (closed) {
+                    return; // close() escribe lo pendiente
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Calcula la espera antes del siguiente reintento: el intervalo de escritura duplicado por cada fallo seguido,
+     * hasta {@link #MAX_RETRY_DELAY_MILLIS}. Debe llamarse con {@code lock}.
+     */
+    private long retryDelayNanos() {
+        long maxDelay = TimeUnit.MILLISECONDS.toNanos(MAX_RETRY_DELAY_MILLIS);
+        int doublings = Math.min(consecutiveFailures - 1, 20);
+        return Math.min(Math.max(flushIntervalNanos, 1) << doublings, maxDelay);
+    }
+
+    /**
+     * Toma todas las modificaciones pendientes y las escribe. Debe llamarse con {@code flushLock}.
+     */
+    private void writeBatch() {
+        Map<Long, PendingWrite> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            inFlight = batch;
+            pending = new LinkedHashMap<>();
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        List<Task> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (Map.Entry<Long, PendingWrite> entry : batch.entrySet()) {
+            if (entry.getValue().isDelete()) {
+                deletes.add(entry.getKey());
+            } else {
+                updates.add(entry.getValue().task);
+            }
+        }
+        boolean failed = false;
+        try {
+            // Las escrituras son idempotentes, así que repetir un lote a medio confirmar es seguro
+            taskDAO.deleteTasks(deletes);
+            taskDAO.updateTasks(updates);
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            LOGGER.log(Level.WARNING, "Error al escribir " + batch.size() + " tareas pendientes; se reintentará", e);
+        }
+        lock.lock();
+        try {
+            flushes++;
+            inFlight = Collections.emptyMap();
+            if (!failed) {
+                consecutiveFailures = 0;
+                writtenDeletes += deletes.size();
+                writtenUpdates += updates.size();
+                return;
+            }
+            failedFlushes++;
+            consecutiveFailures++;
+            for (Map.Entry<Long, PendingWrite> entry : batch.entrySet()) {
+                if (entry.getValue().isDelete() || !pending.containsKey(entry.getKey())) {
+                    // Una edición más reciente de la misma tarea tiene prioridad, salvo sobre un borrado
+                    pending.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el número de tareas pendientes de escribir.
+     *
+     * @return el tamaño de la cola.
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el número de modificaciones que se fusionaron con otra pendiente de la misma tarea.
+     *
+     * @return las escrituras ahorradas por fusión.
+     */
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el número de modificaciones que no se pudieron escribir antes de cerrar la cola.
+     *
+     * @return las modificaciones perdidas.
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return String.format("TaskWriteBehindQueue[pendientes=%d, encoladas=%d, fusionadas=%d, lotes=%d, "
+                            + "actualizadas=%d, eliminadas=%d, lotesFallidos=%d, descartadas=%d, esperasPorCola=%d]",
+                    pending.size() + inFlight.size(), enqueued, coalesced, flushes, writtenUpdates, writtenDeletes,
+                    failedFlushes, dropped, backPressureWaits);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Modificación pendiente de una tarea: su nueva versión, o null si debe eliminarse.
+     */
+    private static final class PendingWrite {
+        private final Task task;
+
+        PendingWrite(Task task) {
+            this.task = task;
+        }
+
+        boolean isDelete() {
+            return task == null;
+        }
+    }
+}
@@ -1,52 +1,225 @@
 package model;
 
-import java.sql.Connection; 
-import java.sql.DriverManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import org.mindrot.jbcrypt.BCrypt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
 
 /**
  * Clase que actualiza las contraseñas de los usuarios en la base de datos.
  * Las contraseñas se recuperan en texto plano y se convierten a hashes seguros utilizando BCrypt.
+ * <p>
+ * Los usuarios se procesan en páginas ordenadas por id. El cálculo de BCrypt de cada página se reparte entre
+ * todos los núcleos y los resultados se escriben con una sentencia por lotes en una transacción. Tras confirmar
+ * cada página se guarda el último id procesado en un archivo de control, de modo que si el proceso se interrumpe
+ * puede reanudarse donde se quedó. Las contraseñas que ya son hashes BCrypt válidos no se tocan.
+ * Los hashes nuevos usan el coste calibrado de {@link PasswordHasher}.
  */
 public class UpdateUserPasswords {
+    static final int PAGE_SIZE = 500;
+    static final Path DEFAULT_CHECKPOINT = Paths.get("update-user-passwords.checkpoint");
+
+    private final DataSource dataSource;
+    private final Path checkpointFile;
+    private final int threads;
+
+    /**
+     * Crea el proceso de migración.
+     *
+     * @param dataSource El origen de datos de los usuarios.
+     * @param checkpointFile El archivo en el que se guarda el progreso.
+     * @param threads El número de hilos que calculan los hashes.
+     */
+    public UpdateUserPasswords(DataSource dataSource, Path checkpointFile, int threads) {
+        this.dataSource = dataSource;
+        this.checkpointFile = checkpointFile;
+        this.threads = threads;
+    }
+
     /**
      * Método principal que ejecuta la actualización de las contraseñas de los usuarios.
-     * Conecta a la base de datos, recupera las contraseñas en texto plano, las hashea y las actualiza en la base de datos.
      *
-     * @param args Argumentos de línea de comandos (no utilizados).
+     * @param args Argumentos de línea de comandos: opcionalmente, la ruta del archivo de control.
      */
     public static void main(String[] args) {
-        String url = "jdbc:mysql://localhost:3307/martinbd";
-        String usuario = "root";
-        String contraseña = "melmmlam1234*";
-
-        try (Connection connection = DriverManager.getConnection(url, usuario, contraseña);
-                PreparedStatement statement = connection.prepareStatement("SELECT id, password FROM usuarios");
-                ResultSet resultSet = statement.executeQuery()) {
-        	
-        	while (resultSet.next()) {
-                 Long userId = resultSet.getLong("id");
-                 String plainPassword = resultSet.getString("password");
-
-                // Hash de la contraseña en texto plano
-                String hashedPassword = BCrypt.hashpw(plainPassword, BCrypt.gensalt());
-
-                // Actualización del registro del usuario con la contraseña hasheada
-                try (PreparedStatement updateStatement = connection.prepareStatement("UPDATE usuarios SET password = ? WHERE id = ?")) {
-                    updateStatement.setString(1, hashedPassword);
-                    updateStatement.setLong(2, userId);
-                    updateStatement.executeUpdate();
+        Path checkpoint = args.length > 0 ? Paths.get(args[0]) : DEFAULT_CHECKPOINT;
+        UpdateUserPasswords job = new UpdateUserPasswords(ConexionJDBC.getDataSource(), checkpoint,
+                Runtime.getRuntime().availableProcessors());
+        try {
+            long updated = job.run();
+            System.out.println("Contraseñas actualizadas correctamente: " + updated);
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Proceso interrumpido; se reanudará desde el último punto de control.");
+        }
+    }
+
+    /**
+     * Ejecuta la migración desde el último punto de control. Al terminar se borra el archivo de control.
+     *
+     * @return El número de contraseñas actualizadas en esta ejecución.
+     * @throws SQLException Si ocurre un error de base de datos.
+     * @throws IOException Si no se puede leer o escribir el archivo de control.
+     * @throws InterruptedException Si el hilo se interrumpe mientras se calculan los hashes.
+     */
+    public long run() throws SQLException, IOException, InterruptedException {
+        ExecutorService hashers = Executors.newFixedThreadPool(threads);
+        PasswordHasher hasher = PasswordHasher.shared();
+        long updated = 0;
+        long skipped = 0;
+        try {
+            long afterId = readCheckpoint();
+            if (afterId > 0) {
+                System.out.println("Reanudando desde el usuario con id " + afterId);
+            }
+            while (true) {
+                Page page = loadPage(afterId);
+                if (page.lastId == afterId) {
+                    break;
                 }
+                skipped += page.alreadyHashed;
+                for (PendingUser user : page.pending) {
+                    user.hash = hashers.submit(() -> hasher.hash(user.plainPassword));
+                }
+                updated += writePage(page.pending);
+                writeCheckpoint(page.lastId);
+                afterId = page.lastId;
+                System.out.println("Procesados hasta el id " + afterId + ": " + updated + " actualizadas, " + skipped + " ya cifradas");
             }
+            Files.deleteIfExists(checkpointFile);
+        } finally {
+            hashers.shutdownNow();
+        }
+        return updated;
+    }
 
-            System.out.println("Contraseñas actualizadas correctamente.");
+    /**
+     * Lee una página de usuarios posteriores a {@code afterId}, separando los que aún tienen la contraseña en texto plano.
+     */
+    private Page loadPage(long afterId) throws SQLException {
+        Page page = new Page(afterId);
+        String query = "SELECT id, password FROM usuarios WHERE id > ? ORDER BY id LIMIT ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, afterId);
+            statement.setInt(2, PAGE_SIZE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    page.lastId = resultSet.getLong("id");
+                    String password = resultSet.getString("password");
+                    if (password == null || PasswordHasher.isBCryptHash(password)) {
+                        page.alreadyHashed++;
+                    } else {
+                        page.pending.add(new PendingUser(page.lastId, password));
+                    }
+                }
+            }
+        }
+        return page;
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
+    /**
+     * Escribe los hashes de una página en una única transacción por lotes. La condición sobre la contraseña
+     * anterior evita sobrescribir una contraseña que se haya cambiado mientras se calculaba el hash.
+     */
+    private long writePage(List<PendingUser> pending) throws SQLException, InterruptedException {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        // Se esperan todos los hashes antes de pedir la conexión para no retenerla mientras se calcula BCrypt
+        List<String> hashes = new ArrayList<>(pending.size());
+        try {
+            for (PendingUser user : pending) {
+                hashes.add(user.hash.get());
+            }
+        } catch (ExecutionException e) {
+            throw new SQLException("Error al calcular el hash de una contraseña.", e.getCause());
+        }
+        long updated = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement updateStatement = connection.prepareStatement(
+                    "UPDATE usuarios SET password = ? WHERE id = ? AND password = ?")) {
+                for (int i = 0; i < pending.size(); i++) {
+                    PendingUser user = pending.get(i);
+                    updateStatement.setString(1, hashes.get(i));
+                    updateStatement.setLong(2, user.id);
+                    updateStatement.setString(3, user.plainPassword);
+                    updateStatement.addBatch();
+                }
+                for (int count : updateStatement.executeBatch()) {
+                    updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        return updated;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        String content = new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim();
+        return content.isEmpty() ? 0 : Long.parseLong(content);
+    }
+
+    /**
+     * Guarda el punto de control escribiendo primero un archivo temporal y moviéndolo después,
+     * para que una interrupción nunca deje el archivo a medio escribir.
+     */
+    private void writeCheckpoint(long lastId) throws IOException {
+        Path absolute = checkpointFile.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        Files.write(temporary, Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Usuarios leídos en una página: los pendientes de hash, cuántos ya estaban cifrados y el último id leído.
+     */
+    private static final class Page {
+        private long lastId;
+        private int alreadyHashed;
+        private final List<PendingUser> pending = new ArrayList<>();
+
+        Page(long afterId) {
+            this.lastId = afterId;
+        }
+    }
+
+    /**
+     * Usuario cuya contraseña en texto plano debe sustituirse por su hash.
+     */
+    private static final class PendingUser {
+        private final long id;
+        private final String plainPassword;
+        private Future<String> hash;
+
+        PendingUser(long id, String plainPassword) {
+            this.id = id;
+            this.plainPassword = plainPassword;
         }
     }
-}
\ No newline at end of file
+}
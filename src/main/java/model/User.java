@@ -1,5 +1,9 @@
 package model;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -7,9 +11,12 @@ import java.util.Set;
 /**
  * Entidad que representa un usuario en el sistema.
  * Cada usuario tiene un identificador único, un nombre de usuario, una contraseña y uno o más roles.
+ * <p>
+ * Los roles se cargan de forma perezosa, en lotes para varios usuarios a la vez, y se guardan en la caché de
+ * segundo nivel; las consultas de listas de usuarios deben traerlos con {@code join fetch} (ver {@link HibernateUserDAO}).
  */
 @Entity
-@Table(name = "users")
+@Table(name = "usuarios")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,13 +25,21 @@ public class User {
     private String username;
     private String password;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
+    /**
+     * Constructor por defecto, requerido por Hibernate.
+     */
+    public User() {
+    }
+
     /**
      * Constructor para crear un nuevo usuario con el identificador, nombre de usuario y contraseña especificados.
      *
@@ -122,6 +137,20 @@ public class User {
         this.roles = roles;
     }
 
+    /**
+     * Obtiene la máscara de {@link Permissions} de los roles de este usuario.
+     * Se calcula en cada llamada; las comprobaciones repetidas deben usar {@link PermissionCache#getPermissions}.
+     *
+     * @return la máscara de permisos del usuario.
+     */
+    public long getPermissions() {
+        long mask = 0;
+        for (Role role : roles) {
+            mask |= Permissions.register(role.getName());
+        }
+        return mask;
+    }
+
     /**
      * Obtiene una representación en cadena de texto de los roles del usuario.
      *
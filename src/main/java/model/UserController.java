@@ -10,6 +10,7 @@ import java.util.List;
 public class UserController {
     private UserDAO userDAO;
     private RoleDAO roleDAO;
+    private AuthenticationService authenticationService;
 
     /**
      * Constructor del controlador de usuarios.
@@ -18,8 +19,20 @@ public class UserController {
      * @param roleDAO El objeto DAO para acceder a los datos de los roles.
      */
     public UserController(UserDAO userDAO, RoleDAO roleDAO) {
+        this(userDAO, roleDAO, null);
+    }
+
+    /**
+     * Constructor del controlador de usuarios con un servicio de autenticación propio.
+     *
+     * @param userDAO El objeto DAO para acceder a los datos de los usuarios.
+     * @param roleDAO El objeto DAO para acceder a los datos de los roles.
+     * @param authenticationService El servicio que verifica las credenciales, o null para usar el compartido.
+     */
+    public UserController(UserDAO userDAO, RoleDAO roleDAO, AuthenticationService authenticationService) {
         this.userDAO = userDAO;
         this.roleDAO = roleDAO;
+        this.authenticationService = authenticationService;
     }
 
     /**
@@ -79,6 +92,8 @@ public class UserController {
 
     /**
      * Autentica a un usuario verificando su nombre de usuario y contraseña.
+     * La verificación pasa por el limitador de intentos y el pool acotado de {@link AuthenticationService};
+     * un intento limitado o rechazado por carga cuenta como fallido.
      *
      * @param username El nombre de usuario.
      * @param password La contraseña del usuario.
@@ -86,11 +101,13 @@ public class UserController {
      * @throws SQLException Si ocurre un error de acceso a la base de datos.
      */
     public boolean authenticateUser(String username, String password) throws SQLException {
-        User user = userDAO.getUserByUsername(username);
-        if (user != null) {
-            return userDAO.checkPassword(user, password);
+        AuthenticationService service = authenticationService != null ? authenticationService : AuthenticationService.shared();
+        try {
+            return service.authenticate(username, password) == AuthenticationService.Result.SUCCESS;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
-        return false;
     }
 
     /**
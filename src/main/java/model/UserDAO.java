@@ -1,53 +1,122 @@
 package model;
 
+import javax.sql.DataSource;
 import java.sql.*; 
 import java.util.Set;
 import javax.swing.JOptionPane;
-import org.mindrot.jbcrypt.BCrypt;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Clase que gestiona toda la autenticación del usuario.
  * Proporciona métodos para autenticar usuarios y añadir nuevos usuarios a la base de datos.
  */
 public class UserDAO {
-    private static final String URL = "jdbc:mysql://localhost:3307/martinbd";
-    private static final String USUARIO = "root";
-    private static final String CONTRASEÑA = "melmmlam1234*";
+    /** Columnas que leen las consultas de usuarios, en este orden. */
+    static final Projection USER_COLUMNS = new Projection("id", "username", "password");
+    private static final int ID = USER_COLUMNS.index("id");
+    private static final int USERNAME = USER_COLUMNS.index("username");
+    private static final int PASSWORD = USER_COLUMNS.index("password");
+    /** Construye un usuario, sin roles, a partir de una consulta sobre {@link #USER_COLUMNS}. */
+    static final RowMapper<User> USER_MAPPER =
+            resultSet -> new User(resultSet.getLong(ID), resultSet.getString(USERNAME), resultSet.getString(PASSWORD));
+    /**
+     * Hilo que recalcula los hashes tras un inicio de sesión, para no sumar un segundo BCrypt a su latencia.
+     * Si la cola está llena el recálculo se descarta; se volverá a intentar en el siguiente inicio de sesión.
+     */
+    private static final ThreadPoolExecutor REHASHER = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(64), r -> {
+                Thread thread = new Thread(r, "password-rehash");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    static {
+        REHASHER.allowCoreThreadTimeOut(true);
+    }
+
+    private final DataSource dataSource;
+    private final PasswordHasher hasher;
+
+    /**
+     * Crea el DAO usando el pool de conexiones compartido de la aplicación.
+     */
+    public UserDAO() {
+        this(ConexionJDBC.getDataSource());
+    }
+
+    /**
+     * Crea el DAO sobre el origen de datos indicado.
+     *
+     * @param dataSource El origen de datos del que se obtienen las conexiones para los usuarios.
+     */
+    public UserDAO(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    /**
+     * Crea el DAO sobre el origen de datos indicado con un hasher de contraseñas concreto.
+     *
+     * @param dataSource El origen de datos del que se obtienen las conexiones para los usuarios.
+     * @param hasher El hasher de contraseñas, o null para usar el compartido por la aplicación.
+     */
+    public UserDAO(DataSource dataSource, PasswordHasher hasher) {
+        this.dataSource = dataSource;
+        this.hasher = hasher;
+    }
    
     /**
      * Autentica a un usuario verificando su nombre de usuario y contraseña.
+     * Si la contraseña es correcta y su hash tiene un coste menor que el mínimo, se recalcula en segundo plano.
      * 
      * @param username El nombre de usuario.
      * @param password La contraseña en texto plano.
      * @return true si las credenciales son correctas, false en caso contrario.
      */
     public boolean authenticate(String username, String password) {
+        try {
+            // La verificación BCrypt se hace con la conexión ya devuelta al pool
+            String storedPassword = getPasswordHash(username);
+            if (storedPassword != null && hasher().verify(password, storedPassword)) {
+                rehashInBackground(username, password, storedPassword);
+                return true;
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(null, "Error de conexión a la base de datos.", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene el hash de contraseña almacenado de un usuario.
+     *
+     * @param username El nombre de usuario.
+     * @return El hash almacenado, o null si el usuario no existe.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public String getPasswordHash(String username) throws SQLException {
         String query = "SELECT password FROM usuarios WHERE username = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, username);
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    String storedPassword = resultSet.getString("password");
-                    return BCrypt.checkpw(password, storedPassword);
+                    return resultSet.getString(1);
                 }
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error de conexión a la base de datos.", "Error", JOptionPane.ERROR_MESSAGE);
         }
-        return false;
+        return null;
     }
 
-
     /**
      * Añade un nuevo usuario a la base de datos.
      * 
@@ -56,9 +125,9 @@ public class UserDAO {
      */
     public void addUser(User user) throws SQLException {
         String query = "INSERT INTO usuarios (username, password) VALUES (?, ?)";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
-            String hashedPassword = BCrypt.hashpw(user.getPassword(), BCrypt.gensalt());
+            String hashedPassword = hasher().hash(user.getPassword());
             statement.setString(1, user.getUsername());
             statement.setString(2, hashedPassword);
             statement.executeUpdate();
@@ -66,15 +135,13 @@ public class UserDAO {
     }
     
     public User getUserByUsername(String username) throws SQLException {
-        String query = "SELECT * FROM usuarios WHERE username = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        String query = "SELECT " + USER_COLUMNS + " FROM usuarios WHERE username = ?";
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, username);
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    Long id = resultSet.getLong("id");
-                    String password = resultSet.getString("password");
-                    return new User(id, username, password);
+                    return USER_MAPPER.mapRow(resultSet);
                 }
             }
         }
@@ -83,25 +150,84 @@ public class UserDAO {
     
     public void updateUser(User user) throws SQLException {
         String query = "UPDATE usuarios SET username = ?, password = ? WHERE id = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, user.getUsername());
             statement.setString(2, user.getPassword());
             statement.setLong(3, user.getId());
             statement.executeUpdate();
         }
+        PermissionCache.notifyUsersChanged();
     }
     
     public void deleteUser(Long id) throws SQLException {
         String query = "DELETE FROM usuarios WHERE id = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, id);
             statement.executeUpdate();
         }
+        PermissionCache.notifyUsersChanged();
     }
     public boolean checkPassword(User user, String password) {
-        return BCrypt.checkpw(password, user.getPassword());
+        return hasher().verify(password, user.getPassword());
+    }
+
+    /**
+     * Calcula el hash de una contraseña en texto plano con el hasher del DAO.
+     *
+     * @param password La contraseña en texto plano.
+     * @return el hash a almacenar.
+     */
+    protected String hashPassword(String password) {
+        return hasher().hash(password);
+    }
+
+    /**
+     * Obtiene el hasher de contraseñas; el compartido se calibra la primera vez que se necesita.
+     */
+    private PasswordHasher hasher() {
+        return hasher != null ? hasher : PasswordHasher.shared();
+    }
+
+    /**
+     * Programa {@link #rehashIfNeeded} en un hilo aparte si el hash lo necesita, sin esperar a que termine.
+     *
+     * @param username El nombre de usuario.
+     * @param password La contraseña en texto plano ya verificada.
+     * @param storedHash El hash almacenado con el que se verificó la contraseña.
+     */
+    public void rehashInBackground(String username, String password, String storedHash) {
+        if (hasher().needsRehash(storedHash)) {
+            REHASHER.execute(() -> rehashIfNeeded(username, password, storedHash));
+        }
+    }
+
+    /**
+     * Recalcula el hash de la contraseña de un usuario recién autenticado si su coste es menor que el mínimo.
+     * La actualización solo se aplica si el hash almacenado no ha cambiado entretanto. Un fallo al guardar el nuevo
+     * hash no impide el inicio de sesión: se volverá a intentar en el siguiente.
+     *
+     * @param username El nombre de usuario.
+     * @param password La contraseña en texto plano ya verificada.
+     * @param storedHash El hash almacenado con el que se verificó la contraseña.
+     * @return true si se guardó un hash nuevo.
+     */
+    public boolean rehashIfNeeded(String username, String password, String storedHash) {
+        if (!hasher().needsRehash(storedHash)) {
+            return false;
+        }
+        String query = "UPDATE usuarios SET password = ? WHERE username = ? AND password = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, hasher().hash(password));
+            statement.setString(2, username);
+            statement.setString(3, storedHash);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
     }
     public Set<String> getRoles(String username) throws SQLException {
         Set<String> roles = new HashSet<>();
@@ -109,12 +235,12 @@ public class UserDAO {
                        "JOIN user_roles ur ON r.id = ur.role_id " +
                        "JOIN usuarios u ON ur.user_id = u.id " +
                        "WHERE u.username = ?";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, username);
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    roles.add(resultSet.getString("name"));
+                    roles.add(resultSet.getString(1));
                 }
             }
         }
@@ -122,15 +248,12 @@ public class UserDAO {
     }
     public List<User> getAllUsers() throws SQLException {
         List<User> users = new ArrayList<>();
-        String query = "SELECT * FROM usuarios";
-        try (Connection connection = DriverManager.getConnection(URL, USUARIO, CONTRASEÑA);
+        String query = "SELECT " + USER_COLUMNS + " FROM usuarios";
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query);
              ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
-                Long id = resultSet.getLong("id");
-                String username = resultSet.getString("username");
-                String password = resultSet.getString("password");
-                users.add(new User(id, username, password));
+                users.add(USER_MAPPER.mapRow(resultSet));
             }
         }
         return users;
@@ -1,7 +1,6 @@
 package model;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -20,12 +19,8 @@ public class VerifyPasswordHashes {
      * @param args Argumentos de línea de comandos (no utilizados).
      */
     public static void main(String[] args) {
-        String url = "jdbc:mysql://localhost:3307/martinbd";
-        String usuario = "root";
-        String contraseña = "melmmlam1234*";
-
         // Conexión a la base de datos y recuperación de hashes de contraseñas
-        try (Connection connection = DriverManager.getConnection(url, usuario, contraseña);
+        try (Connection connection = ConexionJDBC.obtenerConexion();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery("SELECT username, password FROM usuarios")) {
 
@@ -12,13 +12,13 @@ import java.time.LocalDate;
 public class maintask {
     public static void main(String[] args) {
     	// Creación de un nuevo proyecto con identificador, nombre y descripción.
-        Project project = new Project(1, "Gestión de Tareas", "Proyecto para gestionar tareas");
+        Project project = new Project(1L, "Gestión de Tareas", "Proyecto para gestionar tareas");
         // Creación de un usuario con identificador, nombre de usuario y contraseña.
         User user = new User(1L, "usuario1", "password"); // Usar 1L para Long
         // Creación de un usuario sin identificador explícito.
         User userWithoutId = new User("testuser", "password123");
         // Obtención de los identificadores del proyecto y del usuario.
-        Long projectId = Long.valueOf(project.getId()); 
+        Long projectId = project.getId();
         Long userId = user.getId();
         // Salida de los identificadores del usuario y del proyecto.
         System.out.println("ID del usuario: " + userId);
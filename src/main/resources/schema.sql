@@ -0,0 +1,56 @@
+-- Esquema de la aplicación. EmbeddedDatabase lo ejecuta sobre H2 en modo MySQL; también es válido en MySQL.
+-- Los índices se declaran dentro de CREATE TABLE porque MySQL no admite CREATE INDEX IF NOT EXISTS.
+CREATE TABLE IF NOT EXISTS proyectos (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL UNIQUE,
+    descripcion VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS tareas (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    descripcion VARCHAR(255) NOT NULL,
+    fecha_vencimiento DATE NOT NULL,
+    estado VARCHAR(50) NOT NULL,
+    fecha_actualizacion TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    version BIGINT NOT NULL DEFAULT 0,
+    project_id BIGINT,
+    INDEX idx_tareas_vencimiento (fecha_vencimiento, id),
+    INDEX idx_tareas_actualizacion (fecha_actualizacion),
+    -- Cubre las tareas de un proyecto y los recuentos por estado y vencimiento de ProjectDAO.getProjectSummaries
+    INDEX idx_tareas_proyecto (project_id, estado, fecha_vencimiento)
+);
+-- Sin clave foránea: las tareas existentes pueden tener ids de proyecto sin fila en proyectos.
+
+-- Marcas de las tareas eliminadas, para que los clientes sincronicen los borrados (TaskDAO.getChangesSince).
+-- En una base de datos existente:
+--   ALTER TABLE tareas ADD COLUMN fecha_actualizacion TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+--   CREATE INDEX idx_tareas_actualizacion ON tareas (fecha_actualizacion);
+--   ALTER TABLE tareas ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+--   CREATE TABLE proyectos (id BIGINT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(100) NOT NULL UNIQUE,
+--                           descripcion VARCHAR(255));
+--   ALTER TABLE tareas ADD COLUMN project_id BIGINT;
+--   CREATE INDEX idx_tareas_proyecto ON tareas (project_id, estado, fecha_vencimiento);
+CREATE TABLE IF NOT EXISTS tareas_eliminadas (
+    id BIGINT PRIMARY KEY,
+    fecha_eliminacion TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_tareas_eliminadas_fecha (fecha_eliminacion)
+);
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS roles (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    FOREIGN KEY (user_id) REFERENCES usuarios (id) ON DELETE CASCADE,
+    FOREIGN KEY (role_id) REFERENCES roles (id) ON DELETE CASCADE
+);
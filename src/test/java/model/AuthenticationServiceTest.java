@@ -0,0 +1,105 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticationServiceTest {
+
+    private static final PasswordHasher HASHER = new PasswordHasher(4);
+    private static final String HASH = HASHER.hash("password123");
+
+    /**
+     * DAO en memoria con un único usuario; puede bloquear las lecturas hasta que se abra el cerrojo.
+     */
+    private static class FakeUserDAO extends UserDAO {
+        final AtomicInteger lookups = new AtomicInteger();
+        final CountDownLatch release;
+
+        FakeUserDAO(CountDownLatch release) {
+            super(null, HASHER);
+            this.release = release;
+        }
+
+        @Override
+        public String getPasswordHash(String username) {
+            lookups.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "testuser".equals(username) ? HASH : null;
+        }
+
+        @Override
+        public boolean rehashIfNeeded(String username, String password, String storedHash) {
+            return false;
+        }
+    }
+
+    @Test
+    void testRateLimiterRefillsAndResets() {
+        AtomicLong now = new AtomicLong();
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 1000, now::get);
+
+        assertTrue(limiter.tryAcquire("testuser"));
+        assertTrue(limiter.tryAcquire("TestUser"));
+        assertFalse(limiter.tryAcquire("testuser"));
+        assertTrue(limiter.tryAcquire("otheruser"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(limiter.tryAcquire("testuser"));
+        assertFalse(limiter.tryAcquire("testuser"));
+
+        limiter.reset("testuser");
+        assertTrue(limiter.tryAcquire("testuser"));
+    }
+
+    @Test
+    void testThrottledAttemptsSkipVerification() throws Exception {
+        FakeUserDAO dao = new FakeUserDAO(new CountDownLatch(0));
+        AuthenticationService service = new AuthenticationService(dao, HASHER,
+                new LoginRateLimiter(2, 60_000, System::nanoTime), 1, 4);
+        try {
+            assertEquals(AuthenticationService.Result.INVALID_CREDENTIALS, service.authenticate("testuser", "wrong"));
+            assertEquals(AuthenticationService.Result.INVALID_CREDENTIALS, service.authenticate("testuser", "wrong"));
+            assertEquals(AuthenticationService.Result.THROTTLED, service.authenticate("testuser", "password123"));
+            assertEquals(2, dao.lookups.get());
+            assertEquals(1, service.getThrottled());
+            assertEquals(2, service.getFailures());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testFullQueueRejectsAttempts() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FakeUserDAO dao = new FakeUserDAO(release);
+        AuthenticationService service = new AuthenticationService(dao, HASHER, new LoginRateLimiter(), 1, 1);
+        try {
+            CompletableFuture<AuthenticationService.Result> running = service.submit("testuser", "password123");
+            while (dao.lookups.get() == 0) {
+                Thread.sleep(5);
+            }
+            CompletableFuture<AuthenticationService.Result> queued = service.submit("user1", "x");
+            assertEquals(1, service.getQueueDepth());
+            assertEquals(AuthenticationService.Result.BUSY, service.submit("user2", "x").get());
+            assertEquals(1, service.getRejected());
+
+            release.countDown();
+            assertEquals(AuthenticationService.Result.SUCCESS, running.get(5, TimeUnit.SECONDS));
+            assertEquals(AuthenticationService.Result.INVALID_CREDENTIALS, queued.get(5, TimeUnit.SECONDS));
+            assertEquals(1, service.getMaxQueueDepth());
+        } finally {
+            service.shutdown();
+        }
+    }
+}
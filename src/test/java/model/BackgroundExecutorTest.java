@@ -0,0 +1,81 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackgroundExecutorTest {
+
+    private BackgroundExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new BackgroundExecutor(1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testResultDeliveredOnEventDispatchThread() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean onEdt = new AtomicBoolean();
+        AtomicBoolean callOnEdt = new AtomicBoolean(true);
+        AtomicReference<String> result = new AtomicReference<>();
+
+        executor.submit(() -> {
+            callOnEdt.set(SwingUtilities.isEventDispatchThread());
+            return "ok";
+        }, value -> {
+            onEdt.set(SwingUtilities.isEventDispatchThread());
+            result.set(value);
+            done.countDown();
+        }, e -> done.countDown());
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(callOnEdt.get());
+        assertTrue(onEdt.get());
+        assertEquals("ok", result.get());
+    }
+
+    @Test
+    void testErrorDelivered() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Exception> error = new AtomicReference<>();
+
+        executor.submit(() -> {
+            throw new SQLException("fallo");
+        }, value -> done.countDown(), e -> {
+            error.set(e);
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(error.get() instanceof SQLException);
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Exception> rejected = new AtomicReference<>();
+
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS), value -> { }, e -> { });
+        executor.submit(() -> true, value -> { }, e -> { });
+        executor.submit(() -> true, value -> { }, rejected::set);
+
+        assertTrue(rejected.get() instanceof RejectedExecutionException);
+        release.countDown();
+    }
+}
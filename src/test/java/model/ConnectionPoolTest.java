@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private static final String QUERY = "SELECT COUNT(*) FROM tareas WHERE estado = ?";
+
+    private EmbeddedDatabase database;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("connection-pool-test");
+        pool = database.getDataSource();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testStatementsAreReusedAcrossBorrows() throws SQLException {
+        long misses = pool.getStatementCacheMisses();
+        long hits = pool.getStatementCacheHits();
+        ResultSet leftOpen;
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            statement.setString(1, "Pendiente");
+            leftOpen = statement.executeQuery();
+            assertSame(connection, statement.getConnection());
+            assertSame(statement, leftOpen.getStatement());
+        }
+        // La sentencia vuelve a la caché con sus resultados cerrados
+        assertTrue(leftOpen.isClosed());
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(QUERY)) {
+                statement.setString(1, "Completa");
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    assertTrue(resultSet.next());
+                    assertEquals(0, resultSet.getInt(1));
+                }
+            }
+        }
+        assertEquals(misses + 1, pool.getStatementCacheMisses());
+        assertEquals(hits + 3, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void testCachedStatementIsClosedForItsUser() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement first = connection.prepareStatement(QUERY);
+            // Mientras la primera está abierta, la misma consulta recibe una sentencia independiente
+            try (PreparedStatement second = connection.prepareStatement(QUERY)) {
+                assertNotSame(first, second);
+            }
+            first.close();
+            assertTrue(first.isClosed());
+            assertThrows(SQLException.class, () -> first.setString(1, "Pendiente"));
+            // Sin parámetros asignados tras devolverla, la sentencia no puede ejecutarse
+            try (PreparedStatement reused = connection.prepareStatement(QUERY)) {
+                assertThrows(SQLException.class, reused::executeQuery);
+            }
+        }
+    }
+
+    @Test
+    void testStatementCacheCanBeDisabled() throws SQLException {
+        pool.setStatementCacheSize(0);
+        long misses = pool.getStatementCacheMisses();
+        long hits = pool.getStatementCacheHits();
+        try (Connection connection = pool.getConnection()) {
+            for (int i = 0; i < 2; i++) {
+                try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+                    statement.setString(1, "Pendiente");
+                    statement.executeQuery().close();
+                }
+            }
+        }
+        assertEquals(misses, pool.getStatementCacheMisses());
+        assertEquals(hits, pool.getStatementCacheHits());
+    }
+}
@@ -0,0 +1,74 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaoMetricsTest {
+
+    private EmbeddedDatabase database;
+    private MBeanServer server;
+    private DaoMetrics metrics;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("dao-metrics-test");
+        server = MBeanServerFactory.newMBeanServer();
+        metrics = new DaoMetrics(server);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testDatabaseMethodsAreMeasured() throws Exception {
+        TaskDAO taskDAO = metrics.instrument(new TaskDAO(database.getDataSource()));
+        Task task = new Task(null, "Tarea medida", LocalDate.of(2030, 1, 1), "Pendiente", null);
+        assertTrue(taskDAO.addTask(task));
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(taskDAO.getTaskById(task.getId()));
+        }
+        assertThrows(NullPointerException.class, () -> taskDAO.updateTask(new Task(null, "Sin id", null, "Pendiente", null)));
+        taskDAO.getBatchSize(); // No accede a la base de datos: no se mide
+
+        DaoMethodStats byId = metrics.getStats("TaskDAO", "getTaskById(Long)");
+        assertEquals(5, byId.getCalls());
+        assertEquals(0, byId.getErrors());
+        assertTrue(byId.getP50Millis() <= byId.getP99Millis());
+        assertTrue(byId.getP99Millis() <= byId.getMaxMillis());
+        assertEquals(1, metrics.getStats("TaskDAO", "updateTask(Task)").getErrors());
+        assertEquals(3, metrics.getAllStats().size());
+
+        ObjectName name = new ObjectName("model:type=DaoMetrics,dao=TaskDAO,method=" + ObjectName.quote("getTaskById(Long)"));
+        assertEquals(5L, server.getAttribute(name, "Calls"));
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1_000_000);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50_000_000, histogram.getPercentileNanos(0.50), 50_000_000 / 16.0);
+        assertEquals(99_000_000, histogram.getPercentileNanos(0.99), 99_000_000 / 16.0);
+        assertEquals(100_000_000, histogram.getPercentileNanos(1.0));
+        assertEquals(50_500_000, histogram.getMeanNanos(), 1);
+        for (long value : new long[]{0, 15, 16, 17, 1_000_003, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.upperBoundOf(index - 1) < value);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package model;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateDAOTest {
+
+    private EmbeddedDatabase database;
+    private HibernateSupport hibernate;
+    private HibernateTaskDAO taskDAO;
+    private HibernateUserDAO userDAO;
+    private HibernateRoleDAO roleDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("hibernate-dao-test");
+        hibernate = new HibernateSupport(database.getDataSource());
+        taskDAO = new HibernateTaskDAO(hibernate);
+        userDAO = new HibernateUserDAO(hibernate, new PasswordHasher(4));
+        roleDAO = new HibernateRoleDAO(hibernate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hibernate.close();
+        database.close();
+    }
+
+    @Test
+    void testTaskCrudAndVersionConflict() throws SQLException {
+        Task task = new Task(null, "Tarea Hibernate", LocalDate.of(2030, 1, 1), "Pendiente", null);
+        assertTrue(taskDAO.addTask(task));
+        assertNotNull(task.getId());
+
+        Task mine = taskDAO.getTaskById(task.getId());
+        Task theirs = taskDAO.getTaskById(task.getId());
+        theirs.setStatus("En progreso");
+        assertTrue(taskDAO.updateTask(theirs, theirs.getVersion()));
+        assertEquals(1, theirs.getVersion());
+
+        mine.setStatus("Completa");
+        assertFalse(taskDAO.updateTask(mine, mine.getVersion()));
+        assertEquals("En progreso", taskDAO.getTaskById(task.getId()).getStatus());
+
+        // La actualización hecha por Hibernate también queda registrada para la sincronización
+        TaskChanges start = taskDAO.getChangesSince(null);
+        Project project = new Project("Proyecto", null);
+        new ProjectDAO(database.getDataSource()).addProject(project);
+        Task current = taskDAO.getTaskById(task.getId());
+        current.setDescription("Tarea editada");
+        current.setProjectId(project.getId());
+        assertTrue(taskDAO.updateTask(current, current.getVersion()));
+        List<Task> saved = taskDAO.getChangesSince(start.getCursor()).getSavedTasks();
+        assertEquals(1, saved.size());
+        assertEquals("Tarea editada", saved.get(0).getDescription());
+        assertEquals("En progreso", saved.get(0).getStatus());
+        assertEquals(project.getId(), saved.get(0).getProjectId());
+
+        taskDAO.deleteTask(task.getId());
+        assertNull(taskDAO.getTaskById(task.getId()));
+        assertArrayEquals(new long[]{task.getId()}, taskDAO.getChangesSince(start.getCursor()).getDeletedIds());
+    }
+
+    @Test
+    void testUsersAreListedWithRolesInOneQuery() throws SQLException {
+        Role admin = new Role("admin");
+        Role user = new Role("user");
+        roleDAO.addRole(admin);
+        roleDAO.addRole(user);
+        for (String name : Arrays.asList("ana", "luis", "marta")) {
+            User created = new User(name, "secreto");
+            userDAO.addUser(created);
+            roleDAO.assignRoleToUser(created.getId(), user.getId());
+        }
+        roleDAO.assignRoleToUser(userDAO.getUserByUsername("ana").getId(), admin.getId());
+
+        Statistics statistics = hibernate.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        List<User> users = userDAO.getAllUsers();
+        assertEquals(3, users.size());
+        assertEquals(new HashSet<>(Arrays.asList("admin", "user")), new HashSet<>(Arrays.asList(users.get(0).getRole().split(", "))));
+        assertEquals("user", users.get(2).getRole());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(userDAO.authenticate("luis", "secreto"));
+    }
+
+    @Test
+    void testRoleLookupsUseSecondLevelCache() throws SQLException {
+        Role admin = new Role("admin");
+        roleDAO.addRole(admin);
+        User created = new User("ana", "secreto");
+        userDAO.addUser(created);
+        roleDAO.assignRoleToUser(created.getId(), admin.getId());
+
+        assertEquals(new HashSet<>(Arrays.asList("admin")), userDAO.getRoles("ana"));
+        assertEquals(new HashSet<>(Arrays.asList("admin")), roleDAO.getUserRoles(created.getId()));
+
+        Statistics statistics = hibernate.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        assertEquals(new HashSet<>(Arrays.asList("admin")), userDAO.getRoles("ana"));
+        assertNotNull(roleDAO.getRoleByName("admin"));
+        assertNotNull(roleDAO.getRoleByName("admin"));
+        assertEquals(new HashSet<>(Arrays.asList("admin")), roleDAO.getUserRoles(created.getId()));
+        // Solo la primera búsqueda por nombre y la lectura del usuario van a la base de datos
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        Role user = new Role("user");
+        roleDAO.addRole(user);
+        roleDAO.assignRoleToUser(created.getId(), user.getId());
+        assertEquals(new HashSet<>(Arrays.asList("admin", "user")), userDAO.getRoles("ana"));
+        assertEquals(new HashSet<>(Arrays.asList("admin", "user")), roleDAO.getUserRoles(created.getId()));
+    }
+}
@@ -0,0 +1,36 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    @Test
+    void testRejectsOnceAttemptsAreUsed() {
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 60_000, () -> 0L);
+
+        assertTrue(limiter.tryAcquire("Ana"));
+        assertTrue(limiter.tryAcquire(" ana "));
+        assertFalse(limiter.tryAcquire("ANA"));
+        limiter.reset("ana");
+        assertTrue(limiter.tryAcquire("ana"));
+    }
+
+    @Test
+    void testSprayingKeepsStripesBoundedAndRecentUsers() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 60_000, () -> 0L);
+        assertTrue(limiter.tryAcquire("victima"));
+
+        int total = LoginRateLimiter.STRIPES * LoginRateLimiter.MAX_BUCKETS_PER_STRIPE * 2;
+        for (int i = 0; i < total; i++) {
+            limiter.tryAcquire("usuario" + i);
+            if (i % 100 == 0) {
+                // El usuario atacado sigue intentándolo y conserva su cubeta vacía
+                assertFalse(limiter.tryAcquire("victima"));
+            }
+        }
+
+        assertTrue(limiter.bucketCount() <= LoginRateLimiter.STRIPES * LoginRateLimiter.MAX_BUCKETS_PER_STRIPE);
+    }
+}
@@ -0,0 +1,40 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    @Test
+    void testHashAndVerify() {
+        PasswordHasher hasher = new PasswordHasher(4);
+        String hash = hasher.hash("password123");
+
+        assertTrue(PasswordHasher.isBCryptHash(hash));
+        assertEquals(4, PasswordHasher.costOf(hash));
+        assertTrue(hasher.verify("password123", hash));
+        assertFalse(hasher.verify("wrongpassword", hash));
+        assertFalse(hasher.verify("password123", "password123"));
+    }
+
+    @Test
+    void testNeedsRehashOnlyBelowMinimumCost() {
+        String hash = new PasswordHasher(4).hash("password123");
+
+        assertFalse(new PasswordHasher(4).needsRehash(hash));
+        assertTrue(new PasswordHasher(5).needsRehash(hash));
+        assertTrue(new PasswordHasher(5).needsRehash("password123"));
+        // Un equipo que calibra un coste menor no rebaja los hashes de coste mayor
+        String stronger = new PasswordHasher(6).hash("password123");
+        assertFalse(new PasswordHasher(5).needsRehash(stronger));
+        assertFalse(new PasswordHasher(6, 4).needsRehash(hash));
+    }
+
+    @Test
+    void testCalibrateStaysWithinBounds() {
+        assertEquals(PasswordHasher.MIN_COST, PasswordHasher.calibrate(0));
+        int cost = PasswordHasher.calibrate(PasswordHasher.DEFAULT_TARGET_MILLIS);
+        assertTrue(cost >= PasswordHasher.MIN_COST && cost <= PasswordHasher.MAX_COST);
+    }
+}
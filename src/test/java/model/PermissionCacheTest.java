@@ -0,0 +1,89 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionCacheTest {
+
+    /**
+     * DAO que cuenta las consultas de roles en lugar de acceder a la base de datos.
+     */
+    private static class CountingUserDAO extends UserDAO {
+        int queries = 0;
+
+        CountingUserDAO() {
+            super(null);
+        }
+
+        @Override
+        public Set<String> getRoles(String username) {
+            queries++;
+            return "admin".equals(username) ? Collections.singleton("admin") : Collections.emptySet();
+        }
+    }
+
+    private CountingUserDAO userDAO;
+
+    @BeforeEach
+    void setUp() {
+        userDAO = new CountingUserDAO();
+    }
+
+    @Test
+    void testRolesAreCached() throws SQLException {
+        PermissionCache cache = new PermissionCache(userDAO, 60000);
+
+        assertTrue(cache.hasRole("admin", "admin"));
+        assertTrue(cache.hasRole("admin", "admin"));
+        assertFalse(cache.hasRole("testuser", "admin"));
+        assertEquals(2, userDAO.queries);
+    }
+
+    @Test
+    void testInvalidateForcesReload() throws SQLException {
+        PermissionCache cache = new PermissionCache(userDAO, 60000);
+
+        cache.getRoles("admin");
+        cache.invalidate("admin");
+        cache.getRoles("admin");
+        cache.invalidateAll();
+        cache.getRoles("admin");
+        assertEquals(3, userDAO.queries);
+    }
+
+    @Test
+    void testPermissionMaskMatchesRoles() throws SQLException {
+        PermissionCache cache = new PermissionCache(userDAO, 60000);
+
+        assertEquals(Permissions.ADMIN, cache.getPermissions("admin"));
+        assertTrue(cache.hasPermission("admin", Permissions.ADMIN));
+        assertFalse(cache.hasPermission("testuser", Permissions.ADMIN));
+        assertEquals(0, cache.getPermissions("testuser"));
+        assertEquals(2, userDAO.queries);
+
+        long editor = Permissions.register("editor");
+        assertEquals(editor, Permissions.bit("editor"));
+        assertNotEquals(Permissions.ADMIN, editor);
+        assertTrue(Permissions.includes(Permissions.ADMIN | editor, editor));
+        assertFalse(cache.hasPermission("admin", Permissions.ADMIN | editor));
+
+        // Comprobar un rol desconocido no lo registra
+        assertFalse(cache.hasRole("admin", "desconocido"));
+        assertEquals(0, Permissions.bit("desconocido"));
+    }
+
+    @Test
+    void testExpiredEntriesAreReloaded() throws SQLException {
+        PermissionCache cache = new PermissionCache(userDAO, 0);
+
+        cache.getRoles("admin");
+        cache.getRoles("admin");
+        assertEquals(2, userDAO.queries);
+    }
+}
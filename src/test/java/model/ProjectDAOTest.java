@@ -0,0 +1,113 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectDAOTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 15);
+
+    private EmbeddedDatabase database;
+    private ProjectDAO projectDAO;
+    private TaskDAO taskDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("project-dao-test");
+        taskDAO = new TaskDAO(database.getDataSource());
+        projectDAO = new ProjectDAO(database.getDataSource(), taskDAO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testProjectCrudKeepsTasks() throws SQLException {
+        Project project = new Project("Informes", "Informes mensuales");
+        assertTrue(projectDAO.addProject(project));
+        assertNotNull(project.getId());
+
+        Task task = new Task(null, "Informe de junio", TODAY, "Pendiente", project.getId());
+        taskDAO.addTask(task);
+        assertEquals(project.getId(), taskDAO.getTaskById(task.getId()).getProjectId());
+        assertEquals(1, taskDAO.getTasksByProject(project.getId()).size());
+
+        project.setName("Informes 2030");
+        assertTrue(projectDAO.updateProject(project));
+        assertEquals("Informes 2030", projectDAO.getProjectById(project.getId()).getName());
+
+        // Al eliminar el proyecto sus tareas se conservan sin proyecto
+        assertTrue(projectDAO.deleteProject(project.getId()));
+        assertNull(projectDAO.getProjectById(project.getId()));
+        assertNull(taskDAO.getTaskById(task.getId()).getProjectId());
+    }
+
+    @Test
+    void testDeleteProjectUpdatesCachedTasks() throws SQLException {
+        taskDAO.enableCache(new TaskCache());
+        Project project = new Project("Migración", null);
+        projectDAO.addProject(project);
+        Task task = new Task(null, "Copiar datos", TODAY, "Pendiente", project.getId());
+        taskDAO.addTask(task);
+        assertEquals(project.getId(), taskDAO.getTaskById(task.getId()).getProjectId()); // Queda en caché
+        List<Task> saved = new ArrayList<>();
+        taskDAO.addTaskChangeListener(new TaskChangeListener() {
+            @Override
+            public void taskSaved(Task changed) {
+                saved.add(changed);
+            }
+
+            @Override
+            public void taskDeleted(Long id) {
+            }
+        });
+
+        assertTrue(projectDAO.deleteProject(project.getId()));
+        assertNull(taskDAO.getTaskById(task.getId()).getProjectId());
+        assertEquals(1, saved.size());
+        assertNull(saved.get(0).getProjectId());
+        assertEquals(1, saved.get(0).getVersion());
+    }
+
+    @Test
+    void testProjectSummariesAreAggregatedPerProject() throws SQLException {
+        Project web = new Project("Web", null);
+        Project app = new Project("App", null);
+        Project empty = new Project("Vacío", null);
+        for (Project project : Arrays.asList(web, app, empty)) {
+            projectDAO.addProject(project);
+        }
+        taskDAO.addTasks(Arrays.asList(
+                new Task(null, "Vencida", TODAY.minusDays(1), "Pendiente", web.getId()),
+                new Task(null, "Completada vencida", TODAY.minusDays(3), "Completa", web.getId()),
+                new Task(null, "Para hoy", TODAY, " en progreso ", web.getId()),
+                new Task(null, "Terminada", TODAY.plusDays(2), "completado", app.getId()),
+                new Task(null, "Sin proyecto", TODAY.minusDays(5), "Pendiente", null)));
+
+        List<ProjectSummary> summaries = projectDAO.getProjectSummaries(TODAY);
+
+        assertEquals(3, summaries.size());
+        assertSummary(summaries.get(0), "App", 0, 1, 0);
+        assertSummary(summaries.get(1), "Vacío", 0, 0, 0);
+        assertSummary(summaries.get(2), "Web", 2, 1, 1);
+        assertEquals(3, summaries.get(2).getTotal());
+    }
+
+    private static void assertSummary(ProjectSummary summary, String name, int pending, int completed, int overdue) {
+        assertEquals(name, summary.getProject().getName());
+        assertEquals(pending, summary.getPending());
+        assertEquals(completed, summary.getCompleted());
+        assertEquals(overdue, summary.getOverdue());
+    }
+}
@@ -0,0 +1,92 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    private EmbeddedDatabase database;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = EmbeddedDatabase.create("slow-query-log-test");
+        pool = database.getDataSource();
+        pool.setSlowQueryThresholdMillis(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testExecutionsAreGroupedByFingerprint() throws SQLException {
+        TaskDAO taskDAO = new TaskDAO(pool);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(taskDAO.addTask(new Task(null, "Tarea " + i, LocalDate.of(2030, 1, 1), "Pendiente", null)));
+        }
+        List<Task> tasks = taskDAO.getAllTasks();
+        long[] ids = {tasks.get(0).getId(), tasks.get(1).getId(), tasks.get(2).getId()};
+        assertEquals(3, taskDAO.getTasksByIds(ids).size());
+        assertEquals(2, taskDAO.getTasksByIds(new long[]{ids[0], ids[1]}).size());
+
+        SlowQueryLog log = pool.getSlowQueryLog();
+        QueryStats byIds = log.getSlowest(100).stream()
+                .filter(stats -> stats.getFingerprint().contains("IN (?, ...)"))
+                .findFirst().orElseThrow(AssertionError::new);
+        // Las dos listas IN de distinta longitud comparten huella
+        assertEquals(2, byIds.getExecutions());
+        assertEquals(2, byIds.getSlowExecutions());
+        // Las listas IN se rellenan hasta un tamaño fijo
+        assertEquals("[1-8:Long]", byIds.getSlowestParameters());
+        assertTrue(byIds.getSlowestRows() == 2 || byIds.getSlowestRows() == 3);
+
+        QueryStats all = log.getSlowest(100).stream()
+                .filter(stats -> stats.getFingerprint().startsWith("SELECT") && stats.getFingerprint().endsWith("FROM tareas"))
+                .findFirst().orElseThrow(AssertionError::new);
+        assertEquals(1, all.getExecutions());
+        assertEquals(3, all.getSlowestRows());
+        assertEquals("[]", all.getSlowestParameters());
+        assertTrue(log.getSlowest(1).get(0).getMaxMillis() >= all.getMaxMillis());
+    }
+
+    @Test
+    void testPlainStatementBatchIsRecorded() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.addBatch("INSERT INTO proyectos (nombre) VALUES ('Uno')");
+            statement.addBatch("INSERT INTO proyectos (nombre) VALUES ('Dos')");
+            assertEquals(2, statement.executeBatch().length);
+            statement.addBatch("INSERT INTO proyectos (nombre) VALUES ('Tres')");
+            statement.addBatch("DELETE FROM proyectos WHERE nombre = 'Uno'");
+            assertEquals(2, statement.executeBatch().length);
+        }
+
+        SlowQueryLog log = pool.getSlowQueryLog();
+        QueryStats inserts = log.getSlowest(100).stream()
+                .filter(stats -> stats.getFingerprint().equals("INSERT INTO proyectos (nombre) VALUES (?)"))
+                .findFirst().orElseThrow(AssertionError::new);
+        assertEquals(1, inserts.getExecutions());
+        assertEquals(2, inserts.getSlowestRows());
+        // Un lote con sentencias distintas se agrupa bajo una huella fija
+        assertTrue(log.getSlowest(100).stream()
+                .anyMatch(stats -> stats.getFingerprint().equals(SlowQueryLog.BATCH_FINGERPRINT)));
+    }
+
+    @Test
+    void testFingerprintReplacesLiterals() {
+        assertEquals("SELECT id FROM tareas WHERE estado = ? AND id IN (?, ...) AND project_id = ?",
+                SlowQueryLog.fingerprint("SELECT  id FROM tareas\n WHERE estado = 'It''s' AND id IN (1, 2, 3) AND project_id = -7"));
+        assertEquals("SELECT * FROM t2 WHERE x IN (?, ...)", SlowQueryLog.fingerprint("SELECT * FROM t2 WHERE x IN (?,?, ?)"));
+    }
+}
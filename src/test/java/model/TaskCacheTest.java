@@ -0,0 +1,82 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private static Task task(long id, String description) {
+        return new Task(id, description, LocalDate.of(2030, 1, 1), "Pendiente", null);
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedAndExpires() {
+        TaskCache cache = new TaskCache(2, 1000, now::get);
+        cache.taskSaved(task(1, "Uno"));
+        cache.taskSaved(task(2, "Dos"));
+        assertNotNull(cache.get(1L));
+        cache.taskSaved(task(3, "Tres"));
+
+        assertNull(cache.get(2L));
+        assertEquals(1, cache.getEvictions());
+        assertEquals("Uno", cache.get(1L).getDescription());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertNull(cache.get(1L));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(1, cache.purgeExpired());
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testReturnsCopiesAndWritesThrough() {
+        TaskCache cache = new TaskCache(10, 60_000, now::get);
+        cache.taskSaved(task(1, "Uno"));
+
+        Task read = cache.get(1L);
+        read.setDescription("Editada sin guardar");
+        assertEquals("Uno", cache.get(1L).getDescription());
+
+        read.setVersion(1); // Al guardarse recibe la versión siguiente
+        cache.taskSaved(read);
+        assertEquals("Editada sin guardar", cache.get(1L).getDescription());
+        cache.taskDeleted(1L);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testIgnoresVersionsThatAreNotNewer() {
+        TaskCache cache = new TaskCache(10, 60_000, now::get);
+        Task edited = task(1, "Editada");
+        edited.setVersion(2);
+        cache.taskSaved(edited);
+
+        Task synced = task(1, "Leída antes de editar");
+        synced.setVersion(1);
+        cache.taskSaved(synced);
+        assertEquals("Editada", cache.get(1L).getDescription());
+    }
+
+    @Test
+    void testDiscardsLoadStartedBeforeAChange() {
+        TaskCache cache = new TaskCache(10, 60_000, now::get);
+        long stamp = cache.beginLoad();
+        cache.taskSaved(task(1, "Nueva"));
+        cache.putIfUnchanged(task(1, "Vieja"), stamp);
+        assertEquals("Nueva", cache.get(1L).getDescription());
+
+        cache.invalidate(1L);
+        stamp = cache.beginLoad();
+        cache.putIfUnchanged(task(1, "Leída"), stamp);
+        assertEquals("Leída", cache.get(1L).getDescription());
+    }
+}
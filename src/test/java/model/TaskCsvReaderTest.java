@@ -0,0 +1,60 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCsvReaderTest {
+
+    private static TaskCsvReader reader(String content, int bufferSize) {
+        return new TaskCsvReader(Channels.newChannel(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))), bufferSize);
+    }
+
+    @Test
+    void testReadsSimpleRecords() throws IOException {
+        try (TaskCsvReader reader = reader("Informe, 2030-05-30 ,Pendiente\r\nRevisión,2030-06-01,Completa", 4)) {
+            assertTrue(reader.nextRecord());
+            assertEquals(3, reader.getFieldCount());
+            assertEquals("Informe", reader.getField(0).toString());
+            assertEquals("2030-05-30", reader.getField(1).toString());
+            assertEquals("Pendiente", reader.getField(2).toString());
+
+            assertTrue(reader.nextRecord());
+            assertEquals(2, reader.getLineNumber());
+            assertEquals("Revisión", reader.getField(0).toString());
+            assertFalse(reader.nextRecord());
+        }
+    }
+
+    @Test
+    void testReadsQuotedFields() throws IOException {
+        try (TaskCsvReader reader = reader("\"Llamar, \"\"urgente\"\"\nhoy\",2030-05-30,Pendiente\nsiguiente,2030-05-31,Pendiente\n", 5)) {
+            assertTrue(reader.nextRecord());
+            assertEquals(3, reader.getFieldCount());
+            assertEquals("Llamar, \"urgente\"\nhoy", reader.getField(0).toString());
+
+            assertTrue(reader.nextRecord());
+            assertEquals(3, reader.getLineNumber());
+            assertEquals("siguiente", reader.getField(0).toString());
+            assertFalse(reader.nextRecord());
+        }
+    }
+
+    @Test
+    void testCountsExtraFieldsAndBlankLines() throws IOException {
+        try (TaskCsvReader reader = reader("a,b,c,d\n\n", 64)) {
+            assertTrue(reader.nextRecord());
+            assertEquals(4, reader.getFieldCount());
+            assertEquals("c", reader.getField(2).toString());
+
+            assertTrue(reader.nextRecord());
+            assertTrue(reader.isBlank());
+            assertFalse(reader.nextRecord());
+        }
+    }
+}
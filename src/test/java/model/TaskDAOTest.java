@@ -5,39 +5,38 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class TaskDAOTest {
 
+    private EmbeddedDatabase database;
     private TaskDAO taskDAO;
     private Connection connection;
 
     @BeforeEach
     void setUp() throws SQLException {
-        taskDAO = new TaskDAO();
-        connection = DriverManager.getConnection("jdbc:mysql://localhost:3307/martinbd", "root", "melmmlam1234*");
-        try (Statement statement = connection.createStatement()) {
-            // Limpiar la tabla de tareas antes de cada prueba
-            statement.execute("DELETE FROM tareas");
-        }
+        // Cada prueba usa su propia base de datos en memoria, vacía y con el esquema creado
+        database = EmbeddedDatabase.create("task-dao-test");
+        taskDAO = new TaskDAO(database.getDataSource());
+        connection = database.getDataSource().getConnection();
     }
 
     @AfterEach
     void tearDown() throws SQLException {
-        try (Statement statement = connection.createStatement()) {
-            // Limpiar la tabla de tareas después de cada prueba
-            statement.execute("DELETE FROM tareas");
-        }
         if (connection != null && !connection.isClosed()) {
             connection.close();
         }
+        database.close();
     }
 
     @Test
@@ -92,4 +91,169 @@ class TaskDAOTest {
             assertEquals(0, resultSet.getInt("count"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetTasksAfterId() throws SQLException {
+        for (int i = 0; i < 5; i++) {
+            taskDAO.addTask(new Task(null, "Tarea " + i, LocalDate.now().plusDays(i), "Pendiente", 1L));
+        }
+
+        List<Task> firstPage = taskDAO.getTasksAfterId(null, 3);
+        assertEquals(3, firstPage.size());
+        List<Task> secondPage = taskDAO.getTasksAfterId(firstPage.get(2).getId(), 3);
+        assertEquals(2, secondPage.size());
+        assertTrue(secondPage.get(0).getId() > firstPage.get(2).getId());
+    }
+
+    @Test
+    void testGetTasksByDueDateAfter() throws SQLException {
+        LocalDate today = LocalDate.now();
+        taskDAO.addTask(new Task(null, "Tarea A", today.plusDays(2), "Pendiente", 1L));
+        taskDAO.addTask(new Task(null, "Tarea B", today, "Pendiente", 1L));
+        taskDAO.addTask(new Task(null, "Tarea C", today, "Pendiente", 1L));
+
+        List<Task> firstPage = taskDAO.getTasksByDueDateAfter(null, null, 2);
+        assertEquals(2, firstPage.size());
+        assertEquals(today, firstPage.get(1).getDueDate());
+        Task last = firstPage.get(1);
+        List<Task> secondPage = taskDAO.getTasksByDueDateAfter(last.getDueDate(), last.getId(), 2);
+        assertEquals(1, secondPage.size());
+        assertEquals("Tarea A", secondPage.get(0).getDescription());
+    }
+
+    @Test
+    void testForEachTask() throws SQLException {
+        taskDAO.addTask(new Task(null, "Tarea 1", LocalDate.now(), "Pendiente", 1L));
+        taskDAO.addTask(new Task(null, "Tarea 2", LocalDate.now(), "Pendiente", 1L));
+        taskDAO.setFetchSize(1);
+
+        List<Task> seen = new ArrayList<>();
+        assertEquals(2, taskDAO.forEachTask(seen::add));
+        assertEquals(2, seen.size());
+        try (Stream<Task> stream = taskDAO.streamTasks()) {
+            assertEquals(2, stream.count());
+        }
+    }
+
+    @Test
+    void testBatchOperations() throws SQLException {
+        taskDAO.setBatchSize(2);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(new Task(null, "Tarea lote " + i, LocalDate.now(), "Pendiente", 1L));
+        }
+
+        assertEquals(5, taskDAO.addTasks(tasks));
+        List<Long> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            assertNotNull(task.getId());
+            ids.add(task.getId());
+            task.setStatus("Completa");
+        }
+
+        taskDAO.updateTasks(tasks);
+        assertEquals("Completa", taskDAO.getTaskById(ids.get(4)).getStatus());
+
+        taskDAO.deleteTasks(ids);
+        assertTrue(taskDAO.getAllTasks().isEmpty());
+    }
+
+    @Test
+    void testGetTasksByIdsSplitsLongLists() throws SQLException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            tasks.add(new Task(null, "Tarea " + i, LocalDate.now(), "Pendiente", 1L));
+        }
+        taskDAO.addTasks(tasks);
+        long[] ids = new long[tasks.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tasks.get(ids.length - 1 - i).getId(); // En orden descendente
+        }
+
+        List<Task> loaded = taskDAO.getTasksByIds(ids);
+        assertEquals(250, loaded.size());
+        for (int i = 1; i < loaded.size(); i++) {
+            assertTrue(loaded.get(i - 1).getId() < loaded.get(i).getId());
+        }
+        assertEquals(3, taskDAO.getTasksByIds(new long[]{ids[0], ids[1], ids[2]}).size());
+    }
+
+    @Test
+    void testGetChangesSince() throws SQLException {
+        Task kept = new Task(null, "Tarea que se edita", LocalDate.now(), "Pendiente", 1L);
+        Task removed = new Task(null, "Tarea que se elimina", LocalDate.now(), "Pendiente", 1L);
+        taskDAO.addTask(kept);
+        taskDAO.addTask(removed);
+
+        TaskChanges start = taskDAO.getChangesSince(null);
+        assertTrue(start.isEmpty());
+        assertNotNull(start.getCursor());
+
+        kept.setStatus("Completa");
+        taskDAO.updateTask(kept);
+        taskDAO.deleteTask(removed.getId());
+
+        TaskChanges changes = taskDAO.getChangesSince(start.getCursor());
+        assertEquals(1, changes.getSavedTasks().size());
+        assertEquals("Completa", changes.getSavedTasks().get(0).getStatus());
+        assertArrayEquals(new long[]{removed.getId()}, changes.getDeletedIds());
+        assertFalse(changes.getCursor().before(start.getCursor()));
+    }
+
+    @Test
+    void testRepeatedTombstoneDoesNotFail() throws SQLException {
+        Task task = new Task(null, "Tarea borrada por dos clientes", LocalDate.now(), "Pendiente", 1L);
+        taskDAO.addTask(task);
+        // El segundo borrado concurrente encuentra ya la marca del primero
+        try (PreparedStatement statement = connection.prepareStatement(TaskDAO.TOMBSTONE_QUERY)) {
+            statement.setLong(1, task.getId());
+            statement.executeUpdate();
+        }
+        taskDAO.deleteTask(task.getId());
+        assertNull(taskDAO.getTaskById(task.getId()));
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM tareas_eliminadas")) {
+            assertTrue(resultSet.next());
+            assertEquals(1, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    void testUnconditionalUpdateReadsBackVersion() throws SQLException {
+        Task task = new Task(null, "Tarea editada desde dos copias", LocalDate.now(), "Pendiente", 1L);
+        taskDAO.addTask(task);
+        Task stale = taskDAO.getTaskById(task.getId());
+        Task staleInBatch = taskDAO.getTaskById(task.getId());
+
+        taskDAO.updateTask(task);
+        assertEquals(1, task.getVersion());
+        // La copia desfasada recibe la versión real de la fila, no la suya más uno
+        taskDAO.updateTask(stale);
+        assertEquals(2, stale.getVersion());
+        taskDAO.updateTasks(Collections.singletonList(staleInBatch));
+        assertEquals(3, staleInBatch.getVersion());
+        assertEquals(3, taskDAO.getTaskById(task.getId()).getVersion());
+    }
+
+    @Test
+    void testConditionalUpdateDetectsConflict() throws SQLException {
+        taskDAO.addTask(new Task(null, "Tarea compartida", LocalDate.now(), "Pendiente", 1L));
+        Long id = taskDAO.getAllTasks().get(0).getId();
+        Task mine = taskDAO.getTaskById(id);
+        Task theirs = taskDAO.getTaskById(id);
+        assertEquals(0, mine.getVersion());
+
+        theirs.setStatus("En progreso");
+        assertTrue(taskDAO.updateTask(theirs, theirs.getVersion()));
+        assertEquals(1, theirs.getVersion());
+
+        mine.setStatus("Completa");
+        assertFalse(taskDAO.updateTask(mine, mine.getVersion()));
+        Task stored = taskDAO.getTaskById(id);
+        assertEquals("En progreso", stored.getStatus());
+        assertEquals(1, stored.getVersion());
+
+        assertTrue(taskDAO.updateTask(mine, stored.getVersion()));
+        assertEquals("Completa", taskDAO.getTaskById(id).getStatus());
+    }
+}
@@ -0,0 +1,141 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2030-05-15"); // miércoles
+
+    /**
+     * DAO en memoria cuyo recorrido devuelve una lista fija de tareas.
+     */
+    private static class FakeTaskDAO extends TaskDAO {
+        private final List<Task> tasks;
+
+        FakeTaskDAO(Task... tasks) {
+            super(null);
+            this.tasks = Arrays.asList(tasks);
+        }
+
+        @Override
+        public long forEachTask(Consumer<Task> consumer) {
+            tasks.forEach(consumer);
+            return tasks.size();
+        }
+    }
+
+    private static Task task(long id, String dueDate, String status) {
+        return new Task(id, "Tarea " + id, LocalDate.parse(dueDate), status, null);
+    }
+
+    /** Una tarea guardada recibe la versión siguiente. */
+    private static Task edited(Task task) {
+        task.setVersion(task.getVersion() + 1);
+        return task;
+    }
+
+    @Test
+    void testStaleVersionIsIgnored() throws Exception {
+        TaskIndex index = new TaskIndex();
+        index.load(new FakeTaskDAO(task(1, "2030-05-10", "Pendiente")));
+        index.taskSaved(edited(task(1, "2030-05-10", "Completa")));
+
+        // La sincronización entrega la fila leída antes de la edición
+        index.taskSaved(task(1, "2030-05-10", "Pendiente"));
+        assertArrayEquals(new long[]{1}, index.getIdsByStatus("completa"));
+    }
+
+    @Test
+    void testQueriesAfterLoad() throws Exception {
+        TaskIndex index = new TaskIndex();
+        index.load(new FakeTaskDAO(
+                task(1, "2030-05-10", "Pendiente"),
+                task(2, "2030-05-12", "Completa"),
+                task(3, "2030-05-13", " pendiente"),
+                task(4, "2030-05-19", "En progreso"),
+                task(5, "2030-05-20", "Pendiente")));
+
+        assertEquals(5, index.size());
+        assertArrayEquals(new long[]{1, 3, 5}, index.getIdsByStatus("PENDIENTE"));
+        assertArrayEquals(new long[]{1, 3}, index.getOverdueIds(TODAY));
+        assertArrayEquals(new long[]{3, 4}, index.getIdsDueThisWeek(TODAY));
+        assertArrayEquals(new long[]{2, 3, 4}, index.getIdsDueBetween(LocalDate.parse("2030-05-11"), LocalDate.parse("2030-05-19")));
+        assertEquals(3, index.getStatusCounts().get("pendiente"));
+        // Las comprobaciones por id del filtro de la tabla coinciden con las consultas
+        assertTrue(index.hasStatus(3, "Pendiente"));
+        assertFalse(index.hasStatus(4, "Pendiente"));
+        assertTrue(index.isOverdue(1, TODAY));
+        assertFalse(index.isOverdue(2, TODAY));
+        assertTrue(index.isDueThisWeek(4, TODAY));
+        assertFalse(index.isDueThisWeek(5, TODAY));
+        assertArrayEquals(new long[]{3}, TaskController.intersect(index.getOverdueIds(TODAY), index.getIdsDueThisWeek(TODAY)));
+    }
+
+    @Test
+    void testChangesKeepIndexesInSync() throws Exception {
+        TaskIndex index = new TaskIndex();
+        index.load(new FakeTaskDAO(task(1, "2030-05-10", "Pendiente")));
+
+        index.taskSaved(edited(task(1, "2030-05-16", "Completa")));
+        index.taskSaved(task(2, "2030-05-01", "Pendiente"));
+        assertArrayEquals(new long[]{2}, index.getIdsByStatus("Pendiente"));
+        assertArrayEquals(new long[]{2}, index.getOverdueIds(TODAY));
+        assertArrayEquals(new long[]{1}, index.getIdsByStatus("completa"));
+
+        index.taskDeleted(2L);
+        assertArrayEquals(new long[0], index.getOverdueIds(TODAY));
+        assertArrayEquals(new long[0], index.getIdsByStatus("pendiente"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testChangesDuringLoadWin() throws Exception {
+        TaskIndex index = new TaskIndex();
+        TaskDAO dao = new FakeTaskDAO(task(1, "2030-05-10", "Pendiente"), task(2, "2030-05-11", "Pendiente")) {
+            @Override
+            public long forEachTask(Consumer<Task> consumer) {
+                // Llegan cambios antes de que el cursor lea esas filas
+                index.taskSaved(task(1, "2030-05-10", "Completa"));
+                index.taskDeleted(2L);
+                return super.forEachTask(consumer);
+            }
+        };
+        index.load(dao);
+
+        assertArrayEquals(new long[]{1}, index.getIdsByStatus("completa"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testBothIndexesLoadInOnePass() throws Exception {
+        TaskIndex index = new TaskIndex();
+        TaskSearchIndex searchIndex = new TaskSearchIndex();
+        int[] passes = {0};
+        TaskDAO dao = new FakeTaskDAO(task(1, "2030-05-10", "Pendiente"), task(2, "2030-05-11", "Pendiente")) {
+            @Override
+            public long forEachTask(Consumer<Task> consumer) {
+                passes[0]++;
+                // Llega un cambio antes de que el cursor lea esa fila
+                Task changed = edited(task(1, "2030-05-10", "Completa"));
+                changed.setDescription("Revisar factura");
+                index.taskSaved(changed);
+                searchIndex.taskSaved(changed);
+                return super.forEachTask(consumer);
+            }
+        };
+        TaskController.loadIndexes(dao, index, searchIndex);
+
+        assertEquals(1, passes[0]);
+        assertEquals(2, index.size());
+        assertArrayEquals(new long[]{1}, index.getIdsByStatus("completa"));
+        assertArrayEquals(new long[]{1}, searchIndex.findMatchingIds("factura"));
+        assertArrayEquals(new long[]{2}, searchIndex.findMatchingIds("tarea"));
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private static Task task(long id, String description) {
+        return new Task(id, description, LocalDate.of(2030, 1, 1), "Pendiente", null);
+    }
+
+    private static TaskSearchIndex load(Task... tasks) throws Exception {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.load(new TaskDAO(null) {
+            @Override
+            public long forEachTask(Consumer<Task> consumer) {
+                Arrays.asList(tasks).forEach(consumer);
+                return tasks.length;
+            }
+        });
+        return index;
+    }
+
+    @Test
+    void testTokenizeFoldsAccentsAndCase() {
+        assertEquals(Arrays.asList("revision", "del", "ano", "n2"), TaskSearchIndex.tokenize("¡Revisión DEL año, N2!"));
+    }
+
+    @Test
+    void testPrefixSearchRequiresAllWordsAndRanksExactMatches() throws Exception {
+        TaskSearchIndex index = load(
+                task(1, "Revisar informe mensual"),
+                task(2, "Informe de revisión anual"),
+                task(3, "Llamar al proveedor"),
+                task(4, "Informes pendientes de revisión final"));
+
+        assertArrayEquals(new long[]{1, 2, 4}, index.findMatchingIds("INFORM"));
+        assertArrayEquals(new long[]{1, 2, 4}, index.findMatchingIds("revis inform"));
+        assertEquals(Arrays.asList(2L, 4L), index.search("revision informe", 10).subList(0, 2));
+        assertEquals(1, index.search("informe", 1).size());
+        assertTrue(index.matches("llam prov", 3));
+        assertFalse(index.matches("llam informe", 3));
+        assertEquals(0, index.findMatchingIds("  ").length);
+    }
+
+    @Test
+    void testIncrementalUpdates() throws Exception {
+        TaskSearchIndex index = load(task(1, "Preparar presupuesto"));
+
+        index.taskSaved(task(2, "Presupuesto de marketing"));
+        Task edited = task(1, "Preparar reunión");
+        edited.setVersion(1);
+        index.taskSaved(edited);
+        index.taskSaved(task(1, "Versión anterior leída por la sincronización"));
+        assertArrayEquals(new long[]{2}, index.findMatchingIds("presupuesto"));
+        assertArrayEquals(new long[]{1}, index.findMatchingIds("reunion"));
+
+        index.taskDeleted(2L);
+        assertArrayEquals(new long[0], index.findMatchingIds("presupuesto"));
+        assertEquals(1, index.size());
+    }
+}
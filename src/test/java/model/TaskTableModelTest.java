@@ -0,0 +1,148 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskTableModelTest {
+
+    private TaskTableModel tableModel;
+    private List<TableModelEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        tableModel = new TaskTableModel(new TaskDAO(null));
+        events = new ArrayList<>();
+        tableModel.addTableModelListener(events::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tableModel.dispose();
+    }
+
+    private static Task task(long id, String description) {
+        return new Task(id, description, LocalDate.of(2030, 1, 1), "Pendiente", null);
+    }
+
+    @Test
+    void testInsertKeepsRowsOrderedById() {
+        tableModel.taskInserted(task(5, "Cinco"));
+        tableModel.taskInserted(task(1, "Uno"));
+        tableModel.taskInserted(task(3, "Tres"));
+
+        assertEquals(3, tableModel.getRowCount());
+        assertEquals(1L, tableModel.getTaskIdAt(0));
+        assertEquals(3L, tableModel.getTaskIdAt(1));
+        assertEquals(5L, tableModel.getTaskIdAt(2));
+        assertEquals("Tres", tableModel.getValueAt(1, 1));
+        assertEquals(TableModelEvent.INSERT, events.get(2).getType());
+        assertEquals(1, events.get(2).getFirstRow());
+    }
+
+    @Test
+    void testUpdatePatchesSingleRow() {
+        tableModel.taskInserted(task(1, "Uno"));
+        tableModel.taskInserted(task(2, "Dos"));
+        events.clear();
+
+        tableModel.taskUpdated(task(2, "Dos editada"));
+
+        assertEquals("Dos editada", tableModel.getValueAt(1, 1));
+        assertEquals(1, events.size());
+        assertEquals(TableModelEvent.UPDATE, events.get(0).getType());
+        assertEquals(1, events.get(0).getFirstRow());
+        assertEquals(1, events.get(0).getLastRow());
+    }
+
+    @Test
+    void testOlderVersionDoesNotReplaceRow() {
+        Task current = task(1, "Uno v2");
+        current.setVersion(2);
+        tableModel.taskInserted(current);
+        events.clear();
+
+        Task stale = task(1, "Uno v1");
+        stale.setVersion(1);
+        tableModel.taskUpdated(stale);
+
+        assertEquals("Uno v2", tableModel.getValueAt(0, 1));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testRemoveShiftsFollowingRows() {
+        tableModel.taskInserted(task(1, "Uno"));
+        tableModel.taskInserted(task(2, "Dos"));
+        tableModel.taskInserted(task(3, "Tres"));
+        events.clear();
+
+        tableModel.taskRemoved(2L);
+
+        assertEquals(2, tableModel.getRowCount());
+        assertEquals(-1, tableModel.findRow(2L));
+        assertEquals(1, tableModel.findRow(3L));
+        assertEquals("Tres", tableModel.getValueAt(1, 1));
+        assertEquals(TableModelEvent.DELETE, events.get(0).getType());
+    }
+
+    @Test
+    void testFilterShowsAndHidesChangedTasks() {
+        tableModel.taskInserted(task(1, "Uno"));
+        tableModel.taskInserted(task(2, "Dos"));
+        tableModel.taskInserted(task(3, "Tres"));
+
+        tableModel.showOnly(new long[]{1, 3}, id -> id % 2 == 1);
+        assertTrue(tableModel.isFiltered());
+        assertEquals(2, tableModel.getRowCount());
+        assertEquals("Tres", tableModel.getValueAt(1, 1));
+
+        tableModel.taskInserted(task(4, "Cuatro"));
+        tableModel.taskInserted(task(5, "Cinco"));
+        assertEquals(3, tableModel.getRowCount());
+        assertEquals(-1, tableModel.findRow(4L));
+
+        tableModel.showOnly(new long[]{1}, id -> id == 1 || id == 2);
+        tableModel.taskUpdated(task(2, "Dos editada"));
+        assertEquals(1, tableModel.findRow(2L));
+        tableModel.showOnly(new long[]{1, 2}, id -> id == 2);
+        tableModel.taskUpdated(task(1, "Uno editada"));
+        assertEquals(-1, tableModel.findRow(1L));
+        assertEquals(1, tableModel.getRowCount());
+    }
+
+    @Test
+    void testRowsOfMissingTasksAreRemovedAfterLoading() throws Exception {
+        EmbeddedDatabase database = EmbeddedDatabase.create("task-table-model-test");
+        TaskTableModel loading = new TaskTableModel(new TaskDAO(database.getDataSource()));
+        try {
+            Task stored = task(0, "Guardada");
+            stored.setId(null);
+            assertTrue(new TaskDAO(database.getDataSource()).addTask(stored));
+            long deletedId = stored.getId() + 1000;
+            loading.showOnly(new long[]{stored.getId(), deletedId}, id -> true);
+
+            assertEquals(TaskTableModel.LOADING, loading.getValueAt(1, 1));
+            long deadline = System.currentTimeMillis() + 5000;
+            int[] rows = {loading.getRowCount()};
+            while (rows[0] != 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+                SwingUtilities.invokeAndWait(() -> rows[0] = loading.getRowCount());
+            }
+            // La fila de la tarea que ya no existe se quita en lugar de volver a pedirse
+            assertEquals(1, rows[0]);
+            SwingUtilities.invokeAndWait(() -> assertEquals("Guardada", loading.getValueAt(0, 1)));
+        } finally {
+            loading.dispose();
+            database.close();
+        }
+    }
+}
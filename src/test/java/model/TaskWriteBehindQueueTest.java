@@ -0,0 +1,157 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskWriteBehindQueueTest {
+
+    /**
+     * DAO en memoria que registra los lotes escritos y puede fallar un número de veces.
+     */
+    private static class RecordingTaskDAO extends TaskDAO {
+        final List<List<Task>> updateBatches = new ArrayList<>();
+        final List<List<Long>> deleteBatches = new ArrayList<>();
+        int failuresLeft;
+
+        RecordingTaskDAO() {
+            super(null);
+        }
+
+        @Override
+        public synchronized int updateTasks(Collection<Task> tasks) throws SQLException {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new SQLException("fallo simulado");
+            }
+            if (!tasks.isEmpty()) {
+                updateBatches.add(new ArrayList<>(tasks));
+            }
+            return tasks.size();
+        }
+
+        @Override
+        public synchronized int deleteTasks(Collection<Long> ids) {
+            if (!ids.isEmpty()) {
+                deleteBatches.add(new ArrayList<>(ids));
+            }
+            return ids.size();
+        }
+    }
+
+    private static Task task(long id, String description) {
+        return new Task(id, description, LocalDate.of(2030, 1, 1), "Pendiente", null);
+    }
+
+    @Test
+    void testCoalescesUpdatesAndDeletes() throws Exception {
+        RecordingTaskDAO dao = new RecordingTaskDAO();
+        try (TaskWriteBehindQueue queue = new TaskWriteBehindQueue(dao, 100, 100, 60_000, 0)) {
+            Task task = task(1, "Primera");
+            queue.enqueueUpdate(task);
+            task.setDescription("Segunda");
+            queue.enqueueUpdate(task);
+            queue.enqueueUpdate(task(2, "Otra"));
+            queue.enqueueDelete(2L);
+            assertFalse(queue.enqueueUpdate(task(2, "Tras borrar")));
+
+            assertEquals("Segunda", queue.getTask(1L).getDescription());
+            assertNull(queue.getTask(2L));
+            assertEquals(2, queue.getCoalescedCount());
+            queue.flush();
+        }
+        assertEquals(1, dao.updateBatches.size());
+        assertEquals(1, dao.updateBatches.get(0).size());
+        assertEquals("Segunda", dao.updateBatches.get(0).get(0).getDescription());
+        assertEquals(1, dao.deleteBatches.size());
+        assertEquals(2L, dao.deleteBatches.get(0).get(0));
+    }
+
+    @Test
+    void testFullQueueRejectsAfterWaiting() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingTaskDAO dao = new RecordingTaskDAO() {
+            @Override
+            public int updateTasks(Collection<Task> tasks) throws SQLException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.updateTasks(tasks);
+            }
+        };
+        try (TaskWriteBehindQueue queue = new TaskWriteBehindQueue(dao, 2, 2, 60_000, 20)) {
+            queue.enqueueUpdate(task(1, "Uno"));
+            queue.enqueueUpdate(task(2, "Dos"));
+            assertTrue(writing.await(5, TimeUnit.SECONDS)); // El primer lote queda bloqueado en el DAO
+
+            queue.enqueueUpdate(task(3, "Tres"));
+            queue.enqueueUpdate(task(4, "Cuatro"));
+            queue.enqueueUpdate(task(4, "Cuatro otra vez")); // Fusionar no necesita espacio
+            assertThrows(RejectedExecutionException.class, () -> queue.enqueueUpdate(task(5, "Cinco")));
+            assertEquals(4, queue.getPendingCount());
+            release.countDown();
+        }
+        assertEquals(4, dao.updateBatches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void testRetriesFailedBatchAndFlushesOnClose() throws Exception {
+        RecordingTaskDAO dao = new RecordingTaskDAO();
+        dao.failuresLeft = 1;
+        TaskWriteBehindQueue queue = new TaskWriteBehindQueue(dao, 100, 100, 60_000, 0);
+        queue.enqueueUpdate(task(1, "Uno"));
+        queue.flush();
+        assertTrue(dao.updateBatches.isEmpty());
+        assertEquals(1, queue.getPendingCount());
+
+        queue.close();
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(1, dao.updateBatches.size());
+        assertEquals(0, queue.getDroppedCount());
+        assertThrows(RejectedExecutionException.class, () -> queue.enqueueUpdate(task(2, "Dos")));
+    }
+
+    @Test
+    void testKeepsRetryingUntilTheWriteSucceeds() throws Exception {
+        RecordingTaskDAO dao = new RecordingTaskDAO();
+        dao.failuresLeft = 5;
+        try (TaskWriteBehindQueue queue = new TaskWriteBehindQueue(dao, 100, 100, 60_000, 0)) {
+            queue.enqueueUpdate(task(1, "Uno"));
+            for (int i = 0; i < 5; i++) {
+                queue.flush();
+                assertEquals(1, queue.getPendingCount());
+            }
+            queue.flush();
+            assertEquals(0, queue.getPendingCount());
+            assertEquals(0, queue.getDroppedCount());
+        }
+        assertEquals(1, dao.updateBatches.size());
+    }
+
+    @Test
+    void testCountsWritesLostOnClose() throws Exception {
+        RecordingTaskDAO dao = new RecordingTaskDAO();
+        dao.failuresLeft = Integer.MAX_VALUE;
+        TaskWriteBehindQueue queue = new TaskWriteBehindQueue(dao, 100, 100, 60_000, 0);
+        queue.enqueueUpdate(task(1, "Uno"));
+        queue.enqueueDelete(2L);
+        queue.close();
+        queue.close(); // Cerrar otra vez no repite la escritura
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(0, queue.getPendingCount());
+        assertTrue(dao.updateBatches.isEmpty());
+    }
+}
@@ -5,7 +5,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -14,24 +13,24 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class UserDAOTest {
 
+    private EmbeddedDatabase database;
     private UserDAO userDAO;
     private Connection connection;
 
     @BeforeEach
     void setUp() throws SQLException {
-        userDAO = new UserDAO();
-        connection = DriverManager.getConnection("jdbc:mysql://localhost:3307/martinbd", "root", "melmmlam1234*");
+        // Cada prueba usa su propia base de datos en memoria, vacía y con el esquema creado
+        database = EmbeddedDatabase.create("user-dao-test");
+        userDAO = new UserDAO(database.getDataSource());
+        connection = database.getDataSource().getConnection();
     }
 
     @AfterEach
     void tearDown() throws SQLException {
-        try (Statement statement = connection.createStatement()) {
-            // Limpiar la tabla de usuarios después de cada prueba
-            statement.execute("DELETE FROM usuarios");
-        }
         if (connection != null && !connection.isClosed()) {
             connection.close();
         }
+        database.close();
     }
 
     @Test
@@ -54,4 +53,23 @@ class UserDAOTest {
         assertTrue(userDAO.authenticate("testuser", "password123"));
         assertFalse(userDAO.authenticate("testuser", "wrongpassword"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testWeakHashIsUpgradedInBackground() throws Exception {
+        new UserDAO(database.getDataSource(), new PasswordHasher(4)).addUser(new User("testuser", "password123"));
+        UserDAO stronger = new UserDAO(database.getDataSource(), new PasswordHasher(5));
+
+        assertTrue(stronger.authenticate("testuser", "password123"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (PasswordHasher.costOf(stronger.getPasswordHash("testuser")) != 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(5, PasswordHasher.costOf(stronger.getPasswordHash("testuser")));
+
+        // Un hasher de coste menor no rebaja el hash
+        UserDAO weaker = new UserDAO(database.getDataSource(), new PasswordHasher(4));
+        assertTrue(weaker.authenticate("testuser", "password123"));
+        Thread.sleep(100);
+        assertEquals(5, PasswordHasher.costOf(weaker.getPasswordHash("testuser")));
+    }
+}